@@ -0,0 +1,125 @@
+package sicxesimulator.benchmark;
+
+import sicxesimulator.assembler.Assembler;
+import sicxesimulator.loader.Loader;
+import sicxesimulator.machine.Machine;
+import sicxesimulator.models.ObjectFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Programas usados pelos benchmarks. As misturas de instruções executam em laço infinito,
+ * para que a medição nunca encontre o fim do programa.
+ */
+public final class BenchmarkPrograms {
+
+    /**
+     * Misturas de instruções representativas para medir a execução.
+     */
+    public enum Mix {
+        /** Aritmética com acumulador: LDA, ADD, MUL, DIV e STA. */
+        ARITHMETIC(List.of(
+                "ARITH   START   0",
+                "LOOP    LDA     SUM",
+                "        ADD     ONE",
+                "        MUL     TWO",
+                "        DIV     TWO",
+                "        STA     SUM",
+                "        J       LOOP",
+                "ONE     WORD    1",
+                "TWO     WORD    2",
+                "SUM     WORD    0",
+                "END     LOOP")),
+        /** Cargas e armazenamentos de todos os registradores de uso geral. */
+        MEMORY(List.of(
+                "MEMORY  START   0",
+                "LOOP    LDA     W1",
+                "        ADD     ONE",
+                "        STA     W2",
+                "        LDX     W2",
+                "        STX     W3",
+                "        LDS     W3",
+                "        STS     W4",
+                "        LDT     W4",
+                "        STT     W1",
+                "        J       LOOP",
+                "ONE     WORD    1",
+                "W1      WORD    7",
+                "W2      RESW    1",
+                "W3      RESW    1",
+                "W4      RESW    1",
+                "END     LOOP")),
+        /** Comparações, desvios condicionais e chamada de sub-rotina. */
+        BRANCH(List.of(
+                "BRANCH  START   0",
+                "LOOP    LDA     COUNT",
+                "        ADD     ONE",
+                "        STA     COUNT",
+                "        COMP    LIMIT",
+                "        JLT     LESS",
+                "        JEQ     EQUAL",
+                "        LDA     ZERO",
+                "        STA     COUNT",
+                "        J       LOOP",
+                "LESS    JSUB    SUBR",
+                "        J       LOOP",
+                "EQUAL   J       LOOP",
+                "SUBR    RSUB",
+                "ZERO    WORD    0",
+                "ONE     WORD    1",
+                "COUNT   WORD    0",
+                "LIMIT   WORD    10",
+                "END     LOOP"));
+
+        private final List<String> source;
+
+        Mix(List<String> source) {
+            this.source = source;
+        }
+
+        List<String> source() {
+            return source;
+        }
+
+        /**
+         * Tamanho em bytes do código, que vem antes dos dados e tem 3 bytes por instrução.
+         */
+        int codeBytes() {
+            return (int) source.stream().skip(1)
+                    .takeWhile(line -> !line.contains("WORD") && !line.contains("RESW"))
+                    .count() * 3;
+        }
+    }
+
+    private BenchmarkPrograms() { }
+
+    /**
+     * Monta o programa e o carrega em uma máquina nova.
+     */
+    static Machine load(List<String> source) {
+        Machine machine = new Machine();
+        new Loader(machine).load(new Assembler().assemble(source));
+        return machine;
+    }
+
+    /**
+     * Lê um dos exemplos distribuídos com o simulador (em {@code resources/samples}).
+     */
+    static List<String> sample(String name) {
+        try (InputStream input = BenchmarkPrograms.class.getResourceAsStream("/samples/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Exemplo não encontrado: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao ler o exemplo " + name, e);
+        }
+    }
+
+    static ObjectFile assemble(List<String> source) {
+        return new Assembler().assemble(source);
+    }
+}
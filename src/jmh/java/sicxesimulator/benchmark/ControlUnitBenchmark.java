@@ -0,0 +1,44 @@
+package sicxesimulator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sicxesimulator.machine.cpu.ControlUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução de misturas representativas de instruções: uma instrução por vez com
+ * {@link ControlUnit#step()}, e em sequência com {@link ControlUnit#run(long)}, que usa os
+ * blocos compilados e traduzidos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlUnitBenchmark {
+    private static final int RUN_LENGTH = 10_000;
+
+    @Param({"ARITHMETIC", "MEMORY", "BRANCH"})
+    public BenchmarkPrograms.Mix mix;
+
+    private ControlUnit controlUnit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controlUnit = BenchmarkPrograms.load(mix.source()).getControlUnit();
+    }
+
+    @Benchmark
+    public int step() {
+        controlUnit.step();
+        return controlUnit.getIntValuePC();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUN_LENGTH)
+    public long run() {
+        controlUnit.run(RUN_LENGTH);
+        return controlUnit.getInstructionCount();
+    }
+}
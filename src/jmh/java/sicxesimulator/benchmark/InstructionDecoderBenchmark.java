@@ -0,0 +1,57 @@
+package sicxesimulator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sicxesimulator.machine.Machine;
+import sicxesimulator.machine.cpu.DecodedInstruction;
+import sicxesimulator.machine.cpu.InstructionDecoder;
+import sicxesimulator.machine.cpu.RegisterSet;
+import sicxesimulator.models.Instruction;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificação das instruções de um programa, percorridas em sequência: pelo caminho
+ * completo de {@link InstructionDecoder#decodeInstruction()}, que monta uma {@link Instruction},
+ * e pelo cache de {@link InstructionDecoder#fetch()} usado na execução.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstructionDecoderBenchmark {
+
+    @Param({"ARITHMETIC", "MEMORY", "BRANCH"})
+    public BenchmarkPrograms.Mix mix;
+
+    private InstructionDecoder decoder;
+    private RegisterSet registers;
+    private int codeEnd;
+    private int pc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Machine machine = BenchmarkPrograms.load(mix.source());
+        decoder = machine.getControlUnit().getInstructionDecoder();
+        registers = machine.getControlUnit().getRegisterSet();
+        codeEnd = mix.codeBytes();
+    }
+
+    @Benchmark
+    public Instruction decodeInstruction() {
+        registers.set(RegisterSet.PC, nextAddress());
+        return decoder.decodeInstruction();
+    }
+
+    @Benchmark
+    public DecodedInstruction fetchCached() {
+        return decoder.fetch(nextAddress());
+    }
+
+    private int nextAddress() {
+        int address = pc;
+        pc = pc + 3 == codeEnd ? 0 : pc + 3;
+        return address;
+    }
+}
@@ -0,0 +1,60 @@
+package sicxesimulator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sicxesimulator.machine.Memory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura e escrita de palavras na memória, nos dois armazenamentos, pela interface de
+ * arrays de bytes e pela de inteiros de 24 bits usada na execução.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+    private static final int SIZE = 24576;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public Memory.Backend backend;
+
+    private Memory memory;
+    private final byte[] word = {0x01, 0x02, 0x03};
+    private int wordIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memory = new Memory(SIZE, backend);
+    }
+
+    @Benchmark
+    public byte[] readWord() {
+        return memory.readWord(nextWord());
+    }
+
+    @Benchmark
+    public void writeWord() {
+        memory.writeWord(nextWord(), word);
+    }
+
+    @Benchmark
+    public int readInt24() {
+        return memory.readInt24(nextWord());
+    }
+
+    @Benchmark
+    public void writeInt24() {
+        int index = nextWord();
+        memory.writeInt24(index, index);
+    }
+
+    // Percorre a memória inteira, para não medir apenas uma linha de cache
+    private int nextWord() {
+        int index = wordIndex;
+        wordIndex = index + 1 == SIZE / 3 ? 0 : index + 1;
+        return index;
+    }
+}
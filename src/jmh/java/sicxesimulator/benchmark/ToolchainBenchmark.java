@@ -0,0 +1,60 @@
+package sicxesimulator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sicxesimulator.assembler.Assembler;
+import sicxesimulator.linker.Linker;
+import sicxesimulator.loader.Loader;
+import sicxesimulator.machine.Machine;
+import sicxesimulator.models.ObjectFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem, ligação e carga dos exemplos distribuídos com o simulador e das misturas de
+ * instruções dos outros benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolchainBenchmark {
+    private static final int LOAD_ADDRESS = 0x300;
+
+    private List<String> source;
+    private List<ObjectFile> modules;
+    private ObjectFile linked;
+    private Loader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = BenchmarkPrograms.Mix.BRANCH.source();
+        modules = new ArrayList<>();
+        modules.add(BenchmarkPrograms.assemble(BenchmarkPrograms.sample("SAMP01.ASM")));
+        modules.add(BenchmarkPrograms.assemble(BenchmarkPrograms.sample("SAMP02.ASM")));
+        for (BenchmarkPrograms.Mix mix : BenchmarkPrograms.Mix.values()) {
+            modules.add(BenchmarkPrograms.assemble(mix.source()));
+        }
+        linked = new Linker().link(modules, LOAD_ADDRESS, true);
+        loader = new Loader(new Machine());
+    }
+
+    @Benchmark
+    public ObjectFile assemble() {
+        return new Assembler().assemble(source);
+    }
+
+    @Benchmark
+    public ObjectFile link() {
+        return new Linker().link(modules, LOAD_ADDRESS, true);
+    }
+
+    @Benchmark
+    public Machine load() {
+        loader.load(linked);
+        return loader.getMachine();
+    }
+}
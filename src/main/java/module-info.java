@@ -4,6 +4,7 @@ module sicxesimulator {
     requires javafx.media;
     requires java.logging;
     requires java.desktop;
+    requires jdk.jfr;
 
     opens sicxesimulator.simulator.view to javafx.fxml, javafx.controls, javafx.media;
     opens sicxesimulator.simulator.view.components to javafx.fxml, javafx.controls, javafx.media;
@@ -18,6 +19,7 @@ module sicxesimulator {
     exports sicxesimulator.assembler;
     exports sicxesimulator.macroprocessor;
     exports sicxesimulator.utils;
+    exports sicxesimulator.events;
     exports sicxesimulator.models;
     exports sicxesimulator.simulator.view.records;
     opens sicxesimulator.simulator.view.records to javafx.controls, javafx.fxml, javafx.media;
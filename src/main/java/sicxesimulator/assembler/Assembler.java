@@ -1,5 +1,6 @@
 package sicxesimulator.assembler;
 
+import sicxesimulator.events.AssembleEvent;
 import sicxesimulator.models.IntermediateRepresentation;
 import sicxesimulator.models.ObjectFile;
 
@@ -19,10 +20,20 @@ public class Assembler {
      * Agrega e orquestra o processo de montagem:
      * Executa a primeira passagem (para gerar a representação intermediária)
      * e depois a segunda passagem (para gerar o código objeto).
+     * Emite um {@link AssembleEvent} quando há uma gravação JFR ativa.
      */
     public ObjectFile assemble(List<String> sourceLines) {
+        AssembleEvent event = new AssembleEvent();
+        event.begin();
         IntermediateRepresentation midCode = firstPass(sourceLines);
-        return secondPass(midCode);
+        ObjectFile objectFile = secondPass(midCode);
+        if (event.shouldCommit()) {
+            event.program = objectFile.getFilename();
+            event.sourceLines = sourceLines.size();
+            event.objectBytes = objectFile.getObjectCode().length;
+            event.commit();
+        }
+        return objectFile;
     }
 
     /**
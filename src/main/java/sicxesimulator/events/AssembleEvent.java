@@ -0,0 +1,27 @@
+package sicxesimulator.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Montagem de um programa por {@link sicxesimulator.assembler.Assembler#assemble}.
+ */
+@Name("sicxesimulator.Assemble")
+@Label("Montagem")
+@Category({"SIC/XE Simulator", "Ferramentas"})
+@Description("Montagem de um programa, nas duas passagens.")
+public class AssembleEvent extends jdk.jfr.Event {
+
+    @Label("Programa")
+    public String program;
+
+    @Label("Linhas de código-fonte")
+    public int sourceLines;
+
+    @Label("Código objeto")
+    @DataAmount
+    public int objectBytes;
+}
@@ -0,0 +1,29 @@
+package sicxesimulator.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Uma chamada de {@link sicxesimulator.machine.Machine#run}: um evento por trecho executado,
+ * com a contagem de instruções, e não um por instrução.
+ */
+@Name("sicxesimulator.ExecutionSlice")
+@Label("Trecho de execução")
+@Category({"SIC/XE Simulator", "Execução"})
+@Description("Execução em sequência de instruções até o fim do programa, uma falha, um ponto de parada ou o limite.")
+public class ExecutionSliceEvent extends jdk.jfr.Event {
+
+    @Label("Instruções")
+    public long instructions;
+
+    @Label("Motivo da parada")
+    public String stopReason;
+
+    @Label("PC inicial")
+    public int startAddress;
+
+    @Label("PC final")
+    public int endAddress;
+}
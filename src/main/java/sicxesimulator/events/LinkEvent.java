@@ -0,0 +1,30 @@
+package sicxesimulator.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Ligação de módulos por {@link sicxesimulator.linker.Linker#link}.
+ */
+@Name("sicxesimulator.Link")
+@Label("Ligação")
+@Category({"SIC/XE Simulator", "Ferramentas"})
+@Description("Ligação de módulos objeto em um único programa.")
+public class LinkEvent extends jdk.jfr.Event {
+
+    @Label("Módulos")
+    public int modules;
+
+    @Label("Endereço de carga")
+    public int loadAddress;
+
+    @Label("Relocação completa")
+    public boolean fullRelocation;
+
+    @Label("Código objeto")
+    @DataAmount
+    public int objectBytes;
+}
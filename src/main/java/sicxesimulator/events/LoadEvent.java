@@ -0,0 +1,27 @@
+package sicxesimulator.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Carga de um programa na memória por {@link sicxesimulator.loader.Loader#load}.
+ */
+@Name("sicxesimulator.Load")
+@Label("Carga")
+@Category({"SIC/XE Simulator", "Ferramentas"})
+@Description("Carga do código objeto na memória da máquina.")
+public class LoadEvent extends jdk.jfr.Event {
+
+    @Label("Programa")
+    public String program;
+
+    @Label("Endereço inicial")
+    public int startAddress;
+
+    @Label("Código objeto")
+    @DataAmount
+    public int objectBytes;
+}
@@ -0,0 +1,28 @@
+package sicxesimulator.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Expansão de macros de um arquivo por {@link sicxesimulator.macroprocessor.MacroProcessor#process}.
+ */
+@Name("sicxesimulator.MacroExpansion")
+@Label("Expansão de macros")
+@Category({"SIC/XE Simulator", "Ferramentas"})
+@Description("Leitura, expansão das macros e gravação do arquivo expandido.")
+public class MacroExpansionEvent extends jdk.jfr.Event {
+
+    @Label("Arquivo de entrada")
+    public String inputFile;
+
+    @Label("Linhas de entrada")
+    public int inputLines;
+
+    @Label("Linhas geradas")
+    public int outputLines;
+
+    @Label("Macros definidas")
+    public int macros;
+}
@@ -1,5 +1,6 @@
 package sicxesimulator.linker;
 
+import sicxesimulator.events.LinkEvent;
 import sicxesimulator.models.ObjectFile;
 
 import java.util.List;
@@ -30,12 +31,15 @@ public class Linker {
      * @return               O ObjectFile final resultante da ligação.
      */
     public ObjectFile link(List<ObjectFile> objectFiles, int loadAddress, boolean fullRelocation) {
+        LinkEvent event = new LinkEvent();
+        event.begin();
+
         // Primeira passagem: calcular offsets, tabela global e identificar o programa.
         firstPass.process(objectFiles, loadAddress);
 
         // Segunda passagem: gerar o código objeto final utilizando as informações da primeira passagem.
 
-        return secondPass.process(
+        ObjectFile linked = secondPass.process(
                 objectFiles,
                 firstPass.getModuleRelocationOffsets(),
                 loadAddress,
@@ -43,5 +47,15 @@ public class Linker {
                 firstPass.getGlobalSymbolTable(),
                 firstPass.getProgramName()
         );
+
+        // Só preenchido com uma gravação JFR ativa
+        if (event.shouldCommit()) {
+            event.modules = objectFiles.size();
+            event.loadAddress = loadAddress;
+            event.fullRelocation = fullRelocation;
+            event.objectBytes = linked.getObjectCode().length;
+            event.commit();
+        }
+        return linked;
     }
 }
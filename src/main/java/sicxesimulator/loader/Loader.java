@@ -1,5 +1,6 @@
 package sicxesimulator.loader;
 
+import sicxesimulator.events.LoadEvent;
 import sicxesimulator.models.ObjectFile;
 import sicxesimulator.machine.Machine;
 import sicxesimulator.machine.Memory;
@@ -18,6 +19,8 @@ public class Loader {
     }
 
     public void load(ObjectFile objectFile) {
+        LoadEvent event = new LoadEvent();
+        event.begin();
         Memory memory = machine.getMemory();
         // Agora, startAddress já está em termos de palavras
         int startWordAddress = objectFile.getStartAddress();
@@ -31,6 +34,14 @@ public class Loader {
         machine.getControlUnit().setIntValuePC(startWordAddress);
 
         logSuccess(startWordAddress, objectCode);
+
+        // Só preenchido com uma gravação JFR ativa
+        if (event.shouldCommit()) {
+            event.program = objectFile.getFilename();
+            event.startAddress = startWordAddress;
+            event.objectBytes = objectCode.length;
+            event.commit();
+        }
     }
 
 
@@ -0,0 +1,388 @@
+package sicxesimulator.logger;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Escrita assíncrona de arquivos de log.
+ *
+ * Quem registra apenas coloca o registro em uma {@link LogQueue} limitada, sem bloqueio; uma
+ * thread de fundo retira os registros em lotes, monta o texto e o acumula em um buffer por
+ * arquivo, que vai para o {@link FileChannel} em blocos grandes. A formatação e a escrita em
+ * disco saem da thread da simulação.
+ *
+ * Com a fila cheia, vale a política de transbordo: {@link OverflowPolicy#BLOCK} espera haver
+ * espaço, {@link OverflowPolicy#DROP} descarta o registro e {@link OverflowPolicy#SAMPLE}
+ * espera apenas por um a cada {@code sampleInterval} registros, descartando os demais. Os
+ * registros descartados são contados em {@link #getDropped()}. Registros marcados como
+ * obrigatórios (erros) sempre esperam.
+ *
+ * Cada arquivo é rotacionado como no {@link java.util.logging.FileHandler}: o atual é
+ * {@code nome.log.0} e, ao passar do limite, os anteriores passam a {@code nome.log.1},
+ * {@code nome.log.2} e assim por diante, até o número de arquivos configurado.
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        /** Espera haver espaço na fila. */
+        BLOCK,
+        /** Descarta o registro. */
+        DROP,
+        /** Espera por um a cada {@code sampleInterval} registros e descarta os demais. */
+        SAMPLE
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Registros escritos antes de atualizar a contagem usada por flush() sob carga contínua
+    private static final int BATCH_SIZE = 4096;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FULL_PARK_NANOS = 50_000;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private record Entry(int file, Level level, long time, String message, Object[] args, Throwable thrown) { }
+
+    private final Path directory;
+    private final String[] names;
+    private final long limit;
+    private final int count;
+    private final LogQueue<Entry> queue;
+    private final Thread thread;
+    private volatile OverflowPolicy policy = OverflowPolicy.DROP;
+    private volatile int sampleInterval = 100;
+    private volatile boolean closed;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private volatile long written; // Registros já entregues aos arquivos
+
+    // Usados apenas pela thread de escrita
+    private final FileChannel[] channels;
+    private final ByteBuffer[] buffers;
+    private final long[] sizes;
+    private final boolean[] failed;
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * @param directory Diretório dos arquivos (não é criado)
+     * @param names     Nome de cada arquivo; o índice é o usado em {@link #log}
+     * @param capacity  Número máximo de registros esperando na fila
+     * @param limit     Tamanho máximo de cada arquivo, em bytes, antes da rotação
+     * @param count     Número de arquivos mantidos por nome
+     */
+    public AsyncLogWriter(Path directory, String[] names, int capacity, long limit, int count) {
+        if (limit <= 0 || count <= 0) {
+            throw new IllegalArgumentException("O limite e o número de arquivos devem ser positivos.");
+        }
+        this.directory = directory;
+        this.names = names.clone();
+        this.limit = limit;
+        this.count = count;
+        this.queue = new LogQueue<>(capacity);
+        this.channels = new FileChannel[names.length];
+        this.buffers = new ByteBuffer[names.length];
+        this.sizes = new long[names.length];
+        this.failed = new boolean[names.length];
+        this.thread = new Thread(this::runWriter, "simulator-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return policy;
+    }
+
+    /**
+     * Define o que fazer quando a fila está cheia.
+     * @param sampleInterval Com {@link OverflowPolicy#SAMPLE}, espera por um a cada tantos registros
+     */
+    public void setOverflowPolicy(OverflowPolicy policy, int sampleInterval) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("O intervalo de amostragem deve ser positivo.");
+        }
+        this.sampleInterval = sampleInterval;
+        this.policy = policy;
+    }
+
+    /**
+     * Número de registros descartados por falta de espaço na fila ou por chegarem depois do
+     * fechamento.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    // ================ PRODUTORES ================
+
+    /**
+     * Enfileira um registro. Pode ser chamado de qualquer thread.
+     * @param file     Índice do arquivo
+     * @param message  Mensagem, ou formato de {@link String#format} quando há argumentos
+     * @param args     Argumentos formatados na thread de escrita, ou null
+     * @param thrown   Exceção cuja pilha é escrita após a mensagem, ou null
+     * @param required Espera por espaço na fila mesmo que a política seja outra
+     */
+    public void log(int file, Level level, String message, Object[] args, Throwable thrown, boolean required) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return;
+        }
+        Entry entry = new Entry(file, level, System.currentTimeMillis(), message, args, thrown);
+        if (queue.offer(entry)) {
+            accepted.incrementAndGet();
+            return;
+        }
+        OverflowPolicy current = required ? OverflowPolicy.BLOCK : policy;
+        boolean wait = current == OverflowPolicy.BLOCK
+                || current == OverflowPolicy.SAMPLE && overflows.getAndIncrement() % sampleInterval == 0;
+        if (!wait) {
+            dropped.incrementAndGet();
+            return;
+        }
+        while (!queue.offer(entry)) {
+            if (closed || !thread.isAlive()) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * Espera até que os registros enfileirados até aqui estejam escritos nos arquivos.
+     */
+    public void flush() {
+        long target = accepted.get();
+        while (written < target && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Escreve os registros pendentes e fecha os arquivos. Registros posteriores são descartados.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ================ THREAD DE ESCRITA ================
+
+    private void runWriter() {
+        long processed = 0;
+        while (true) {
+            boolean stopping = closed;
+            int batch = 0;
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                try {
+                    append(entry);
+                } catch (RuntimeException e) {
+                    // Um registro com problema não pode encerrar a thread: os demais seguem sendo escritos
+                    appendFailure(entry, e);
+                }
+                processed++;
+                if (++batch % BATCH_SIZE == 0) {
+                    writeBuffers();
+                    written = processed;
+                }
+            }
+            writeBuffers();
+            written = processed;
+            // Depois de fechado, sai só quando a fila esvaziou em uma volta iniciada após o fechamento
+            if (stopping && queue.size() == 0) {
+                break;
+            }
+            if (batch == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        for (int file = 0; file < channels.length; file++) {
+            closeChannel(file);
+        }
+    }
+
+    private void append(Entry entry) {
+        line.setLength(0);
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(entry.time()), line);
+        line.append(' ').append(entry.level().getName()).append(": ");
+        line.append(message(entry));
+        line.append(System.lineSeparator());
+        if (entry.thrown() != null) {
+            StringWriter trace = new StringWriter();
+            entry.thrown().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        write(entry.file(), line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Formata a mensagem do registro. Formato e argumentos vêm de quem registra: se não
+     * combinarem (ou algum argumento falhar ao ser convertido), fica o formato sem aplicar,
+     * seguido do erro.
+     */
+    private static String message(Entry entry) {
+        if (entry.args() == null) {
+            return entry.message();
+        }
+        try {
+            return String.format(entry.message(), entry.args());
+        } catch (RuntimeException e) {
+            return entry.message() + " [formato inválido: " + e.getClass().getName() + "]";
+        }
+    }
+
+    // Linha de substituição para um registro que não pôde ser montado
+    private void appendFailure(Entry entry, RuntimeException e) {
+        line.setLength(0);
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(entry.time()), line);
+        line.append(' ').append(entry.level().getName()).append(": ");
+        line.append("Registro não pôde ser escrito: ").append(e.getClass().getName());
+        line.append(System.lineSeparator());
+        write(entry.file(), line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(int file, byte[] bytes) {
+        if (!open(file)) {
+            return;
+        }
+        ByteBuffer buffer = buffers[file];
+        long pending = sizes[file] + buffer.position();
+        if (pending > 0 && pending + bytes.length > limit) {
+            writeBuffer(file);
+            rotate(file);
+            if (!open(file)) {
+                return;
+            }
+        }
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer(file);
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(file, ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private boolean open(int file) {
+        if (channels[file] != null) {
+            return true;
+        }
+        if (failed[file]) {
+            return false;
+        }
+        Path path = directory.resolve(names[file] + ".log.0");
+        try {
+            channels[file] = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            sizes[file] = channels[file].size();
+            if (buffers[file] == null) {
+                buffers[file] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+            return true;
+        } catch (IOException e) {
+            fail(file, "Não foi possível abrir o arquivo de log " + path, e);
+            return false;
+        }
+    }
+
+    private void rotate(int file) {
+        closeChannel(file);
+        try {
+            for (int generation = count - 1; generation > 0; generation--) {
+                Path older = directory.resolve(names[file] + ".log." + (generation - 1));
+                if (Files.exists(older)) {
+                    Files.move(older, directory.resolve(names[file] + ".log." + generation),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            // Com um único arquivo, o atual é simplesmente recomeçado
+            Files.deleteIfExists(directory.resolve(names[file] + ".log.0"));
+        } catch (IOException e) {
+            fail(file, "Não foi possível rotacionar o arquivo de log " + names[file], e);
+        }
+    }
+
+    private void writeBuffers() {
+        for (int file = 0; file < channels.length; file++) {
+            if (channels[file] != null && buffers[file].position() > 0) {
+                writeBuffer(file);
+            }
+        }
+    }
+
+    private void writeBuffer(int file) {
+        ByteBuffer buffer = buffers[file];
+        buffer.flip();
+        writeFully(file, buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(int file, ByteBuffer source) {
+        if (channels[file] == null) {
+            return;
+        }
+        try {
+            while (source.hasRemaining()) {
+                sizes[file] += channels[file].write(source);
+            }
+        } catch (IOException e) {
+            fail(file, "Falha ao escrever no arquivo de log " + names[file], e);
+        }
+    }
+
+    private void closeChannel(int file) {
+        if (channels[file] == null) {
+            return;
+        }
+        if (buffers[file].position() > 0) {
+            writeBuffer(file);
+        }
+        try {
+            channels[file].close();
+        } catch (IOException ignored) {
+            // O conteúdo já foi escrito; nada a fazer
+        }
+        channels[file] = null;
+        sizes[file] = 0;
+    }
+
+    // O arquivo deixa de ser usado; os registros dele passam a ser ignorados
+    private void fail(int file, String message, IOException e) {
+        System.err.println(message + ": " + e.getMessage());
+        failed[file] = true;
+        FileChannel channel = channels[file];
+        channels[file] = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Já com falha
+            }
+        }
+    }
+}
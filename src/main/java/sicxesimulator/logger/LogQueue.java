@@ -0,0 +1,90 @@
+package sicxesimulator.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila limitada sem bloqueio, com vários produtores e um único consumidor.
+ *
+ * Cada posição do array tem um número de sequência que indica se ela está livre para a volta
+ * atual do produtor ou preenchida para o consumidor. Os produtores disputam apenas a posição
+ * final com um compare-and-set; o consumidor não disputa nada. Cheia, {@link #offer(Object)}
+ * retorna false em vez de esperar.
+ */
+final class LogQueue<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // Só o consumidor altera
+
+    /**
+     * @param capacity Capacidade, arredondada para a próxima potência de 2
+     */
+    LogQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser positiva.");
+        }
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Insere o elemento no fim da fila. Pode ser chamado de qualquer thread.
+     * @return false se a fila está cheia
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // A posição ainda não foi consumida na volta anterior: cheia
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove o primeiro elemento. Deve ser chamado apenas pela thread consumidora.
+     * @return O elemento, ou null se a fila está vazia (ou o próximo ainda está sendo inserido)
+     */
+    E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Número aproximado de elementos na fila.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, capacity()));
+    }
+}
@@ -1,70 +1,95 @@
 package sicxesimulator.logger;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.*;
 
+/**
+ * Logs do simulador, cada categoria em seu arquivo em {@code logging/}.
+ *
+ * Os registros são escritos por um {@link AsyncLogWriter}: registrar não formata nem escreve
+ * em disco na thread de quem chama, então o log de cada instrução não limita a velocidade da
+ * simulação. Com a fila cheia, registros de execução são descartados conforme a política de
+ * transbordo; erros nunca são descartados. Os registros pendentes são escritos ao encerrar a
+ * aplicação, ou antes, com {@link #flush()}.
+ */
 public class SimulatorLogger {
     // Configurações para rotação: limite de 10MB por arquivo e 10 arquivos rotacionados
     private static final int LIMIT = 10 * 1024 * 1024; // 10MB
     private static final int COUNT = 10;
+    // Registros que podem esperar pela escrita antes de valer a política de transbordo
+    private static final int QUEUE_CAPACITY = 1 << 14;
 
-    // Loggers separados para cada categoria
-    private static final Logger assemblyLogger = Logger.getLogger("SimulatorLogger.Assembly");
-    private static final Logger machineLogger = Logger.getLogger("SimulatorLogger.Machine");
-    private static final Logger executionLogger = Logger.getLogger("SimulatorLogger.Execution");
-    private static final Logger errorLogger = Logger.getLogger("SimulatorLogger.Error");
+    // Arquivos separados para cada categoria
+    private static final int ASSEMBLY = 0;
+    private static final int MACHINE = 1;
+    private static final int EXECUTION = 2;
+    private static final int ERROR = 3;
 
-    static {
-        try {
-            // Configuração do logger para Assembly
-            FileHandler assemblyHandler = new FileHandler("logging/assembly.log", LIMIT, COUNT, true);
-            assemblyHandler.setFormatter(new SimpleFormatter());
-            assemblyLogger.addHandler(assemblyHandler);
-            assemblyLogger.setLevel(Level.ALL);
-
-            // Configuração do logger para Machine Code
-            FileHandler machineHandler = new FileHandler("logging/machine.log", LIMIT, COUNT, true);
-            machineHandler.setFormatter(new SimpleFormatter());
-            machineLogger.addHandler(machineHandler);
-            machineLogger.setLevel(Level.ALL);
-
-            // Configuração do logger para Execution
-            FileHandler executionHandler = new FileHandler("logging/execution.log", LIMIT, COUNT, true);
-            executionHandler.setFormatter(new SimpleFormatter());
-            executionLogger.addHandler(executionHandler);
-            executionLogger.setLevel(Level.ALL);
-
-            // Configuração do logger para Errors
-            FileHandler errorHandler = new FileHandler("logging/error.log", LIMIT, COUNT, true);
-            errorHandler.setFormatter(new SimpleFormatter());
-            errorLogger.addHandler(errorHandler);
-            errorLogger.setLevel(Level.ALL);
+    private static final AsyncLogWriter writer = new AsyncLogWriter(Path.of("logging"),
+            new String[]{"assembly", "machine", "execution", "error"}, QUEUE_CAPACITY, LIMIT, COUNT);
 
-            // Opcional: remover o ConsoleHandler padrão para evitar duplicação no console
-            Logger rootLogger = Logger.getLogger("");
-            for (Handler handler : rootLogger.getHandlers()) {
-                if (handler instanceof ConsoleHandler) {
-                    rootLogger.removeHandler(handler);
-                }
+    static {
+        // Opcional: remover o ConsoleHandler padrão para evitar duplicação no console
+        Logger rootLogger = Logger.getLogger("");
+        for (Handler handler : rootLogger.getHandlers()) {
+            if (handler instanceof ConsoleHandler) {
+                rootLogger.removeHandler(handler);
             }
-        } catch (IOException e) {
-            System.err.println("Não foi possível inicializar os FileHandlers: " + e.getMessage());
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(SimulatorLogger::shutdown, "simulator-log-shutdown"));
     }
 
     public static void logAssemblyCode(String assemblyCode) {
-        assemblyLogger.info("Código Assembly Montado:\n" + assemblyCode);
+        writer.log(ASSEMBLY, Level.INFO, "Código Assembly Montado:\n" + assemblyCode, null, null, false);
     }
 
     public static void logMachineCode(String machineCode) {
-        machineLogger.info("Código Objeto Carregado:\n" + machineCode);
+        writer.log(MACHINE, Level.INFO, "Código Objeto Carregado:\n" + machineCode, null, null, false);
     }
 
     public static void logExecution(String executionLog) {
-        executionLogger.info("Log de Execução:\n" + executionLog);
+        writer.log(EXECUTION, Level.INFO, "Log de Execução:\n" + executionLog, null, null, false);
+    }
+
+    /**
+     * Registra uma mensagem de execução formatada com {@link String#format} na thread de
+     * escrita, e não na de quem chama.
+     */
+    public static void logExecution(String format, Object... args) {
+        writer.log(EXECUTION, Level.INFO, "Log de Execução:\n" + format, args, null, false);
     }
 
     public static void logError(String message, Throwable throwable) {
-        errorLogger.log(Level.SEVERE, message, throwable);
+        writer.log(ERROR, Level.SEVERE, message, null, throwable, true);
+    }
+
+    /**
+     * Define o que fazer com os registros quando a escrita não acompanha a simulação.
+     * @param sampleInterval Com {@link AsyncLogWriter.OverflowPolicy#SAMPLE}, guarda um a cada tantos registros
+     */
+    public static void setOverflowPolicy(AsyncLogWriter.OverflowPolicy policy, int sampleInterval) {
+        writer.setOverflowPolicy(policy, sampleInterval);
+    }
+
+    /**
+     * Número de registros descartados desde o início da aplicação.
+     */
+    public static long getDroppedRecords() {
+        return writer.getDropped();
+    }
+
+    /**
+     * Espera até que os registros feitos até aqui estejam nos arquivos.
+     */
+    public static void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Escreve os registros pendentes e fecha os arquivos. Chamado automaticamente ao encerrar
+     * a aplicação.
+     */
+    public static void shutdown() {
+        writer.close();
     }
 }
@@ -0,0 +1,46 @@
+package sicxesimulator.machine;
+
+import java.util.List;
+
+/**
+ * Resultado de um lote executado por {@link MachinePool}, com as métricas agregadas.
+ *
+ * @param jobs         Resultados na mesma ordem dos trabalhos submetidos
+ * @param elapsedNanos Tempo de parede do lote, da submissão ao fim do último trabalho
+ */
+public record BatchResult(List<JobResult> jobs, long elapsedNanos) {
+
+    /**
+     * Resultado de um trabalho do lote.
+     *
+     * @param name    Nome do trabalho
+     * @param run     Resultado da execução; falhas na carga aparecem como {@link RunResult.StopReason#FAULT}
+     * @param machine Máquina ao fim da execução, para leitura da memória e dos registradores
+     */
+    public record JobResult(String name, RunResult run, Machine machine) { }
+
+    /**
+     * Total de instruções executadas por todos os trabalhos.
+     */
+    public long totalInstructions() {
+        long total = 0;
+        for (JobResult job : jobs) {
+            total += job.run().instructions();
+        }
+        return total;
+    }
+
+    /**
+     * Vazão agregada do lote, em instruções por segundo de tempo de parede.
+     */
+    public double instructionsPerSecond() {
+        return elapsedNanos > 0 ? totalInstructions() * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Número de trabalhos que pararam pelo motivo informado.
+     */
+    public long count(RunResult.StopReason reason) {
+        return jobs.stream().filter(job -> job.run().stopReason() == reason).count();
+    }
+}
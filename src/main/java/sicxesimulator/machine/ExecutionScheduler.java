@@ -0,0 +1,169 @@
+package sicxesimulator.machine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Controla o ritmo da execução contínua para manter uma taxa alvo de instruções por segundo.
+ *
+ * A execução é dividida em fatias de tempo: a cada fatia o chamador executa um lote de
+ * instruções ({@link #nextBatch()}) e informa quantas executou ({@link #completed(long)}), que
+ * espera até o instante em que elas deveriam terminar. O prazo é acumulado desde o início da
+ * execução a partir de {@link System#nanoTime()}, sem arredondamentos perdidos, então atrasos
+ * de uma espera são compensados nas seguintes e a taxa média não deriva. A espera estaciona
+ * a thread e gira apenas no trecho final, abaixo da granularidade do sistema.
+ *
+ * Quando a execução fica para trás por mais de {@link #MAX_LAG_NANOS} (ex.: uma pausa ou uma
+ * coleta de lixo), o atraso é descartado em vez de compensado com uma rajada.
+ *
+ * Com taxa 0 a execução não é limitada: os lotes são grandes e não há espera.
+ * Não é seguro para uso simultâneo por várias threads de execução; apenas
+ * {@link #setTargetRate(long)} e {@link #wakeUp()} podem ser chamados de outra thread.
+ */
+public final class ExecutionScheduler {
+    /** Duração aproximada de cada fatia de tempo. */
+    static final long SLICE_NANOS = 1_000_000;
+    /** Lote usado quando a execução não é limitada. */
+    static final int UNLIMITED_BATCH = 1 << 16;
+    /** Atraso máximo compensado antes de recomeçar a contagem. */
+    static final long MAX_LAG_NANOS = 100_000_000;
+    // Abaixo disso a espera gira em vez de estacionar a thread, que costuma acordar atrasada
+    private static final long SPIN_NANOS = 100_000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private volatile long targetRate;
+    private volatile boolean woken;
+    private volatile Thread waiter;
+
+    // Estado da execução atual
+    private long activeRate = -1;
+    private long deadline;
+    private long remainder;
+    private int pending;
+    private int batch;
+
+    /**
+     * @param targetRate Instruções por segundo, ou 0 para não limitar
+     */
+    public ExecutionScheduler(long targetRate) {
+        setTargetRate(targetRate);
+    }
+
+    /**
+     * Altera a taxa alvo. Pode ser chamado durante a execução, de qualquer thread; vale a
+     * partir do próximo lote.
+     * @param targetRate Instruções por segundo, ou 0 para não limitar
+     */
+    public void setTargetRate(long targetRate) {
+        if (targetRate < 0) {
+            throw new IllegalArgumentException("A taxa de execução não pode ser negativa.");
+        }
+        this.targetRate = targetRate;
+    }
+
+    public long getTargetRate() {
+        return targetRate;
+    }
+
+    public boolean isUnlimited() {
+        return targetRate == 0;
+    }
+
+    /**
+     * Recomeça a contagem a partir de agora. Deve ser chamado no início de cada execução
+     * contínua, para que o tempo parado entre execuções não seja compensado.
+     */
+    public void start() {
+        woken = false;
+        activeRate = targetRate;
+        deadline = System.nanoTime();
+        remainder = 0;
+        pending = 0;
+        batch = batchSize(activeRate);
+    }
+
+    /**
+     * Número de instruções a executar na próxima fatia de tempo.
+     */
+    public int nextBatch() {
+        if (targetRate != activeRate) {
+            start();
+        }
+        return batch;
+    }
+
+    /**
+     * Contabiliza instruções executadas e espera até o instante em que, na taxa alvo, elas
+     * terminariam. Retorna antes se a thread for interrompida, mantendo a interrupção, ou
+     * depois de {@link #wakeUp()}.
+     * @param executed Instruções executadas desde a chamada anterior, no máximo um lote
+     */
+    public void completed(long executed) {
+        long rate = activeRate;
+        if (rate <= 0 || executed <= 0) {
+            return;
+        }
+        long nanos = executed * NANOS_PER_SECOND + remainder;
+        deadline += nanos / rate;
+        remainder = nanos % rate;
+
+        long late = System.nanoTime() - deadline;
+        if (late > MAX_LAG_NANOS) {
+            deadline += late;
+            remainder = 0;
+        } else if (late < 0) {
+            waitUntil(deadline);
+        }
+    }
+
+    /**
+     * Contabiliza uma instrução, para quem executa uma de cada vez; espera apenas ao
+     * completar um lote.
+     */
+    public void tick() {
+        if (targetRate != activeRate) {
+            start();
+        }
+        if (++pending >= batch) {
+            int executed = pending;
+            pending = 0;
+            completed(executed);
+        }
+    }
+
+    /**
+     * Encerra a espera atual e as seguintes, até o próximo {@link #start()}, sem interromper a
+     * thread. Usado para pausar a execução sem esperar o fim de uma fatia longa.
+     */
+    public void wakeUp() {
+        woken = true;
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Lote que cobre uma fatia de tempo na taxa informada, com ao menos uma instrução.
+     */
+    static int batchSize(long rate) {
+        if (rate == 0) {
+            return UNLIMITED_BATCH;
+        }
+        long perSlice = rate / (NANOS_PER_SECOND / SLICE_NANOS);
+        return (int) Math.max(1, Math.min(perSlice, UNLIMITED_BATCH));
+    }
+
+    private void waitUntil(long deadline) {
+        Thread thread = Thread.currentThread();
+        waiter = thread;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && !woken && !thread.isInterrupted()) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        waiter = null;
+    }
+}
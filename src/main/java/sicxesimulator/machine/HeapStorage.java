@@ -0,0 +1,59 @@
+package sicxesimulator.machine;
+
+/**
+ * Páginas em arrays de bytes no heap. É o armazenamento padrão de {@link Memory}.
+ */
+final class HeapStorage extends PagedStorage<byte[]> {
+    private static final byte[] ZERO_PAGE = new byte[Memory.PAGE_SIZE];
+
+    HeapStorage(int size) {
+        super(size, zeroFilled(new byte[pageCount(size)][], ZERO_PAGE), ZERO_PAGE);
+    }
+
+    HeapStorage(int size, byte[][] image) {
+        super(size, image.clone(), ZERO_PAGE);
+    }
+
+    @Override
+    Memory.Backend backend() {
+        return Memory.Backend.HEAP;
+    }
+
+    @Override
+    byte[] copyOf(byte[] page) {
+        return page.clone();
+    }
+
+    @Override
+    int readByte(int byteAddr) {
+        return pages[byteAddr / Memory.PAGE_SIZE][byteAddr % Memory.PAGE_SIZE] & 0xFF;
+    }
+
+    @Override
+    void writeByte(int byteAddr, int value) {
+        writablePage(byteAddr / Memory.PAGE_SIZE)[byteAddr % Memory.PAGE_SIZE] = (byte) value;
+    }
+
+    @Override
+    int readInt24(int byteAddr) {
+        byte[] page = pages[byteAddr / Memory.PAGE_SIZE];
+        int offset = byteAddr % Memory.PAGE_SIZE;
+        return ((page[offset] & 0xFF) << 16)
+                | ((page[offset + 1] & 0xFF) << 8)
+                | (page[offset + 2] & 0xFF);
+    }
+
+    @Override
+    void writeInt24(int byteAddr, int value) {
+        byte[] page = writablePage(byteAddr / Memory.PAGE_SIZE);
+        int offset = byteAddr % Memory.PAGE_SIZE;
+        page[offset] = (byte) (value >> 16);
+        page[offset + 1] = (byte) (value >> 8);
+        page[offset + 2] = (byte) value;
+    }
+
+    @Override
+    void copyPage(byte[] page, byte[] target, int targetOffset, int length) {
+        System.arraycopy(page, 0, target, targetOffset, length);
+    }
+}
@@ -1,19 +1,69 @@
 package sicxesimulator.machine;
 
+import sicxesimulator.events.ExecutionSliceEvent;
+import sicxesimulator.machine.cpu.Breakpoints;
 import sicxesimulator.machine.cpu.ControlUnit;
+import sicxesimulator.machine.cpu.RegisterSet;
+import sicxesimulator.machine.cpu.TraceFileReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Representa a máquina SIC/XE, composta por uma unidade de controle e uma memória.
  */
 public class Machine {
-    private final ControlUnit controlUnit;
+    private ControlUnit controlUnit;
     private Memory memory;
 
+    /**
+     * Estado da máquina em um instante: imagem da memória e valores dos registradores.
+     * A imagem da memória compartilha páginas com as máquinas de onde veio e para onde for
+     * restaurada, então criar e restaurar não copiam o conteúdo da memória.
+     */
+    public static final class Snapshot {
+        private final Memory.Snapshot memory;
+        private final int[] registers;
+        private final long f;
+
+        private Snapshot(Memory.Snapshot memory, int[] registers, long f) {
+            this.memory = memory;
+            this.registers = registers;
+            this.f = f;
+        }
+
+        public Memory.Snapshot getMemory() {
+            return memory;
+        }
+    }
+
+    // Registradores de 24 bits copiados nas imagens (o índice de F é ignorado pelo RegisterSet)
+    private static final int REGISTER_COUNT = RegisterSet.SW + 1;
+
     public Machine() {
-        this.memory = new Memory(24576); // Valor arbitrário, parametrizável.
+        this(Memory.Backend.HEAP);
+    }
+
+    /**
+     * Cria a máquina com a memória no armazenamento escolhido.
+     * @param backend Onde ficam as páginas da memória.
+     */
+    public Machine(Memory.Backend backend) {
+        this.memory = new Memory(24576, backend); // Valor arbitrário, parametrizável.
         this.controlUnit = new ControlUnit(this.memory);
     }
 
+    /**
+     * Cria uma máquina independente a partir de uma imagem, por exemplo de um programa já
+     * carregado, para executá-la várias vezes sem recarregar.
+     * @param snapshot A imagem de origem.
+     */
+    public Machine(Snapshot snapshot) {
+        this.memory = new Memory(snapshot.memory);
+        this.controlUnit = new ControlUnit(this.memory);
+        loadRegisters(snapshot);
+    }
+
     /**
      * Executa um ciclo de máquina, avançando a execução em uma instrução.
      */
@@ -28,6 +78,53 @@ public class Machine {
         }
     }
 
+    /**
+     * Executa instruções em sequência, sem registro nem atualização de interface, até o fim do
+     * programa, uma falha, um ponto de parada ou de observação, ou o limite de instruções.
+     * Diferente de {@link #runCycle()}, uma falha não reinicia a unidade de controle, para que
+     * o estado possa ser inspecionado.
+     * Com uma gravação JFR ativa, cada chamada emite um {@link ExecutionSliceEvent}.
+     * @param maxInstructions Número máximo de instruções a executar.
+     * @return O resultado da execução, com contagem, tempo e motivo da parada.
+     */
+    public RunResult run(long maxInstructions) {
+        ExecutionSliceEvent event = new ExecutionSliceEvent();
+        event.begin();
+        int startAddress = controlUnit.getIntValuePC();
+        RunResult result = execute(maxInstructions);
+        if (event.shouldCommit()) {
+            event.instructions = result.instructions();
+            event.stopReason = result.stopReason().name();
+            event.startAddress = startAddress;
+            event.endAddress = controlUnit.getIntValuePC();
+            event.commit();
+        }
+        return result;
+    }
+
+    private RunResult execute(long maxInstructions) {
+        long before = controlUnit.getInstructionCount();
+        long start = System.nanoTime();
+        try {
+            controlUnit.run(maxInstructions);
+        } catch (Exception e) {
+            return new RunResult(controlUnit.getInstructionCount() - before, System.nanoTime() - start,
+                    RunResult.StopReason.FAULT, e);
+        }
+        Breakpoints.Hit hit = controlUnit.getBreakpoints().getHit();
+        RunResult.StopReason reason;
+        if (controlUnit.isHalted()) {
+            reason = RunResult.StopReason.HALTED;
+        } else if (hit != null) {
+            reason = hit.kind() == Breakpoints.Kind.EXECUTE
+                    ? RunResult.StopReason.BREAKPOINT
+                    : RunResult.StopReason.WATCHPOINT;
+        } else {
+            reason = RunResult.StopReason.BUDGET_EXHAUSTED;
+        }
+        return new RunResult(controlUnit.getInstructionCount() - before, System.nanoTime() - start, reason, null);
+    }
+
     /**
      * Reinicia a máquina, limpando a memória e resetando a unidade de controle.
      */
@@ -38,11 +135,112 @@ public class Machine {
     }
 
     /**
-     * Altera o tamanho da memória da máquina.
+     * Captura o estado atual da máquina. A memória é capturada em tempo proporcional ao número
+     * de páginas, sem copiar o conteúdo.
+     * @return A imagem da máquina.
+     */
+    public Snapshot snapshot() {
+        RegisterSet registers = controlUnit.getRegisterSet();
+        int[] values = new int[REGISTER_COUNT];
+        for (int number = 0; number < values.length; number++) {
+            values[number] = registers.get(number);
+        }
+        return new Snapshot(memory.snapshot(), values, registers.getF());
+    }
+
+    /**
+     * Restaura a memória e os registradores de uma imagem, reiniciando a unidade de controle.
+     * @param snapshot A imagem a ser restaurada.
+     */
+    public void restore(Snapshot snapshot) {
+        memory.restore(snapshot.memory);
+        controlUnit.reset();
+        loadRegisters(snapshot);
+    }
+
+    /**
+     * Cria uma cópia independente da máquina no estado atual. Equivale a
+     * {@code new Machine(snapshot())}.
+     * @return A nova máquina.
+     */
+    public Machine fork() {
+        return new Machine(snapshot());
+    }
+
+    /**
+     * Passa a gravar a execução no arquivo informado, a partir do estado atual, para análise
+     * posterior sem simular de novo.
+     * @param path O arquivo de rastro (substituído se existir).
+     */
+    public void startRecording(Path path) throws IOException {
+        controlUnit.startRecording(path);
+    }
+
+    /**
+     * Encerra a gravação em andamento, se houver.
+     * @return O número de instruções gravadas.
+     */
+    public long stopRecording() {
+        return controlUnit.stopRecording();
+    }
+
+    /**
+     * Reconstrói, a partir de um rastro gravado, o estado da máquina após as primeiras
+     * {@code index} instruções, sem executá-las. Se o rastro foi gravado com outro tamanho de
+     * memória, a memória é substituída por uma do tamanho gravado.
+     * @param path O arquivo de rastro.
+     * @param index O número de instruções do rastro a reproduzir.
+     */
+    public void replayTrace(Path path, long index) throws IOException {
+        try (TraceFileReader reader = new TraceFileReader(path)) {
+            if (reader.getMemorySize() != memory.getSize()) {
+                changeMemorySize(reader.getMemorySize());
+            }
+            controlUnit.replay(reader, index);
+        }
+    }
+
+    private void loadRegisters(Snapshot snapshot) {
+        RegisterSet registers = controlUnit.getRegisterSet();
+        for (int number = 0; number < snapshot.registers.length; number++) {
+            registers.set(number, snapshot.registers[number]);
+        }
+        registers.setF(snapshot.f);
+    }
+
+    /**
+     * Altera o tamanho da memória da máquina, mantendo o armazenamento atual.
      * @param newSizeInBytes O novo tamanho da memória, em bytes.
      */
     public void changeMemorySize(int newSizeInBytes) {
-        this.memory = new Memory(newSizeInBytes);
+        changeMemorySize(newSizeInBytes, memory.getBackend());
+    }
+
+    /**
+     * Substitui a memória por uma nova, zerada, com o tamanho e o armazenamento informados.
+     * A unidade de controle é recriada sobre a nova memória e mantém as configurações da
+     * anterior: rastro, diário de desfazer, perfilador, execução por blocos e tradução (com o
+     * limiar). Os registradores, os contadores, os pontos de parada e de observação voltam ao
+     * estado inicial, e uma gravação em arquivo em andamento é encerrada.
+     * @param newSizeInBytes O novo tamanho da memória, em bytes.
+     * @param backend Onde ficam as páginas da nova memória.
+     */
+    public void changeMemorySize(int newSizeInBytes, Memory.Backend backend) {
+        ControlUnit previous = controlUnit;
+        boolean journaling = previous.getUndoJournal().isEnabled();
+        boolean profiling = previous.getProfiler().isEnabled();
+        // Desliga os ouvintes da memória antiga, que é descartada
+        previous.getUndoJournal().setEnabled(false);
+        previous.getProfiler().setEnabled(false);
+        previous.stopRecording();
+        this.memory = new Memory(newSizeInBytes, backend);
+        this.controlUnit = new ControlUnit(this.memory);
+        controlUnit.getExecutionTrace().setEnabled(previous.getExecutionTrace().isEnabled());
+        controlUnit.getUndoJournal().setEnabled(journaling);
+        controlUnit.getProfiler().setEnabled(profiling);
+        controlUnit.setBlockExecutionEnabled(previous.isBlockExecutionEnabled());
+        controlUnit.setTranslationEnabled(previous.isTranslationEnabled());
+        controlUnit.setTranslationThreshold(previous.getTranslationThreshold());
     }
 
     /**
@@ -0,0 +1,185 @@
+package sicxesimulator.machine;
+
+import sicxesimulator.loader.Loader;
+import sicxesimulator.models.ObjectFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Executa lotes de máquinas independentes em paralelo, em um {@link ForkJoinPool} (com roubo
+ * de tarefas entre os núcleos).
+ *
+ * Cada trabalho cria a sua própria {@link Machine}, a partir de um programa montado ou de uma
+ * imagem ({@link Machine.Snapshot}), e nada mutável é compartilhado entre trabalhos: imagens
+ * compartilham apenas páginas de memória imutáveis, copiadas na primeira escrita.
+ */
+public class MachinePool implements AutoCloseable {
+
+    /**
+     * Instruções executadas entre verificações de cancelamento.
+     */
+    static final long SLICE = 1 << 20;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Trabalho de um lote. Informe o programa ou a imagem de origem; o ajuste opcional é
+     * aplicado à máquina antes da execução (ex.: escrever os dados de entrada).
+     *
+     * @param name    Nome do trabalho, repetido no resultado
+     * @param program Programa a ser carregado com {@link Loader}, ou null se houver imagem
+     * @param image   Imagem de uma máquina já carregada, ou null se houver programa
+     * @param setup   Ajuste aplicado antes da execução, ou null
+     * @param budget  Número máximo de instruções do trabalho
+     */
+    public record Job(String name, ObjectFile program, Machine.Snapshot image, Consumer<Machine> setup, long budget) {
+        public Job {
+            if ((program == null) == (image == null)) {
+                throw new IllegalArgumentException("Informe o programa ou a imagem do trabalho, não ambos.");
+            }
+            if (budget < 0) {
+                throw new IllegalArgumentException("O limite de instruções não pode ser negativo.");
+            }
+        }
+
+        public static Job ofProgram(String name, ObjectFile program, long budget) {
+            return new Job(name, program, null, null, budget);
+        }
+
+        public static Job ofImage(String name, Machine.Snapshot image, Consumer<Machine> setup, long budget) {
+            return new Job(name, null, image, setup, budget);
+        }
+    }
+
+    /**
+     * Lote em execução.
+     */
+    public static final class Batch {
+        private final List<ForkJoinTask<BatchResult.JobResult>> tasks;
+        private final long start;
+        private volatile boolean cancelled;
+
+        private Batch(int size, long start) {
+            this.tasks = new ArrayList<>(size);
+            this.start = start;
+        }
+
+        /**
+         * Cancela o lote: trabalhos ainda não iniciados não executam, e os em execução param
+         * na próxima verificação, com {@link RunResult.StopReason#CANCELLED}.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return tasks.stream().allMatch(ForkJoinTask::isDone);
+        }
+
+        /**
+         * Aguarda o fim de todos os trabalhos.
+         * @return Os resultados, na ordem de submissão, e as métricas agregadas
+         */
+        public BatchResult await() {
+            List<BatchResult.JobResult> results = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<BatchResult.JobResult> task : tasks) {
+                results.add(task.join());
+            }
+            return new BatchResult(results, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Cria um conjunto com um trabalhador por processador disponível.
+     */
+    public MachinePool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MachinePool(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Submete os trabalhos e retorna imediatamente.
+     * @param jobs Trabalhos do lote
+     * @return O lote em execução
+     */
+    public Batch submit(List<Job> jobs) {
+        Batch batch = new Batch(jobs.size(), System.nanoTime());
+        for (Job job : jobs) {
+            batch.tasks.add(pool.submit(() -> execute(job, batch)));
+        }
+        return batch;
+    }
+
+    /**
+     * Submete os trabalhos e aguarda o fim do lote.
+     */
+    public BatchResult runAll(List<Job> jobs) {
+        return submit(jobs).await();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static BatchResult.JobResult execute(Job job, Batch batch) {
+        long start = System.nanoTime();
+        if (batch.cancelled) {
+            return new BatchResult.JobResult(job.name(),
+                    new RunResult(0, 0, RunResult.StopReason.CANCELLED, null), null);
+        }
+        Machine machine;
+        try {
+            machine = job.image() != null ? new Machine(job.image()) : load(job.program());
+            if (job.setup() != null) {
+                job.setup().accept(machine);
+            }
+        } catch (RuntimeException e) {
+            return new BatchResult.JobResult(job.name(),
+                    new RunResult(0, System.nanoTime() - start, RunResult.StopReason.FAULT, e), null);
+        }
+
+        // Executa em fatias para atender ao cancelamento sem custo por instrução
+        long executed = 0;
+        RunResult slice = null;
+        while (executed < job.budget() && !batch.cancelled) {
+            slice = machine.run(Math.min(SLICE, job.budget() - executed));
+            executed += slice.instructions();
+            if (slice.stopReason() != RunResult.StopReason.BUDGET_EXHAUSTED) {
+                break;
+            }
+        }
+        RunResult.StopReason reason;
+        if (slice != null && slice.stopReason() != RunResult.StopReason.BUDGET_EXHAUSTED) {
+            reason = slice.stopReason();
+        } else {
+            reason = batch.cancelled && executed < job.budget()
+                    ? RunResult.StopReason.CANCELLED
+                    : RunResult.StopReason.BUDGET_EXHAUSTED;
+        }
+        Exception fault = slice != null ? slice.fault() : null;
+        return new BatchResult.JobResult(job.name(),
+                new RunResult(executed, System.nanoTime() - start, reason, fault), machine);
+    }
+
+    private static Machine load(ObjectFile program) {
+        Machine machine = new Machine();
+        new Loader(machine).load(program);
+        return machine;
+    }
+}
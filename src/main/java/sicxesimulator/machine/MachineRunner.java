@@ -0,0 +1,371 @@
+package sicxesimulator.machine;
+
+import sicxesimulator.machine.cpu.Breakpoints;
+import sicxesimulator.machine.cpu.ControlUnit;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução contínua de uma {@link Machine} em segundo plano, com pausa, retomada e
+ * cancelamento.
+ *
+ * Todas as execuções usam a mesma thread, de um executor criado junto com o objeto e mantido
+ * até {@link #close()}; executar várias vezes não cria threads novas. O estado segue a máquina
+ * de estados {@link State}: {@link #start()} passa de {@code IDLE} ou {@code PAUSED} para
+ * {@code RUNNING}, e a execução termina em {@code PAUSED} (pausa, ponto de parada ou de
+ * observação), {@code HALTED} (fim do programa) ou {@code FAULTED} (exceção de uma instrução).
+ *
+ * A pausa é um campo volátil verificado a cada {@link #CHECK_INTERVAL} instruções e ao fim de
+ * cada fatia do {@link ExecutionScheduler}, cuja espera também é encerrada na hora; o
+ * cancelamento ({@link #cancel()}) interrompe a thread de execução e espera que ela pare.
+ * Fora do estado {@code RUNNING} a máquina pode ser usada normalmente pela thread que chamou;
+ * durante a execução, alterações feitas de outra thread (ex.: pontos de parada incluídos pela
+ * interface) passam por {@link #apply(Runnable)}, que as aplica na thread de execução.
+ *
+ * Sem ouvinte de instrução, a execução usa {@link Machine#run(long)}, com blocos compilados;
+ * com ele, executa uma instrução de cada vez e chama o ouvinte após cada uma. O ouvinte de
+ * trecho é chamado entre trechos de até {@link #CHECK_INTERVAL} instruções, quando a máquina
+ * está parada, e serve para ler o estado (ex.: o {@link sicxesimulator.machine.cpu.ExecutionTrace})
+ * sem custo por instrução.
+ */
+public class MachineRunner implements AutoCloseable {
+
+    public enum State {
+        /** Nenhuma execução desde o início ou o último cancelamento. */
+        IDLE,
+        /** Executando em segundo plano. */
+        RUNNING,
+        /** Parada antes do fim do programa; pode ser retomada. */
+        PAUSED,
+        /** O programa encerrou. */
+        HALTED,
+        /** Uma instrução lançou exceção; ver {@link #getFault()}. */
+        FAULTED
+    }
+
+    /**
+     * Chamado na thread de execução após cada instrução.
+     */
+    public interface StepListener {
+        void instructionExecuted();
+    }
+
+    /**
+     * Chamado na thread de execução após cada trecho de até {@link #CHECK_INTERVAL} instruções.
+     */
+    public interface SliceListener {
+        void sliceExecuted();
+    }
+
+    /**
+     * Chamado a cada mudança de estado, na thread que a provocou. Não deve esperar por outra
+     * thread que use o executor.
+     */
+    public interface StateListener {
+        void stateChanged(State state);
+    }
+
+    /**
+     * Instruções executadas entre verificações de pausa e cancelamento.
+     */
+    static final int CHECK_INTERVAL = 1024;
+
+    private final Machine machine;
+    private final ExecutionScheduler scheduler;
+    private final ExecutorService executor;
+    private volatile StepListener stepListener;
+    private volatile SliceListener sliceListener;
+    private volatile StateListener stateListener;
+
+    // Alterações pedidas durante a execução, aplicadas pela thread de execução entre trechos
+    private final Queue<Runnable> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    private volatile State state = State.IDLE;
+    private volatile boolean pauseRequested;
+    private volatile boolean cancelling;
+    // Protegidos pelo monitor deste objeto
+    private boolean running;
+    private Thread worker;
+    private boolean closed;
+    private Exception fault;
+    private Breakpoints.Hit hit;
+
+    /**
+     * @param machine   Máquina executada; a unidade de controle é obtida a cada execução, então
+     *                  a troca do tamanho da memória é permitida fora do estado {@code RUNNING}
+     * @param scheduler Ritmo da execução
+     */
+    public MachineRunner(Machine machine, ExecutionScheduler scheduler) {
+        this.machine = machine;
+        this.scheduler = scheduler;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "simulator-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setStepListener(StepListener listener) {
+        this.stepListener = listener;
+    }
+
+    public void setSliceListener(SliceListener listener) {
+        this.sliceListener = listener;
+    }
+
+    public void setStateListener(StateListener listener) {
+        this.stateListener = listener;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * Exceção que levou ao estado {@code FAULTED}, ou null.
+     */
+    public synchronized Exception getFault() {
+        return fault;
+    }
+
+    /**
+     * Ponto de parada ou de observação que pausou a última execução, ou null.
+     */
+    public synchronized Breakpoints.Hit getHit() {
+        return hit;
+    }
+
+    /**
+     * Inicia ou retoma a execução em segundo plano.
+     * @return false se já está executando, se o programa já encerrou ou se a última execução
+     *         falhou (use {@link #cancel()} antes de executar de novo)
+     */
+    public synchronized boolean start() {
+        if (closed) {
+            throw new IllegalStateException("O executor da simulação já foi encerrado.");
+        }
+        if (running || state == State.FAULTED) {
+            return false;
+        }
+        if (machine.getControlUnit().isHalted()) {
+            setState(State.HALTED);
+            return false;
+        }
+        pauseRequested = false;
+        cancelling = false;
+        fault = null;
+        hit = null;
+        running = true;
+        setState(State.RUNNING);
+        executor.execute(this::runLoop);
+        return true;
+    }
+
+    /**
+     * Aplica uma alteração no estado da máquina sem disputá-lo com a execução. Fora do estado
+     * {@code RUNNING} a alteração é feita na hora, na thread que chamou; durante a execução, ela
+     * entra em uma fila e é feita pela thread de execução antes do próximo trecho, ou ao fim da
+     * execução. A alteração não deve esperar por outra thread.
+     */
+    public void apply(Runnable change) {
+        synchronized (this) {
+            if (running) {
+                pendingChanges.add(change);
+                return;
+            }
+            change.run();
+        }
+    }
+
+    /**
+     * Pede a pausa da execução, sem esperar que ela pare; o estado passa a {@code PAUSED}
+     * depois da instrução em andamento ou da espera da fatia atual.
+     * @return false se não havia execução
+     */
+    public boolean pause() {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        pauseRequested = true;
+        scheduler.wakeUp();
+        return true;
+    }
+
+    /**
+     * Interrompe a execução, espera que ela pare e volta ao estado {@code IDLE}, descartando
+     * a falha ou o ponto de parada da execução anterior. A máquina não é alterada.
+     * @return false se a thread que chamou foi interrompida antes da execução parar
+     */
+    public synchronized boolean cancel() {
+        cancelling = true;
+        pauseRequested = true;
+        scheduler.wakeUp();
+        if (worker != null) {
+            worker.interrupt();
+        }
+        try {
+            while (running) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (state != State.IDLE) {
+            fault = null;
+            hit = null;
+            setState(State.IDLE);
+        }
+        return true;
+    }
+
+    /**
+     * Cancela a execução e encerra a thread do executor.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        cancel();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ================ THREAD DE EXECUÇÃO ================
+
+    private void runLoop() {
+        synchronized (this) {
+            worker = Thread.currentThread();
+        }
+        State end;
+        try {
+            end = execute();
+        } catch (Exception e) {
+            end = faulted(e);
+        } catch (Error e) {
+            // Um erro de um ouvinte não pode deixar a execução marcada como em andamento
+            end = faulted(new IllegalStateException("Erro na execução: " + e, e));
+        }
+        synchronized (this) {
+            // Alterações pedidas depois do último trecho; apply() espera pelo monitor
+            try {
+                applyPendingChanges();
+            } catch (RuntimeException e) {
+                end = faulted(e);
+            }
+            // Uma interrupção de cancel() não deve passar para a próxima tarefa do executor
+            Thread.interrupted();
+            worker = null;
+            running = false;
+            if (cancelling) {
+                fault = null;
+                hit = null;
+                end = State.IDLE;
+            }
+            setState(end);
+            notifyAll();
+        }
+    }
+
+    private State execute() {
+        ControlUnit controlUnit = machine.getControlUnit();
+        Breakpoints breakpoints = controlUnit.getBreakpoints();
+        Thread thread = Thread.currentThread();
+        StepListener listener = stepListener;
+        SliceListener slices = sliceListener;
+        // A primeira instrução executa mesmo com ponto de parada: é a continuação a partir dele
+        boolean resuming = true;
+        scheduler.start();
+        while (true) {
+            int batch = scheduler.nextBatch();
+            int executed = 0;
+            while (executed < batch) {
+                applyPendingChanges();
+                if (pauseRequested || thread.isInterrupted()) {
+                    return State.PAUSED;
+                }
+                if (controlUnit.isHalted()) {
+                    return State.HALTED;
+                }
+                int pc = controlUnit.getIntValuePC();
+                if (!resuming && breakpoints.isBreakpoint(pc)) {
+                    return paused(new Breakpoints.Hit(Breakpoints.Kind.EXECUTE, pc));
+                }
+                resuming = false;
+                int chunk = Math.min(batch - executed, CHECK_INTERVAL);
+                if (listener == null) {
+                    RunResult result = machine.run(chunk);
+                    executed += (int) result.instructions();
+                    switch (result.stopReason()) {
+                        case FAULT -> {
+                            return faulted(result.fault());
+                        }
+                        case BREAKPOINT, WATCHPOINT -> {
+                            return paused(breakpoints.getHit());
+                        }
+                        default -> { }
+                    }
+                } else {
+                    for (int i = 0; i < chunk && !controlUnit.isHalted(); i++) {
+                        if (i > 0 && breakpoints.isBreakpoint(controlUnit.getIntValuePC())) {
+                            break;
+                        }
+                        controlUnit.step();
+                        executed++;
+                        listener.instructionExecuted();
+                        if (breakpoints.getHit() != null) {
+                            return paused(breakpoints.getHit());
+                        }
+                    }
+                }
+                if (slices != null) {
+                    slices.sliceExecuted();
+                }
+            }
+            // O fim do programa não espera pela fatia
+            if (controlUnit.isHalted()) {
+                return State.HALTED;
+            }
+            scheduler.completed(executed);
+        }
+    }
+
+    private void applyPendingChanges() {
+        Runnable change;
+        while ((change = pendingChanges.poll()) != null) {
+            change.run();
+        }
+    }
+
+    private synchronized State faulted(Exception failure) {
+        fault = failure;
+        return State.FAULTED;
+    }
+
+    private synchronized State paused(Breakpoints.Hit stop) {
+        hit = stop;
+        return State.PAUSED;
+    }
+
+    // Chamado com o monitor deste objeto
+    private void setState(State newState) {
+        state = newState;
+        StateListener listener = stateListener;
+        if (listener != null) {
+            listener.stateChanged(newState);
+        }
+    }
+}
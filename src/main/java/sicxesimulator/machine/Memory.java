@@ -1,17 +1,135 @@
 package sicxesimulator.machine;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
  * Representa a memória do computador, que é um array de bytes.
+ *
+ * Os bytes são divididos em páginas de {@link #PAGE_SIZE} bytes compartilhadas por cópia na
+ * escrita: {@link #snapshot()} apenas copia as referências das páginas, e a primeira escrita em
+ * uma página compartilhada cria a cópia privada dela. Páginas nunca escritas apontam para uma
+ * única página de zeros. As páginas ficam no heap ou, com {@link Backend#OFF_HEAP}, em buffers
+ * diretos fora do heap.
  */
 public class Memory {
-	private final byte[] memory;  // Memória em bytes
+	/**
+	 * Tamanho da página em bytes: múltiplo de 3, para que nenhuma palavra cruze páginas.
+	 */
+	public static final int PAGE_SIZE = 3 * 256;
+
+	private static final int WORDS_PER_PAGE = PAGE_SIZE / 3;
+
+	/**
+	 * Onde ficam as páginas da memória emulada.
+	 */
+	public enum Backend {
+		/** Arrays de bytes no heap (padrão). */
+		HEAP,
+		/** Buffers diretos fora do heap, não copiados pelo coletor de lixo. */
+		OFF_HEAP
+	}
+
+	private final PagedStorage<?> storage;
 	private final int memorySize; // Tamanho da memória
 
+	// Época de escrita atual e, por página, a época da última escrita em cada palavra.
+	// Os registros de uma página são criados na primeira escrita nela. A época é avançada
+	// pela thread da interface enquanto a de execução marca as escritas: volátil, para que a
+	// execução passe a usar a nova época assim que ela for encerrada.
+	private volatile int epoch = 1;
+	private final int[] pageEpochs;
+	private final int[][] wordEpochs;
+
+	// Observadores notificados após cada escrita (ex.: cache de decodificação)
+	private WriteListener[] writeListeners = new WriteListener[0];
+	// Observadores de leitura; normalmente vazio, usado pelo perfilador
+	private ReadListener[] readListeners = new ReadListener[0];
+	// Recebe o conteúdo anterior de cada escrita; normalmente null, usado pelo diário de desfazer
+	private OverwriteListener overwriteListener;
+
+	/**
+	 * Observador de escritas na memória. Recebe o intervalo de bytes alterado.
+	 */
+	public interface WriteListener {
+		void onWrite(int byteAddr, int length);
+	}
+
+	/**
+	 * Observador de leituras na memória. Recebe o intervalo de bytes lido.
+	 */
+	public interface ReadListener {
+		void onRead(int byteAddr, int length);
+	}
+
+	/**
+	 * Observador chamado antes de cada escrita, com o conteúdo que será sobrescrito.
+	 */
+	public interface OverwriteListener {
+		/**
+		 * @param byteAddr Primeiro byte do intervalo escrito
+		 * @param length   Tamanho do intervalo (1, 3 ou 6 bytes)
+		 * @param previous Conteúdo anterior do intervalo, sem sinal, com o primeiro byte mais significativo
+		 */
+		void beforeWrite(int byteAddr, int length, long previous);
+	}
+
+	/**
+	 * Imagem imutável do conteúdo da memória em um instante. As páginas são compartilhadas com
+	 * a memória de origem e com as memórias restauradas ou criadas a partir dela.
+	 */
+	public static final class Snapshot {
+		private final Object[] pages;
+		private final int size;
+		private final Backend backend;
+
+		private Snapshot(Object[] pages, int size, Backend backend) {
+			this.pages = pages;
+			this.size = size;
+			this.backend = backend;
+		}
+
+		/**
+		 * Retorna o tamanho, em bytes, da memória capturada.
+		 * @return O tamanho em bytes
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		public Backend getBackend() {
+			return backend;
+		}
+	}
+
 	public Memory(int size) {
+		this(size, Backend.HEAP);
+	}
+
+	/**
+	 * Cria uma memória zerada com as páginas no armazenamento escolhido.
+	 * @param size Tamanho em bytes
+	 * @param backend Onde ficam as páginas
+	 */
+	public Memory(int size, Backend backend) {
 		this.memorySize = size;
-		this.memory = new byte[size];
+		this.storage = backend == Backend.OFF_HEAP ? new OffHeapStorage(size) : new HeapStorage(size);
+		this.pageEpochs = new int[storage.pages.length];
+		this.wordEpochs = new int[storage.pages.length][];
+	}
+
+	/**
+	 * Cria uma memória independente com o conteúdo de uma imagem, no mesmo armazenamento dela.
+	 * As páginas continuam compartilhadas até a primeira escrita em cada uma delas.
+	 * @param snapshot A imagem de origem
+	 */
+	public Memory(Snapshot snapshot) {
+		this.memorySize = snapshot.size;
+		this.storage = snapshot.backend == Backend.OFF_HEAP
+				? new OffHeapStorage(snapshot.size, (ByteBuffer[]) snapshot.pages)
+				: new HeapStorage(snapshot.size, (byte[][]) snapshot.pages);
+		this.pageEpochs = new int[storage.pages.length];
+		this.wordEpochs = new int[storage.pages.length][];
 	}
 
 	/**
@@ -20,11 +138,15 @@ public class Memory {
 	 * @return Um array de 3 bytes representando a palavra de memória
 	 */
 	public byte[] readWord(int wordIndex) {
-		if (wordIndex * 3 + 3 > memorySize) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 3 > memorySize) {
 			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
 		}
-		byte[] word = new byte[3];
-		System.arraycopy(memory, wordIndex * 3, word, 0, 3);
+		int value = storage.readInt24(byteAddr);
+		byte[] word = {(byte) (value >> 16), (byte) (value >> 8), (byte) value};
+		if (readListeners.length > 0) {
+			notifyRead(byteAddr, 3);
+		}
 		return word;
 	}
 
@@ -34,11 +156,42 @@ public class Memory {
 	 * @return O valor do byte no endereço especificado
 	 */
 	public int readByte(int byteAddr) {
-		if (byteAddr >= memorySize) {
+		if (byteAddr < 0 || byteAddr >= memorySize) {
 			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
 		}
+		if (readListeners.length > 0) {
+			notifyRead(byteAddr, 1);
+		}
         // Retorna o byte como valor positivo (0-255)
-        return memory[byteAddr] & 0xFF;
+        return storage.readByte(byteAddr);
+	}
+
+	/**
+	 * Lê uma palavra sem notificar os observadores de leitura. Usado por quem apenas exibe ou
+	 * registra o conteúdo (interface, gravação do rastro), para que essas leituras não sejam
+	 * confundidas com as do programa.
+	 * @param wordIndex Índice da palavra a ser lida
+	 * @return Um array de 3 bytes representando a palavra de memória
+	 */
+	public byte[] peekWord(int wordIndex) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 3 > memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
+		}
+		int value = storage.readInt24(byteAddr);
+		return new byte[]{(byte) (value >> 16), (byte) (value >> 8), (byte) value};
+	}
+
+	/**
+	 * Lê um byte sem notificar os observadores de leitura (ver {@link #peekWord(int)}).
+	 * @param byteAddr O endereço do byte a ser lido
+	 * @return O valor do byte, de 0 a 255
+	 */
+	public int peekByte(int byteAddr) {
+		if (byteAddr < 0 || byteAddr >= memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
+		}
+		return storage.readByte(byteAddr);
 	}
 
 	/**
@@ -50,10 +203,15 @@ public class Memory {
 		if (word.length != 3) {
 			throw new IllegalArgumentException("Uma palavra deve ter exatamente 3 bytes.");
 		}
-		if (wordIndex * 3 + 3 > memorySize) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 3 > memorySize) {
 			throw new IndexOutOfBoundsException("Tentativa de escrever fora dos limites da memória.");
 		}
-		System.arraycopy(word, 0, memory, wordIndex * 3, 3);
+		if (overwriteListener != null) {
+			notifyOverwrite(byteAddr, 3);
+		}
+		storage.writeInt24(byteAddr, ((word[0] & 0xFF) << 16) | ((word[1] & 0xFF) << 8) | (word[2] & 0xFF));
+		notifyWrite(byteAddr, 3);
 	}
 
 	/**
@@ -62,10 +220,128 @@ public class Memory {
 	 * @param value O valor do byte a ser escrito
 	 */
 	public void writeByte(int byteAddr, int value) {
-		if (byteAddr >= memorySize) {
+		if (byteAddr < 0 || byteAddr >= memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de escrever fora dos limites da memória.");
+		}
+		if (overwriteListener != null) {
+			notifyOverwrite(byteAddr, 1);
+		}
+		storage.writeByte(byteAddr, value & 0xFF);  // Armazena apenas o byte
+		notifyWrite(byteAddr, 1);
+	}
+
+	/**
+	 * Lê uma palavra de 24 bits como inteiro com sinal, sem alocar um array intermediário.
+	 * Equivale a {@code Convert.bytesToInt(readWord(wordIndex))}.
+	 * @param wordIndex Índice da palavra a ser lida
+	 * @return O valor da palavra com extensão de sinal para 32 bits
+	 */
+	public int readInt24(int wordIndex) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 3 > memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
+		}
+		int value = storage.readInt24(byteAddr);
+		if (readListeners.length > 0) {
+			notifyRead(byteAddr, 3);
+		}
+		// Estende o sinal para 32 bits
+		return (value << 8) >> 8;
+	}
+
+	/**
+	 * Escreve os 24 bits menos significativos do valor na palavra indicada.
+	 * @param wordIndex Índice da palavra a ser escrita
+	 * @param value O valor a ser escrito (truncado para 24 bits)
+	 */
+	public void writeInt24(int wordIndex, int value) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 3 > memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de escrever fora dos limites da memória.");
+		}
+		if (overwriteListener != null) {
+			notifyOverwrite(byteAddr, 3);
+		}
+		storage.writeInt24(byteAddr, value);
+		notifyWrite(byteAddr, 3);
+	}
+
+	/**
+	 * Lê um valor de 48 bits (duas palavras consecutivas), usado pelo registrador F.
+	 * As duas palavras podem estar em páginas diferentes.
+	 * @param wordIndex Índice da primeira palavra
+	 * @return O valor de 48 bits, sem extensão de sinal
+	 */
+	public long readLong48(int wordIndex) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 6 > memorySize) {
+			throw new IndexOutOfBoundsException("Tentativa de ler fora dos limites da memória.");
+		}
+		long value = ((long) storage.readInt24(byteAddr) << 24) | storage.readInt24(byteAddr + 3);
+		if (readListeners.length > 0) {
+			notifyRead(byteAddr, 6);
+		}
+		return value;
+	}
+
+	/**
+	 * Escreve os 48 bits menos significativos do valor em duas palavras consecutivas.
+	 * @param wordIndex Índice da primeira palavra
+	 * @param value O valor a ser escrito (truncado para 48 bits)
+	 */
+	public void writeLong48(int wordIndex, long value) {
+		int byteAddr = wordIndex * 3;
+		if (byteAddr < 0 || byteAddr + 6 > memorySize) {
 			throw new IndexOutOfBoundsException("Tentativa de escrever fora dos limites da memória.");
 		}
-		memory[byteAddr] = (byte) (value & 0xFF);  // Armazena apenas o byte
+		if (overwriteListener != null) {
+			notifyOverwrite(byteAddr, 6);
+		}
+		storage.writeInt24(byteAddr, (int) (value >> 24));
+		storage.writeInt24(byteAddr + 3, (int) value);
+		notifyWrite(byteAddr, 6);
+	}
+
+	/**
+	 * Captura o conteúdo atual da memória em tempo proporcional ao número de páginas.
+	 * A partir daqui, todas as páginas passam a ser compartilhadas com a imagem, e a próxima
+	 * escrita em cada uma delas a copia.
+	 * @return A imagem da memória
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(storage.capture(), memorySize, storage.backend());
+	}
+
+	/**
+	 * Restaura o conteúdo de uma imagem obtida de uma memória do mesmo tamanho.
+	 * Apenas as páginas diferentes da imagem são trocadas e notificadas aos observadores.
+	 * @param snapshot A imagem a ser restaurada
+	 */
+	public void restore(Snapshot snapshot) {
+		if (snapshot.size != memorySize) {
+			throw new IllegalArgumentException("A imagem tem tamanho diferente da memória.");
+		}
+		if (snapshot.backend != storage.backend()) {
+			throw new IllegalArgumentException("A imagem usa outro armazenamento de memória.");
+		}
+		storage.restore(snapshot.pages, this::notifyPage);
+	}
+
+	/**
+	 * Cria uma memória independente com o conteúdo atual, compartilhando as páginas até a
+	 * primeira escrita em cada uma. Equivale a {@code new Memory(snapshot())}.
+	 * @return A nova memória
+	 */
+	public Memory fork() {
+		return new Memory(snapshot());
+	}
+
+	/**
+	 * Retorna onde ficam as páginas desta memória.
+	 * @return O armazenamento das páginas
+	 */
+	public Backend getBackend() {
+		return storage.backend();
 	}
 
 	/**
@@ -81,7 +357,7 @@ public class Memory {
 	 * @return Cópia do array de bytes que representa a memória
 	 */
 	public byte[] getMemoryMap() {
-		return Arrays.copyOf(memory, memory.length);
+		return storage.toArray();
 	}
 
 	/**
@@ -93,17 +369,163 @@ public class Memory {
 	}
 
 	/**
-	 * Reinicializa a memória, zerando todos os bytes.
+	 * Reinicializa a memória, zerando todos os bytes. Apenas as páginas escritas voltam a
+	 * apontar para a página de zeros e são notificadas aos observadores.
 	 */
 	public void clearMemory() {
-		Arrays.fill(memory, (byte) 0);
+		storage.clear(this::notifyPage);
+	}
+
+	/**
+	 * Encerra a época de escrita atual. Escritas feitas a partir daqui ficam registradas com
+	 * uma época maior que a retornada.
+	 *
+	 * Pode ser chamado de outra thread durante a execução. Uma escrita concorrente com o avanço
+	 * ainda pode ser marcada com a época encerrada; quem consulta de outra thread deve incluir
+	 * essa época na consulta seguinte (ver {@code MemoryTableModel}).
+	 * @return A época encerrada, a ser informada depois em {@link #changedWordsSince(int)}
+	 */
+	public int advanceEpoch() {
+		return epoch++;
+	}
+
+	/**
+	 * Retorna os índices das palavras escritas depois da época informada, em ordem crescente.
+	 * O custo é proporcional às páginas escritas, não ao tamanho da memória. A época 0
+	 * retorna todas as palavras já escritas.
+	 * @param since Época retornada por {@link #advanceEpoch()}
+	 * @return Os índices de palavra alterados
+	 */
+	public int[] changedWordsSince(int since) {
+		int[] changed = new int[16];
+		int count = 0;
+		int wordCount = getAddressRange();
+		for (int page = 0; page < pageEpochs.length; page++) {
+			if (pageEpochs[page] <= since) {
+				continue;
+			}
+			int[] stamps = wordEpochs[page];
+			for (int i = 0; i < WORDS_PER_PAGE; i++) {
+				int word = page * WORDS_PER_PAGE + i;
+				if (stamps[i] > since && word < wordCount) {
+					if (count == changed.length) {
+						changed = Arrays.copyOf(changed, count * 2);
+					}
+					changed[count++] = word;
+				}
+			}
+		}
+		return Arrays.copyOf(changed, count);
+	}
+
+	/**
+	 * Registra um observador que será notificado após cada escrita na memória.
+	 * @param listener O observador a ser registrado
+	 */
+	public void addWriteListener(WriteListener listener) {
+		WriteListener[] updated = Arrays.copyOf(writeListeners, writeListeners.length + 1);
+		updated[writeListeners.length] = listener;
+		writeListeners = updated;
+	}
+
+	/**
+	 * Remove um observador de escrita registrado anteriormente.
+	 * @param listener O observador a ser removido
+	 */
+	public void removeWriteListener(WriteListener listener) {
+		for (int i = 0; i < writeListeners.length; i++) {
+			if (writeListeners[i] == listener) {
+				WriteListener[] updated = new WriteListener[writeListeners.length - 1];
+				System.arraycopy(writeListeners, 0, updated, 0, i);
+				System.arraycopy(writeListeners, i + 1, updated, i, writeListeners.length - i - 1);
+				writeListeners = updated;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Registra um observador que será notificado após cada leitura na memória.
+	 * Sem observadores de leitura, as leituras não têm custo adicional além de uma verificação.
+	 * @param listener O observador a ser registrado
+	 */
+	public void addReadListener(ReadListener listener) {
+		ReadListener[] updated = Arrays.copyOf(readListeners, readListeners.length + 1);
+		updated[readListeners.length] = listener;
+		readListeners = updated;
+	}
+
+	/**
+	 * Remove um observador de leitura registrado anteriormente.
+	 * @param listener O observador a ser removido
+	 */
+	public void removeReadListener(ReadListener listener) {
+		for (int i = 0; i < readListeners.length; i++) {
+			if (readListeners[i] == listener) {
+				ReadListener[] updated = new ReadListener[readListeners.length - 1];
+				System.arraycopy(readListeners, 0, updated, 0, i);
+				System.arraycopy(readListeners, i + 1, updated, i, readListeners.length - i - 1);
+				readListeners = updated;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Define o observador que recebe o conteúdo anterior de cada escrita, ou null para nenhum.
+	 * As escritas de {@link #restore(Snapshot)} e {@link #clearMemory()} não passam por ele.
+	 * @param listener O observador, ou null
+	 */
+	public void setOverwriteListener(OverwriteListener listener) {
+		this.overwriteListener = listener;
+	}
+
+	// Marca com a época atual as palavras do intervalo escrito
+	private void markWritten(int byteAddr, int length) {
+		int lastWord = (byteAddr + length - 1) / 3;
+		for (int word = byteAddr / 3; word <= lastWord; word++) {
+			int page = word / WORDS_PER_PAGE;
+			int[] stamps = wordEpochs[page];
+			if (stamps == null) {
+				stamps = wordEpochs[page] = new int[WORDS_PER_PAGE];
+			}
+			stamps[word % WORDS_PER_PAGE] = epoch;
+			pageEpochs[page] = epoch;
+		}
+	}
+
+	private void notifyPage(int page) {
+		int start = page * PAGE_SIZE;
+		notifyWrite(start, Math.min(PAGE_SIZE, memorySize - start));
+	}
+
+	private void notifyRead(int byteAddr, int length) {
+		for (ReadListener listener : readListeners) {
+			listener.onRead(byteAddr, length);
+		}
+	}
+
+	private void notifyOverwrite(int byteAddr, int length) {
+		long previous = switch (length) {
+			case 1 -> storage.readByte(byteAddr) & 0xFF;
+			case 3 -> storage.readInt24(byteAddr) & 0xFFFFFF;
+			default -> ((long) (storage.readInt24(byteAddr) & 0xFFFFFF) << 24) | (storage.readInt24(byteAddr + 3) & 0xFFFFFF);
+		};
+		overwriteListener.beforeWrite(byteAddr, length, previous);
+	}
+
+	private void notifyWrite(int byteAddr, int length) {
+		markWritten(byteAddr, length);
+		for (WriteListener listener : writeListeners) {
+			listener.onWrite(byteAddr, length);
+		}
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < memorySize; i++) {
-			sb.append(String.format("%02X ", memory[i]));
+			sb.append(String.format("%02X ", storage.readByte(i)));
 			if ((i + 1) % 16 == 0) {
 				sb.append("\n");
 			}
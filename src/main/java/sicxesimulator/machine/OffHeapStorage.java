@@ -0,0 +1,109 @@
+package sicxesimulator.machine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Páginas em buffers diretos, fora do heap: o conteúdo da memória emulada não é percorrido
+ * nem copiado pelo coletor de lixo. Os buffers usam a ordem big-endian padrão de
+ * {@link ByteBuffer}, a mesma das palavras SIC/XE.
+ *
+ * As páginas não são alocadas uma a uma: cada uma é um trecho de um bloco direto de até
+ * {@link #PAGES_PER_SLAB} páginas, obtido da arena da própria memória. Páginas exclusivas
+ * descartadas por {@link Memory#restore} ou {@link Memory#clearMemory()} voltam para essa
+ * arena e são reaproveitadas pela próxima cópia na escrita.
+ *
+ * Cada memória tem a sua arena, confinada à thread que a executa como o resto da memória:
+ * máquinas de trabalhos diferentes não compartilham estado mutável nem disputam uma trava.
+ * As páginas compartilhadas com imagens continuam somente leitura e são copiadas na escrita.
+ */
+final class OffHeapStorage extends PagedStorage<ByteBuffer> {
+    /** Máximo de páginas de cada bloco direto alocado pela arena. */
+    static final int PAGES_PER_SLAB = 256;
+
+    // Página de zeros somente leitura; a cópia na escrita garante que nunca seja alterada
+    private static final ByteBuffer ZERO_PAGE = ByteBuffer.allocateDirect(Memory.PAGE_SIZE).asReadOnlyBuffer();
+
+    // Arena da memória: páginas livres e o bloco atual, com os trechos já entregues. As páginas
+    // livres nunca passam do número de páginas da memória, as únicas que podem ser exclusivas.
+    private final ArrayDeque<ByteBuffer> freePages = new ArrayDeque<>();
+    private final int slabSize;
+    private ByteBuffer slab;
+    private int slabPages;
+
+    OffHeapStorage(int size) {
+        super(size, zeroFilled(new ByteBuffer[pageCount(size)], ZERO_PAGE), ZERO_PAGE);
+        this.slabSize = Math.min(PAGES_PER_SLAB, pages.length);
+        this.slabPages = slabSize;
+    }
+
+    OffHeapStorage(int size, ByteBuffer[] image) {
+        super(size, image.clone(), ZERO_PAGE);
+        this.slabSize = Math.min(PAGES_PER_SLAB, pages.length);
+        this.slabPages = slabSize;
+    }
+
+    @Override
+    Memory.Backend backend() {
+        return Memory.Backend.OFF_HEAP;
+    }
+
+    @Override
+    ByteBuffer copyOf(ByteBuffer page) {
+        ByteBuffer copy = allocatePage();
+        copy.put(0, page, 0, Memory.PAGE_SIZE);
+        return copy;
+    }
+
+    @Override
+    void release(ByteBuffer page) {
+        freePages.push(page);
+    }
+
+    @Override
+    int readByte(int byteAddr) {
+        return pages[byteAddr / Memory.PAGE_SIZE].get(byteAddr % Memory.PAGE_SIZE) & 0xFF;
+    }
+
+    @Override
+    void writeByte(int byteAddr, int value) {
+        writablePage(byteAddr / Memory.PAGE_SIZE).put(byteAddr % Memory.PAGE_SIZE, (byte) value);
+    }
+
+    @Override
+    int readInt24(int byteAddr) {
+        ByteBuffer page = pages[byteAddr / Memory.PAGE_SIZE];
+        int offset = byteAddr % Memory.PAGE_SIZE;
+        return ((page.get(offset) & 0xFF) << 16) | (page.getShort(offset + 1) & 0xFFFF);
+    }
+
+    @Override
+    void writeInt24(int byteAddr, int value) {
+        ByteBuffer page = writablePage(byteAddr / Memory.PAGE_SIZE);
+        int offset = byteAddr % Memory.PAGE_SIZE;
+        page.put(offset, (byte) (value >> 16));
+        page.putShort(offset + 1, (short) value);
+    }
+
+    @Override
+    void copyPage(ByteBuffer page, byte[] target, int targetOffset, int length) {
+        page.get(0, target, targetOffset, length);
+    }
+
+    /**
+     * Retorna uma página livre da arena, com conteúdo indefinido: quem a recebe a sobrescreve
+     * por inteiro. Um bloco novo só é alocado quando não há página livre nem trecho restante.
+     */
+    private ByteBuffer allocatePage() {
+        ByteBuffer page = freePages.poll();
+        if (page != null) {
+            return page;
+        }
+        if (slabPages == slabSize) {
+            slab = ByteBuffer.allocateDirect(slabSize * Memory.PAGE_SIZE);
+            slabPages = 0;
+        }
+        // O trecho mantém o bloco vivo enquanto for usado por esta memória ou por alguma imagem
+        return slab.slice(slabPages++ * Memory.PAGE_SIZE, Memory.PAGE_SIZE);
+    }
+}
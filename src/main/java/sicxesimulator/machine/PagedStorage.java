@@ -0,0 +1,135 @@
+package sicxesimulator.machine;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Armazenamento dos bytes de {@link Memory} em páginas de {@link Memory#PAGE_SIZE} bytes,
+ * compartilhadas por cópia na escrita. As subclasses definem o tipo da página (array no heap
+ * ou buffer direto fora do heap) e os acessos; os limites já foram verificados por {@link Memory}.
+ *
+ * @param <P> Tipo da página
+ */
+abstract class PagedStorage<P> {
+    final int size;
+    final P[] pages;
+    private final boolean[] owned; // Páginas exclusivas (podem ser escritas no lugar)
+    private final P zeroPage;
+
+    /**
+     * Cria o armazenamento sobre as páginas informadas, todas tratadas como compartilhadas.
+     */
+    PagedStorage(int size, P[] pages, P zeroPage) {
+        this.size = size;
+        this.pages = pages;
+        this.owned = new boolean[pages.length];
+        this.zeroPage = zeroPage;
+    }
+
+    /**
+     * Preenche um array de páginas novo com a página de zeros.
+     */
+    static <P> P[] zeroFilled(P[] pages, P zeroPage) {
+        Arrays.fill(pages, zeroPage);
+        return pages;
+    }
+
+    static int pageCount(int size) {
+        return (size + Memory.PAGE_SIZE - 1) / Memory.PAGE_SIZE;
+    }
+
+    abstract Memory.Backend backend();
+
+    abstract P copyOf(P page);
+
+    /**
+     * Recebe uma página exclusiva que deixou de ser usada; nenhuma imagem a referencia, então
+     * ela pode ser reaproveitada. Por padrão fica para o coletor de lixo.
+     */
+    void release(P page) {
+    }
+
+    abstract int readByte(int byteAddr);
+
+    abstract void writeByte(int byteAddr, int value);
+
+    /**
+     * Lê 3 bytes em big-endian, sem extensão de sinal. A palavra nunca cruza páginas.
+     */
+    abstract int readInt24(int byteAddr);
+
+    abstract void writeInt24(int byteAddr, int value);
+
+    /**
+     * Copia o trecho inicial da página para o destino.
+     */
+    abstract void copyPage(P page, byte[] target, int targetOffset, int length);
+
+    /**
+     * Copia todo o conteúdo para um array de {@link #size} bytes.
+     */
+    final byte[] toArray() {
+        byte[] target = new byte[size];
+        for (int page = 0; page < pages.length; page++) {
+            int start = page * Memory.PAGE_SIZE;
+            copyPage(pages[page], target, start, Math.min(Memory.PAGE_SIZE, size - start));
+        }
+        return target;
+    }
+
+    /**
+     * Retorna a página pronta para escrita, copiando-a antes se estiver compartilhada.
+     */
+    final P writablePage(int page) {
+        if (!owned[page]) {
+            pages[page] = copyOf(pages[page]);
+            owned[page] = true;
+        }
+        return pages[page];
+    }
+
+    /**
+     * Copia as referências das páginas; a partir daqui todas ficam compartilhadas.
+     */
+    final P[] capture() {
+        Arrays.fill(owned, false);
+        return pages.clone();
+    }
+
+    /**
+     * Volta às páginas da imagem, informando o índice de cada página trocada.
+     * A imagem deve ter sido capturada de um armazenamento do mesmo tipo.
+     */
+    @SuppressWarnings("unchecked")
+    final void restore(Object[] image, IntConsumer changedPage) {
+        for (int page = 0; page < pages.length; page++) {
+            if (pages[page] != image[page]) {
+                discard(page);
+                pages[page] = (P) image[page];
+                owned[page] = false;
+                changedPage.accept(page);
+            }
+        }
+    }
+
+    /**
+     * Volta as páginas escritas para a página de zeros, informando o índice de cada uma.
+     * Páginas que já eram de zeros não são percorridas nem informadas.
+     */
+    final void clear(IntConsumer changedPage) {
+        for (int page = 0; page < pages.length; page++) {
+            if (pages[page] != zeroPage) {
+                discard(page);
+                pages[page] = zeroPage;
+                owned[page] = false;
+                changedPage.accept(page);
+            }
+        }
+    }
+
+    private void discard(int page) {
+        if (owned[page]) {
+            release(pages[page]);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package sicxesimulator.machine;
+
+/**
+ * Resultado de uma execução em lote com {@link Machine#run(long)}.
+ *
+ * @param instructions Número de instruções executadas até a parada
+ * @param elapsedNanos Tempo total da execução, em nanossegundos
+ * @param stopReason   Motivo da parada
+ * @param fault        Exceção que interrompeu a execução, ou null se não houve falha
+ */
+public record RunResult(long instructions, long elapsedNanos, StopReason stopReason, Exception fault) {
+
+    /**
+     * Motivo pelo qual a execução em lote foi interrompida.
+     */
+    public enum StopReason {
+        /** O programa encerrou (RSUB com L = 0). */
+        HALTED,
+        /** Uma instrução lançou exceção; ver {@link RunResult#fault()}. */
+        FAULT,
+        /** O limite de instruções foi atingido antes do fim do programa. */
+        BUDGET_EXHAUSTED,
+        /** A execução foi cancelada pelo {@link MachinePool} antes do fim do programa. */
+        CANCELLED,
+        /** A próxima instrução tem um ponto de parada. */
+        BREAKPOINT,
+        /** Uma instrução acessou um endereço observado; a execução parou logo após ela. */
+        WATCHPOINT
+    }
+
+    /**
+     * Taxa média de execução, em instruções por segundo.
+     */
+    public double instructionsPerSecond() {
+        return elapsedNanos > 0 ? instructions * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+}
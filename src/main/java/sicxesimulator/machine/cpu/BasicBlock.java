@@ -0,0 +1,119 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Sequência de instruções sem desvios, compilada uma única vez por {@link BlockCompiler}.
+ * O bloco termina em um desvio (J, JEQ, JGT, JLT, JSUB, RSUB), em um opcode desconhecido
+ * ou ao atingir o tamanho máximo. Uma escrita no intervalo [start, end) invalida o bloco.
+ */
+public final class BasicBlock {
+    private final int start;
+    private final int end;
+    private final DecodedInstruction[] decoded;
+    private final CompiledInstruction[] instructions;
+    private boolean valid = true;
+
+    // Camada de tradução para bytecode (ver BytecodeTranslator)
+    private int executions;
+    private TranslatedBlock translated;
+    private boolean translationDisabled;
+
+    BasicBlock(int start, int end, DecodedInstruction[] decoded, CompiledInstruction[] instructions) {
+        this.start = start;
+        this.end = end;
+        this.decoded = decoded;
+        this.instructions = instructions;
+    }
+
+    /**
+     * Endereço (em bytes) da primeira instrução do bloco.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Endereço (em bytes) logo após a última instrução do bloco.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Número de instruções do bloco (sequências fundidas contam cada instrução).
+     */
+    public int length() {
+        return decoded.length;
+    }
+
+    CompiledInstruction[] instructions() {
+        return instructions;
+    }
+
+    DecodedInstruction[] decoded() {
+        return decoded;
+    }
+
+    /**
+     * Número de vezes que o bloco foi executado pela camada de closures.
+     */
+    public int getExecutions() {
+        return executions;
+    }
+
+    int countExecution() {
+        return ++executions;
+    }
+
+    /**
+     * Indica se o bloco está sendo executado como bytecode gerado.
+     */
+    public boolean isTranslated() {
+        return translated != null;
+    }
+
+    TranslatedBlock translated() {
+        return translated;
+    }
+
+    void setTranslated(TranslatedBlock translated) {
+        this.translated = translated;
+    }
+
+    boolean isTranslationDisabled() {
+        return translationDisabled;
+    }
+
+    /**
+     * Descarta o código gerado e impede nova tradução; o bloco volta à camada de closures.
+     */
+    void deoptimize() {
+        translated = null;
+        translationDisabled = true;
+    }
+
+    /**
+     * Número de instruções do bloco concluídas antes daquela cuja próxima instrução é pc.
+     * Cada instrução grava o PC da seguinte antes de executar, então após uma falha o PC
+     * identifica a instrução que falhou.
+     */
+    int completedBefore(int pc) {
+        for (int i = 0; i < decoded.length; i++) {
+            if (decoded[i].address() + decoded[i].getSizeInBytes() == pc) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    boolean overlaps(int byteAddr, int length) {
+        return byteAddr < end && byteAddr + length > start;
+    }
+}
@@ -0,0 +1,198 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.util.Arrays;
+
+/**
+ * Camada de execução por blocos básicos.
+ * Localiza na memória trechos de instruções sem desvios e os compila, uma única vez, em
+ * uma sequência de {@link CompiledInstruction} com o endereço efetivo especializado para
+ * o modo de endereçamento de cada instrução. Sequências frequentes reconhecidas por
+ * {@link SuperinstructionFuser} são compiladas como uma única operação. Os blocos ficam em cache pelo endereço de
+ * início e são descartados quando há escrita no intervalo que ocupam.
+ *
+ * Um ponto de parada ({@link Breakpoints}) só aparece no início de um bloco: o bloco anterior
+ * termina antes dele. Com pontos de observação, as sequências não são fundidas, para que a
+ * execução pare logo após a instrução que acessou o endereço observado.
+ */
+public final class BlockCompiler {
+    public static final int MAX_BLOCK_LENGTH = 64;
+
+    // Maior intervalo que um bloco pode ocupar, em bytes (cada instrução ocupa até 6 bytes)
+    private static final int MAX_BLOCK_BYTES = MAX_BLOCK_LENGTH * 6;
+
+    private final InstructionDecoder decoder;
+    private final ExecutionUnit executionUnit;
+    private final RegisterSet registers;
+    private final SuperinstructionFuser fuser;
+    private final Breakpoints breakpoints;
+
+    private final BasicBlock[] blocks;
+    // Bytes já cobertos por algum bloco compilado; escritas fora deles não exigem busca
+    private final boolean[] code;
+
+    private long blocksCompiled;
+    private long blocksInvalidated;
+
+    public BlockCompiler(Memory memory, InstructionDecoder decoder, ExecutionUnit executionUnit, RegisterSet registers,
+                         Breakpoints breakpoints) {
+        this.decoder = decoder;
+        this.breakpoints = breakpoints;
+        this.executionUnit = executionUnit;
+        this.registers = registers;
+        this.fuser = new SuperinstructionFuser(memory, registers);
+        this.blocks = new BasicBlock[memory.getSize()];
+        this.code = new boolean[memory.getSize()];
+        memory.addWriteListener(this::invalidate);
+    }
+
+    /**
+     * Retorna o bloco que começa no endereço informado, compilando-o se necessário.
+     * Retorna null se não houver uma instrução completa nesse endereço.
+     */
+    public BasicBlock blockAt(int address) {
+        if (address < 0 || address + 3 > blocks.length) {
+            return null;
+        }
+        BasicBlock block = blocks[address];
+        if (block == null) {
+            block = compile(address);
+            blocks[address] = block;
+            Arrays.fill(code, block.getStart(), block.getEnd(), true);
+            blocksCompiled++;
+        }
+        return block;
+    }
+
+    /**
+     * Descarta os blocos que se sobrepõem ao intervalo [byteAddr, byteAddr + length).
+     */
+    public void invalidate(int byteAddr, int length) {
+        int end = Math.min(code.length, byteAddr + length);
+        boolean touchesCode = false;
+        for (int address = Math.max(0, byteAddr); address < end; address++) {
+            if (code[address]) {
+                touchesCode = true;
+                break;
+            }
+        }
+        if (!touchesCode) {
+            return;
+        }
+        for (int address = Math.max(0, byteAddr - MAX_BLOCK_BYTES); address < end; address++) {
+            BasicBlock block = blocks[address];
+            if (block != null && block.overlaps(byteAddr, length)) {
+                block.invalidate();
+                blocks[address] = null;
+                blocksInvalidated++;
+            }
+        }
+    }
+
+    /**
+     * Descarta todos os blocos compilados.
+     */
+    public void invalidateAll() {
+        invalidate(0, code.length);
+    }
+
+    public SuperinstructionFuser getFuser() {
+        return fuser;
+    }
+
+    public long getBlocksCompiled() {
+        return blocksCompiled;
+    }
+
+    public long getBlocksInvalidated() {
+        return blocksInvalidated;
+    }
+
+    private BasicBlock compile(int start) {
+        DecodedInstruction[] instructions = new DecodedInstruction[MAX_BLOCK_LENGTH];
+        int count = 0;
+        int address = start;
+        while (count < MAX_BLOCK_LENGTH && address + 3 <= blocks.length) {
+            // A instrução com ponto de parada começa o próximo bloco
+            if (count > 0 && breakpoints.isBreakpoint(address)) {
+                break;
+            }
+            DecodedInstruction decoded = decoder.fetch(address);
+            instructions[count++] = decoded;
+            address += decoded.getSizeInBytes();
+            if (endsBlock(decoded)) {
+                break;
+            }
+        }
+        instructions = Arrays.copyOf(instructions, count);
+
+        // Sequências conhecidas viram uma única operação; as demais instruções são compiladas uma a uma
+        CompiledInstruction[] compiled = new CompiledInstruction[count];
+        int operations = 0;
+        boolean fuse = !breakpoints.hasWatchpoints();
+        for (int i = 0; i < count; ) {
+            int length = fuse ? fuser.match(instructions, i) : 0;
+            if (length > 0) {
+                compiled[operations++] = fuser.fuse(instructions, i);
+                i += length;
+            } else {
+                compiled[operations++] = compile(instructions[i]);
+                i++;
+            }
+        }
+        return new BasicBlock(start, Math.min(address, blocks.length),
+                instructions, Arrays.copyOf(compiled, operations));
+    }
+
+    private static boolean endsBlock(DecodedInstruction decoded) {
+        int firstByte = decoded.format() >= 3 ? decoded.opcode() | 0x03 : decoded.opcode();
+        return InstructionSet.isBranch(firstByte) || decoded.handler() == InstructionSet.FAULT;
+    }
+
+    /**
+     * Especializa uma instrução: o PC da próxima instrução e a parte estática do endereço
+     * efetivo ficam fixos; apenas os registradores B e X usados pelo modo são lidos na execução.
+     */
+    private CompiledInstruction compile(DecodedInstruction decoded) {
+        ExecutionUnit unit = executionUnit;
+        RegisterSet regs = registers;
+        InstructionHandler handler = decoded.handler();
+        int next = decoded.address() + decoded.getSizeInBytes();
+        int displacement = decoded.displacement();
+
+        if (decoded.format() < 3) {
+            return () -> {
+                regs.set(RegisterSet.PC, next);
+                handler.execute(unit, decoded, 0);
+                return 1;
+            };
+        }
+        if (decoded.baseRelative() && decoded.indexed()) {
+            return () -> {
+                regs.set(RegisterSet.PC, next);
+                handler.execute(unit, decoded, regs.get(RegisterSet.B) + displacement + regs.get(RegisterSet.X));
+                return 1;
+            };
+        }
+        if (decoded.baseRelative()) {
+            return () -> {
+                regs.set(RegisterSet.PC, next);
+                handler.execute(unit, decoded, regs.get(RegisterSet.B) + displacement);
+                return 1;
+            };
+        }
+        if (decoded.indexed()) {
+            return () -> {
+                regs.set(RegisterSet.PC, next);
+                handler.execute(unit, decoded, displacement + regs.get(RegisterSet.X));
+                return 1;
+            };
+        }
+        return () -> {
+            regs.set(RegisterSet.PC, next);
+            handler.execute(unit, decoded, displacement);
+            return 1;
+        };
+    }
+}
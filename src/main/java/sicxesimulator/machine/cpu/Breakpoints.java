@@ -0,0 +1,214 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Pontos de parada de execução e pontos de observação de leitura e escrita na memória.
+ *
+ * Cada tipo é um conjunto de bits sobre os endereços em bytes, e cada verificação é um único
+ * teste de bit: por bloco (ou instrução) executado em {@link ControlUnit#run(long)} e por
+ * acesso à memória durante a execução. Sem pontos de observação de leitura, as leituras da
+ * memória não são observadas.
+ *
+ * Um ponto de parada interrompe a execução antes da instrução do endereço, exceto quando ela
+ * é a primeira da execução (para que seja possível continuar a partir dele). Um ponto de
+ * observação interrompe logo após a instrução que acessou o endereço.
+ *
+ * Não é sincronizado: durante uma execução em segundo plano, os pontos só podem ser alterados
+ * pela thread de execução, por meio de {@link sicxesimulator.machine.MachineRunner#apply(Runnable)}.
+ */
+public class Breakpoints {
+
+    public enum Kind {
+        /** Execução da instrução no endereço. */
+        EXECUTE,
+        /** Leitura do endereço por uma instrução. */
+        READ,
+        /** Escrita no endereço por uma instrução. */
+        WRITE
+    }
+
+    /**
+     * Ponto que interrompeu a última execução.
+     *
+     * @param kind    Tipo do ponto
+     * @param address Endereço (em bytes) do ponto atingido
+     */
+    public record Hit(Kind kind, int address) { }
+
+    private final Memory memory;
+    private final BitSet execute = new BitSet();
+    private final BitSet read = new BitSet();
+    private final BitSet write = new BitSet();
+    private final Memory.ReadListener readListener = this::onRead;
+    private IntConsumer onExecuteChanged = address -> { };
+    private Runnable onWatchChanged = () -> { };
+
+    // Acessos só contam dentro da instrução em execução (não na decodificação nem na interface)
+    private final InstructionAccess access;
+    Hit hit;
+
+    Breakpoints(Memory memory, InstructionAccess access) {
+        this.memory = memory;
+        this.access = access;
+        memory.addWriteListener(this::onWrite);
+    }
+
+    /**
+     * Define quem é avisado das alterações que afetam os blocos compilados.
+     * @param onExecuteChanged Chamado com o endereço de um ponto de parada incluído ou removido
+     * @param onWatchChanged   Chamado quando passa a haver, ou deixa de haver, pontos de observação
+     */
+    void setChangeHandlers(IntConsumer onExecuteChanged, Runnable onWatchChanged) {
+        this.onExecuteChanged = onExecuteChanged;
+        this.onWatchChanged = onWatchChanged;
+    }
+
+    // ================ PONTOS DE PARADA ================
+
+    public void addBreakpoint(int address) {
+        checkAddress(address, 1);
+        if (!execute.get(address)) {
+            execute.set(address);
+            onExecuteChanged.accept(address);
+        }
+    }
+
+    public void removeBreakpoint(int address) {
+        if (address >= 0 && execute.get(address)) {
+            execute.clear(address);
+            onExecuteChanged.accept(address);
+        }
+    }
+
+    /**
+     * Inclui o ponto de parada se não existir, ou o remove.
+     * @return true se o endereço passou a ter um ponto de parada
+     */
+    public boolean toggleBreakpoint(int address) {
+        if (isBreakpoint(address)) {
+            removeBreakpoint(address);
+            return false;
+        }
+        addBreakpoint(address);
+        return true;
+    }
+
+    public boolean isBreakpoint(int address) {
+        return address >= 0 && execute.get(address);
+    }
+
+    public boolean hasBreakpoints() {
+        return !execute.isEmpty();
+    }
+
+    /**
+     * Endereços (em bytes) com ponto de parada, em ordem crescente.
+     */
+    public int[] getBreakpoints() {
+        return execute.stream().toArray();
+    }
+
+    // ================ PONTOS DE OBSERVAÇÃO ================
+
+    /**
+     * Observa o intervalo [address, address + length).
+     * @param kind {@link Kind#READ} ou {@link Kind#WRITE}
+     */
+    public void addWatchpoint(int address, int length, Kind kind) {
+        checkAddress(address, length);
+        boolean watching = hasWatchpoints();
+        watchSet(kind).set(address, address + length);
+        updateReadListener();
+        if (!watching) {
+            onWatchChanged.run();
+        }
+    }
+
+    public void removeWatchpoint(int address, int length, Kind kind) {
+        boolean watching = hasWatchpoints();
+        watchSet(kind).clear(Math.max(0, address), Math.max(0, address + length));
+        updateReadListener();
+        if (watching && !hasWatchpoints()) {
+            onWatchChanged.run();
+        }
+    }
+
+    public boolean isWatched(int address, Kind kind) {
+        return address >= 0 && watchSet(kind).get(address);
+    }
+
+    public boolean hasWatchpoints() {
+        return !read.isEmpty() || !write.isEmpty();
+    }
+
+    /**
+     * Remove todos os pontos de parada e de observação.
+     */
+    public void clear() {
+        for (int address : getBreakpoints()) {
+            removeBreakpoint(address);
+        }
+        boolean watching = hasWatchpoints();
+        read.clear();
+        write.clear();
+        updateReadListener();
+        if (watching) {
+            onWatchChanged.run();
+        }
+        hit = null;
+    }
+
+    /**
+     * Ponto que interrompeu a última execução, ou null se ela terminou por outro motivo.
+     */
+    public Hit getHit() {
+        return hit;
+    }
+
+    void clearHit() {
+        hit = null;
+    }
+
+    private BitSet watchSet(Kind kind) {
+        return switch (kind) {
+            case READ -> read;
+            case WRITE -> write;
+            case EXECUTE -> throw new IllegalArgumentException("Use addBreakpoint para pontos de execução.");
+        };
+    }
+
+    private void checkAddress(int address, int length) {
+        if (address < 0 || length <= 0 || address + length > memory.getSize()) {
+            throw new IllegalArgumentException("Endereço fora da memória: " + address);
+        }
+    }
+
+    private void updateReadListener() {
+        memory.removeReadListener(readListener);
+        if (!read.isEmpty()) {
+            memory.addReadListener(readListener);
+        }
+    }
+
+    private void onRead(int byteAddr, int length) {
+        if (hit == null && access.isInside()) {
+            int watched = read.nextSetBit(byteAddr);
+            if (watched >= 0 && watched < byteAddr + length) {
+                hit = new Hit(Kind.READ, watched);
+            }
+        }
+    }
+
+    private void onWrite(int byteAddr, int length) {
+        if (hit == null && !write.isEmpty() && access.isInside()) {
+            int watched = write.nextSetBit(byteAddr);
+            if (watched >= 0 && watched < byteAddr + length) {
+                hit = new Hit(Kind.WRITE, watched);
+            }
+        }
+    }
+}
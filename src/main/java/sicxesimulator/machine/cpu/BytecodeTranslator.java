@@ -0,0 +1,380 @@
+package sicxesimulator.machine.cpu;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static sicxesimulator.machine.cpu.ClassFileWriter.*;
+
+/**
+ * Camada superior de execução: traduz blocos básicos frequentes para bytecode da JVM,
+ * carregado como classe oculta ({@link MethodHandles.Lookup#defineHiddenClass}), para que o
+ * HotSpot compile o código emulado como código Java comum.
+ *
+ * O código gerado segue a semântica de {@link ExecutionUnit}: as instruções mais comuns
+ * (cargas, armazenamentos, aritmética com a memória, COMP, TIX e desvios) são emitidas
+ * diretamente, com A, X e SW mantidos em variáveis locais; as demais chamam a mesma rotina
+ * de {@link InstructionSet} usada pelo interpretador. Antes de cada instrução o PC recebe o
+ * endereço da seguinte, como em {@link ControlUnit#step()}, e em caso de exceção os
+ * registradores locais são devolvidos ao {@link RegisterSet} antes de propagá-la.
+ */
+public class BytecodeTranslator {
+    private static final Logger logger = Logger.getLogger(BytecodeTranslator.class.getName());
+
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private static final String PACKAGE = "sicxesimulator/machine/cpu/";
+    private static final String CLASS_NAME = PACKAGE + "GeneratedBlock";
+    private static final String REGISTER_SET = PACKAGE + "RegisterSet";
+    private static final String MEMORY = "sicxesimulator/machine/Memory";
+    private static final String EXECUTION_UNIT = PACKAGE + "ExecutionUnit";
+    private static final String DECODED = PACKAGE + "DecodedInstruction";
+    private static final String HANDLER = PACKAGE + "InstructionHandler";
+    private static final String BLOCK = PACKAGE + "BasicBlock";
+    private static final String EXECUTE_DESCRIPTOR = "(L" + REGISTER_SET + ";L" + MEMORY + ";L" + EXECUTION_UNIT
+            + ";[L" + DECODED + ";L" + BLOCK + ";)I";
+
+    private static final int MASK_24 = 0xFFFFFF;
+
+    // Variáveis locais do método gerado
+    private static final int REGISTERS = 1;
+    private static final int MEMORY_LOCAL = 2;
+    private static final int UNIT = 3;
+    private static final int INSTRUCTIONS = 4;
+    private static final int BLOCK_LOCAL = 5;
+    private static final int A = 6;
+    private static final int X = 7;
+    private static final int SW = 8;
+    private static final int EA = 9;
+    private static final int OPERAND = 10;
+    private static final int RESULT = 11;
+    private static final int MAX_LOCALS = 12;
+    private static final int MAX_STACK = 6;
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private long blocksTranslated;
+
+    /**
+     * Traduz o bloco e retorna o código gerado, ou null se a tradução falhar.
+     */
+    TranslatedBlock translate(BasicBlock block) {
+        try {
+            byte[] classFile = generate(block.decoded());
+            MethodHandles.Lookup hidden = lookup.defineHiddenClass(classFile, true);
+            TranslatedBlock translated = (TranslatedBlock) hidden
+                    .findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+            blocksTranslated++;
+            return translated;
+        } catch (Throwable e) {
+            logger.log(Level.WARNING, String.format("Falha ao traduzir o bloco em %06X", block.getStart()), e);
+            return null;
+        }
+    }
+
+    public long getBlocksTranslated() {
+        return blocksTranslated;
+    }
+
+    /**
+     * Gera o arquivo .class de uma implementação de {@link TranslatedBlock} para as instruções dadas.
+     */
+    static byte[] generate(DecodedInstruction[] instructions) {
+        ClassFileWriter writer = new ClassFileWriter(CLASS_NAME, "java/lang/Object", PACKAGE + "TranslatedBlock");
+        writer.addDefaultConstructor("java/lang/Object");
+        new Emitter(writer).emit(instructions);
+        return writer.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+    }
+
+    /**
+     * Monta o corpo de {@link TranslatedBlock#execute}.
+     */
+    private static final class Emitter {
+        private final ClassFileWriter writer;
+        private final ClassFileWriter.Code code;
+        // Trechos em que A, X e SW vivem nas variáveis locais: {início, fim}
+        private final List<int[]> protectedRanges = new ArrayList<>();
+        private int rangeStart;
+
+        private final int registerGet;
+        private final int registerSet;
+        private final int readInt24;
+        private final int writeInt24;
+        private final int toWordAddress;
+        private final int conditionCode;
+        private final int divide;
+        private final int isValid;
+        private final int handler;
+        private final int handlerExecute;
+
+        Emitter(ClassFileWriter writer) {
+            this.writer = writer;
+            this.code = new ClassFileWriter.Code(writer);
+            registerGet = writer.methodRef(REGISTER_SET, "get", "(I)I");
+            registerSet = writer.methodRef(REGISTER_SET, "set", "(II)V");
+            readInt24 = writer.methodRef(MEMORY, "readInt24", "(I)I");
+            writeInt24 = writer.methodRef(MEMORY, "writeInt24", "(II)V");
+            toWordAddress = writer.methodRef(EXECUTION_UNIT, "toWordAddress", "(I)I");
+            conditionCode = writer.methodRef(EXECUTION_UNIT, "conditionCode", "(I)I");
+            divide = writer.methodRef(EXECUTION_UNIT, "divide", "(II)I");
+            isValid = writer.methodRef(BLOCK, "isValid", "()Z");
+            handler = writer.methodRef(DECODED, "handler", "()L" + HANDLER + ";");
+            handlerExecute = writer.interfaceMethodRef(HANDLER, "execute",
+                    "(L" + EXECUTION_UNIT + ";L" + DECODED + ";I)Ljava/lang/String;");
+        }
+
+        void emit(DecodedInstruction[] instructions) {
+            loadCachedRegisters();
+            rangeStart = code.position();
+
+            for (int i = 0; i < instructions.length; i++) {
+                emitInstruction(instructions[i], i);
+            }
+            storeCachedRegisters();
+            code.push(instructions.length);
+            code.op(IRETURN);
+
+            // Em caso de exceção, devolve A, X e SW ao banco de registradores e a propaga
+            int handlerStart = code.position();
+            closeRange(handlerStart);
+            for (int[] range : protectedRanges) {
+                code.addHandler(range[0], range[1], handlerStart);
+            }
+            storeCachedRegisters();
+            code.op(ATHROW);
+
+            writer.addMethod(ACC_PUBLIC, "execute", EXECUTE_DESCRIPTOR, code, MAX_STACK, MAX_LOCALS);
+        }
+
+        private void emitInstruction(DecodedInstruction instruction, int index) {
+            // PC ← endereço da próxima instrução, como no ciclo do interpretador
+            setRegister(RegisterSet.PC, () -> code.push(instruction.address() + instruction.getSizeInBytes()));
+
+            String mnemonic = InstructionSet.mnemonic(instruction.format() >= 3
+                    ? instruction.opcode() | 0x03 : instruction.opcode());
+            if (instruction.format() < 3 || mnemonic == null) {
+                emitHandlerCall(index, false);
+                return;
+            }
+            emitEffectiveAddress(instruction);
+
+            switch (mnemonic) {
+                case "LDA" -> loadCached(A);
+                case "LDX" -> loadCached(X);
+                case "LDB" -> loadRegister(RegisterSet.B);
+                case "LDL" -> loadRegister(RegisterSet.L);
+                case "LDS" -> loadRegister(RegisterSet.S);
+                case "LDT" -> loadRegister(RegisterSet.T);
+                case "STA" -> store(() -> code.iload(A), index);
+                case "STX" -> store(() -> code.iload(X), index);
+                case "STB" -> store(() -> getRegister(RegisterSet.B), index);
+                case "STL" -> store(() -> getRegister(RegisterSet.L), index);
+                case "STS" -> store(() -> getRegister(RegisterSet.S), index);
+                case "STT" -> store(() -> getRegister(RegisterSet.T), index);
+                case "STSW" -> store(() -> code.iload(SW), index);
+                case "ADD" -> arithmetic(IADD);
+                case "SUB" -> arithmetic(ISUB);
+                case "MUL" -> arithmetic(IMUL);
+                case "AND" -> arithmetic(IAND);
+                case "OR" -> arithmetic(IOR);
+                case "DIV" -> arithmetic(-1);
+                case "COMP" -> compare();
+                case "TIX" -> tix();
+                case "J" -> setRegister(RegisterSet.PC, () -> code.iload(EA));
+                case "JEQ" -> conditionalJump(0);
+                case "JLT" -> conditionalJump(1);
+                case "JGT" -> conditionalJump(2);
+                case "JSUB" -> {
+                    setRegister(RegisterSet.L, () -> getRegister(RegisterSet.PC));
+                    setRegister(RegisterSet.PC, () -> code.iload(EA));
+                }
+                default -> emitHandlerCall(index, true);
+            }
+        }
+
+        /**
+         * EA = deslocamento [+ B] [+ X], na mesma ordem de {@link InstructionDecoder#effectiveAddress}.
+         */
+        private void emitEffectiveAddress(DecodedInstruction instruction) {
+            code.push(instruction.displacement());
+            if (instruction.baseRelative()) {
+                getRegister(RegisterSet.B);
+                code.op(IADD);
+            }
+            if (instruction.indexed()) {
+                code.iload(X);
+                code.op(IADD);
+            }
+            code.istore(EA);
+        }
+
+        // Empilha memory.readInt24(toWordAddress(EA))
+        private void readOperand() {
+            code.aload(MEMORY_LOCAL);
+            code.iload(EA);
+            code.invoke(INVOKESTATIC, toWordAddress);
+            code.invoke(INVOKEVIRTUAL, readInt24);
+        }
+
+        private void loadCached(int local) {
+            readOperand();
+            code.push(MASK_24);
+            code.op(IAND);
+            code.istore(local);
+        }
+
+        private void loadRegister(int number) {
+            setRegister(number, this::readOperand);
+        }
+
+        private void store(Runnable value, int index) {
+            code.aload(MEMORY_LOCAL);
+            code.iload(EA);
+            code.invoke(INVOKESTATIC, toWordAddress);
+            value.run();
+            code.invoke(INVOKEVIRTUAL, writeInt24);
+            exitIfInvalidated(index);
+        }
+
+        /**
+         * A ← A op Mem[EA]; SW ← código condicional do resultado (antes do truncamento).
+         * Com opcode -1, executa DIV por {@link ExecutionUnit#divide}.
+         */
+        private void arithmetic(int opcode) {
+            readOperand();
+            code.istore(OPERAND);
+            code.iload(A);
+            code.iload(OPERAND);
+            if (opcode < 0) {
+                code.invoke(INVOKESTATIC, divide);
+            } else {
+                code.op(opcode);
+            }
+            code.istore(RESULT);
+            code.iload(RESULT);
+            code.push(MASK_24);
+            code.op(IAND);
+            code.istore(A);
+            code.iload(RESULT);
+            code.invoke(INVOKESTATIC, conditionCode);
+            code.istore(SW);
+        }
+
+        private void compare() {
+            readOperand();
+            code.istore(OPERAND);
+            code.iload(A);
+            code.iload(OPERAND);
+            code.op(ISUB);
+            code.invoke(INVOKESTATIC, conditionCode);
+            code.istore(SW);
+        }
+
+        private void tix() {
+            // X é incrementado antes da leitura, como em ExecutionUnit.executeTIX
+            code.iload(X);
+            code.push(1);
+            code.op(IADD);
+            code.push(MASK_24);
+            code.op(IAND);
+            code.istore(X);
+            readOperand();
+            code.istore(OPERAND);
+            code.iload(X);
+            code.iload(OPERAND);
+            code.op(ISUB);
+            code.invoke(INVOKESTATIC, conditionCode);
+            code.istore(SW);
+        }
+
+        private void conditionalJump(int conditionCodeValue) {
+            code.iload(SW);
+            int skip;
+            if (conditionCodeValue == 0) {
+                skip = code.jump(IFNE);
+            } else {
+                code.push(conditionCodeValue);
+                skip = code.jump(IF_ICMPNE);
+            }
+            setRegister(RegisterSet.PC, () -> code.iload(EA));
+            code.bind(skip);
+        }
+
+        /**
+         * Executa a instrução pela rotina de {@link InstructionSet}, como o interpretador.
+         */
+        private void emitHandlerCall(int index, boolean hasEffectiveAddress) {
+            storeCachedRegisters();
+            // Durante a chamada o banco de registradores é a cópia válida: uma exceção da
+            // rotina não deve ser tratada com os valores locais
+            closeRange(code.position());
+            code.aload(INSTRUCTIONS);
+            code.push(index);
+            code.op(AALOAD);
+            code.invoke(INVOKEVIRTUAL, handler);
+            code.aload(UNIT);
+            code.aload(INSTRUCTIONS);
+            code.push(index);
+            code.op(AALOAD);
+            if (hasEffectiveAddress) {
+                code.iload(EA);
+            } else {
+                code.push(0);
+            }
+            code.invokeInterface(handlerExecute, 3);
+            code.op(POP);
+            loadCachedRegisters();
+            rangeStart = code.position();
+            exitIfInvalidated(index);
+        }
+
+        private void closeRange(int end) {
+            if (end > rangeStart) {
+                protectedRanges.add(new int[]{rangeStart, end});
+            }
+            rangeStart = end;
+        }
+
+        // Se a instrução escreveu sobre o próprio bloco, encerra após ela
+        private void exitIfInvalidated(int index) {
+            code.aload(BLOCK_LOCAL);
+            code.invoke(INVOKEVIRTUAL, isValid);
+            int valid = code.jump(IFNE);
+            storeCachedRegisters();
+            code.push(index + 1);
+            code.op(IRETURN);
+            code.bind(valid);
+        }
+
+        private void loadCachedRegisters() {
+            getRegister(RegisterSet.A);
+            code.istore(A);
+            getRegister(RegisterSet.X);
+            code.istore(X);
+            getRegister(RegisterSet.SW);
+            code.istore(SW);
+        }
+
+        private void storeCachedRegisters() {
+            setRegister(RegisterSet.A, () -> code.iload(A));
+            setRegister(RegisterSet.X, () -> code.iload(X));
+            setRegister(RegisterSet.SW, () -> code.iload(SW));
+        }
+
+        private void getRegister(int number) {
+            code.aload(REGISTERS);
+            code.push(number);
+            code.invoke(INVOKEVIRTUAL, registerGet);
+        }
+
+        private void setRegister(int number, Runnable value) {
+            code.aload(REGISTERS);
+            code.push(number);
+            value.run();
+            code.invoke(INVOKEVIRTUAL, registerSet);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package sicxesimulator.machine.cpu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gerador mínimo de arquivos .class, suficiente para {@link BytecodeTranslator}: uma classe
+ * com construtor padrão e métodos cujo corpo é montado com {@link Code}.
+ * Gera a versão 49 do formato, que dispensa o atributo StackMapTable; a JVM verifica o
+ * código por inferência de tipos.
+ */
+final class ClassFileWriter {
+    private static final int VERSION = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    // Opcodes usados pelo tradutor
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int ILOAD = 0x15;
+    static final int ALOAD = 0x19;
+    static final int AALOAD = 0x32;
+    static final int ISTORE = 0x36;
+    static final int POP = 0x57;
+    static final int IADD = 0x60;
+    static final int ISUB = 0x64;
+    static final int IMUL = 0x68;
+    static final int IAND = 0x7E;
+    static final int IOR = 0x80;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IF_ICMPNE = 0xA0;
+    static final int IRETURN = 0xAC;
+    static final int RETURN = 0xB1;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int INVOKEINTERFACE = 0xB9;
+    static final int ATHROW = 0xBF;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private final DataOutputStream methodsOut = new DataOutputStream(methods);
+    private int methodCount;
+
+    private final int thisClass;
+    private final int superClass;
+    private final List<Integer> interfaces = new ArrayList<>();
+
+    ClassFileWriter(String internalName, String superName, String... interfaceNames) {
+        thisClass = classRef(internalName);
+        superClass = classRef(superName);
+        for (String name : interfaceNames) {
+            interfaces.add(classRef(name));
+        }
+    }
+
+    // ================ CONSTANTES ================
+
+    int utf8(String value) {
+        return constant("U" + value, out -> {
+            out.writeByte(1);
+            out.writeUTF(value);
+        });
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, out -> {
+            out.writeByte(7);
+            out.writeShort(name);
+        });
+    }
+
+    int integer(int value) {
+        return constant("I" + value, out -> {
+            out.writeByte(3);
+            out.writeInt(value);
+        });
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(11, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = constant("N" + name + ":" + descriptor, out -> {
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return constant(tag + owner + "." + name + ":" + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private interface ConstantWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private int constant(String key, ConstantWriter writer) {
+        Integer existing = poolIndex.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            writer.write(poolOut);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int index = poolCount++;
+        poolIndex.put(key, index);
+        return index;
+    }
+
+    // ================ MÉTODOS ================
+
+    /**
+     * Adiciona um construtor público sem parâmetros que apenas chama o da superclasse.
+     */
+    void addDefaultConstructor(String superName) {
+        Code code = new Code(this);
+        code.aload(0);
+        code.invoke(INVOKESPECIAL, methodRef(superName, "<init>", "()V"));
+        code.op(RETURN);
+        addMethod(ACC_PUBLIC, "<init>", "()V", code, 1, 1);
+    }
+
+    void addMethod(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeAttribute = utf8("Code");
+        try {
+            methodsOut.writeShort(access);
+            methodsOut.writeShort(nameIndex);
+            methodsOut.writeShort(descriptorIndex);
+            methodsOut.writeShort(1);
+            methodsOut.writeShort(codeAttribute);
+            byte[] bytes = code.toByteArray();
+            methodsOut.writeInt(12 + bytes.length + 8 * code.handlers.size());
+            methodsOut.writeShort(maxStack);
+            methodsOut.writeShort(maxLocals);
+            methodsOut.writeInt(bytes.length);
+            methodsOut.write(bytes);
+            methodsOut.writeShort(code.handlers.size());
+            for (int[] handler : code.handlers) {
+                methodsOut.writeShort(handler[0]);
+                methodsOut.writeShort(handler[1]);
+                methodsOut.writeShort(handler[2]);
+                methodsOut.writeShort(0); // Captura qualquer Throwable
+            }
+            methodsOut.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        methodCount++;
+    }
+
+    byte[] toByteArray(int access) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolCount);
+            out.write(pool.toByteArray());
+            out.writeShort(access);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.size());
+            for (int index : interfaces) {
+                out.writeShort(index);
+            }
+            out.writeShort(0); // Campos
+            out.writeShort(methodCount);
+            out.write(methods.toByteArray());
+            out.writeShort(0); // Atributos
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Corpo de um método em construção.
+     */
+    static final class Code {
+        private final ClassFileWriter owner;
+        private byte[] bytes = new byte[256];
+        private int length;
+        private final List<int[]> handlers = new ArrayList<>();
+
+        Code(ClassFileWriter owner) {
+            this.owner = owner;
+        }
+
+        int position() {
+            return length;
+        }
+
+        void op(int opcode) {
+            u1(opcode);
+        }
+
+        void aload(int local) {
+            u1(ALOAD);
+            u1(local);
+        }
+
+        void iload(int local) {
+            u1(ILOAD);
+            u1(local);
+        }
+
+        void istore(int local) {
+            u1(ISTORE);
+            u1(local);
+        }
+
+        /**
+         * Empilha uma constante inteira com a instrução mais curta possível.
+         */
+        void push(int value) {
+            if (value >= -1 && value <= 5) {
+                u1(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                u1(BIPUSH);
+                u1(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                u1(SIPUSH);
+                u2(value);
+            } else {
+                u1(LDC_W);
+                u2(owner.integer(value));
+            }
+        }
+
+        void invoke(int opcode, int methodRef) {
+            u1(opcode);
+            u2(methodRef);
+        }
+
+        void invokeInterface(int methodRef, int argumentSlots) {
+            u1(INVOKEINTERFACE);
+            u2(methodRef);
+            u1(argumentSlots + 1);
+            u1(0);
+        }
+
+        /**
+         * Emite um desvio com destino ainda desconhecido; retorna a posição a ser corrigida
+         * por {@link #bind(int)}.
+         */
+        int jump(int opcode) {
+            int at = length;
+            u1(opcode);
+            u2(0);
+            return at;
+        }
+
+        /**
+         * Faz o desvio emitido em {@code jumpAt} apontar para a posição atual.
+         */
+        void bind(int jumpAt) {
+            int offset = length - jumpAt;
+            bytes[jumpAt + 1] = (byte) (offset >> 8);
+            bytes[jumpAt + 2] = (byte) offset;
+        }
+
+        void addHandler(int start, int end, int handler) {
+            handlers.add(new int[]{start, end, handler});
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void u1(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Operação de um bloco básico já especializada: operandos, modo de endereçamento e
+ * endereço da próxima instrução ficam capturados na closure. Uma operação corresponde a
+ * uma instrução ou a uma sequência fundida por {@link SuperinstructionFuser}.
+ */
+@FunctionalInterface
+public interface CompiledInstruction {
+
+    /**
+     * Executa a operação e retorna o número de instruções concluídas.
+     */
+    int execute();
+}
@@ -1,8 +1,11 @@
 package sicxesimulator.machine.cpu;
 
 import sicxesimulator.machine.Memory;
-import sicxesimulator.models.Instruction;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ControlUnit {
@@ -11,32 +14,152 @@ public class ControlUnit {
     private final InstructionDecoder decoder;
     private final ExecutionUnit executionUnit;
     private final RegisterSet registerSet;
+    private final Memory memory;
+    private final ExecutionTrace trace = new ExecutionTrace();
+    private final BlockCompiler blockCompiler;
+    private final Profiler profiler;
+    private final Breakpoints breakpoints;
+    private final InstructionAccess access = new InstructionAccess();
+    private final UndoJournal undoJournal;
+    private TraceFileWriter traceFile;
+    private final BytecodeTranslator translator = new BytecodeTranslator();
+    private boolean blockExecutionEnabled = true;
+    private boolean translationEnabled = true;
+    private int translationThreshold = BytecodeTranslator.DEFAULT_THRESHOLD;
+    private long instructionCount;
 
-    private Instruction currentInstruction;
+    private DecodedInstruction currentInstruction;
+    private int currentEffectiveAddress;
     private boolean halted;
     private String lastExecutionLog;
 
+    // Estado usado apenas com o rastro habilitado
+    private final int[] registersBefore = new int[10];
+    private boolean tracing;
+    private TraceEvent lastEvent;
+    private int writeAddress;
+    private int writeLength;
+
     public ControlUnit(Memory memory) {
         this.registerSet = new RegisterSet();
+        this.memory = memory;
         this.decoder = new InstructionDecoder(registerSet, memory);
         this.executionUnit = new ExecutionUnit(registerSet, memory);
         this.halted = false;
+        memory.addWriteListener(this::onMemoryWrite);
+        this.breakpoints = new Breakpoints(memory, access);
+        this.blockCompiler = new BlockCompiler(memory, decoder, executionUnit, registerSet, breakpoints);
+        // Blocos que contêm o endereço de um ponto de parada (ou terminam logo antes dele) são refeitos
+        breakpoints.setChangeHandlers(address -> blockCompiler.invalidate(address - 1, 2), blockCompiler::invalidateAll);
+        this.profiler = new Profiler(memory, access);
+        this.undoJournal = new UndoJournal(memory);
     }
 
     public RegisterSet getRegisterSet() {
         return this.registerSet;
     }
 
+    public InstructionDecoder getInstructionDecoder() {
+        return this.decoder;
+    }
+
+    public BlockCompiler getBlockCompiler() {
+        return this.blockCompiler;
+    }
+
+    public boolean isBlockExecutionEnabled() {
+        return blockExecutionEnabled;
+    }
+
+    /**
+     * Habilita ou desabilita a execução por blocos básicos em {@link #run(long)}.
+     * Desabilitada, cada instrução passa pelo ciclo completo de {@link #step()}.
+     */
+    public void setBlockExecutionEnabled(boolean enabled) {
+        this.blockExecutionEnabled = enabled;
+    }
+
+    public BytecodeTranslator getTranslator() {
+        return translator;
+    }
+
+    public boolean isTranslationEnabled() {
+        return translationEnabled;
+    }
+
+    /**
+     * Habilita ou desabilita a tradução de blocos frequentes para bytecode.
+     */
+    public void setTranslationEnabled(boolean enabled) {
+        this.translationEnabled = enabled;
+    }
+
+    public int getTranslationThreshold() {
+        return translationThreshold;
+    }
+
+    /**
+     * Define quantas execuções um bloco precisa para ser traduzido para bytecode.
+     */
+    public void setTranslationThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("O limiar de tradução deve ser positivo.");
+        }
+        this.translationThreshold = threshold;
+    }
+
+    /**
+     * Número de instruções concluídas desde a criação ou o último reset.
+     */
+    public long getInstructionCount() {
+        return instructionCount;
+    }
+
+    public ExecutionTrace getExecutionTrace() {
+        return trace;
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    public Breakpoints getBreakpoints() {
+        return breakpoints;
+    }
+
+    public UndoJournal getUndoJournal() {
+        return undoJournal;
+    }
+
+    /**
+     * Indica se a execução está sendo gravada em arquivo ({@link #startRecording(Path)}).
+     */
+    public boolean isRecording() {
+        return traceFile != null;
+    }
+
+    /**
+     * Retorna a descrição da última instrução executada, montada apenas quando solicitada.
+     * Com o rastro habilitado inclui os registradores e a memória alterados; sem ele, apenas
+     * o endereço, a descrição retornada pela rotina de execução e o endereço efetivo.
+     */
     public String getLastExecutionLog() {
-        return lastExecutionLog;
+        if (lastEvent != null) {
+            return lastEvent.render();
+        }
+        if (currentInstruction == null || lastExecutionLog == null) {
+            return null;
+        }
+        String log = String.format("%06X: %s", currentInstruction.address(), lastExecutionLog);
+        return currentInstruction.format() >= 3 ? log + String.format(" EA=%06X", currentEffectiveAddress) : log;
     }
 
     public int getIntValuePC() {
-        return registerSet.getRegister("PC").getIntValue();
+        return registerSet.get(RegisterSet.PC);
     }
 
     public void setIntValuePC(int value) {
-        registerSet.getRegister("PC").setValue(value);
+        registerSet.set(RegisterSet.PC, value);
     }
 
     /**
@@ -44,176 +167,365 @@ public class ControlUnit {
      */
     public void step() {
         // Fetch
-        logger.info("Fetching instruction at PC: " + String.format("%06X", getIntValuePC()));
-        currentInstruction = decoder.decodeInstruction();
-
-        // Log dos dados decodificados
-        logger.info(String.format("Instrução decodificada: Formato %d, Opcode %s, EffectiveAddress %06X, Operandos %s, Indexed: %s",
-                currentInstruction.format(),
-                Integer.toHexString(currentInstruction.opcode()),
-                currentInstruction.effectiveAddress(),
-                java.util.Arrays.toString(currentInstruction.operands()),
-                currentInstruction.indexed()));
+        currentInstruction = decoder.fetch();
+        currentEffectiveAddress = decoder.effectiveAddress(currentInstruction);
+        lastEvent = null;
+        lastExecutionLog = null;
+        breakpoints.clearHit();
+        boolean journaling = undoJournal.isEnabled();
+        if (journaling) {
+            undoJournal.checkpointIfDue(instructionCount, registerSet);
+            undoJournal.beginInstruction(registerSet);
+        }
 
         // Incrementa o PC (antes da execução, para manter o PC para cálculos PC-relativos)
         incrementPC(currentInstruction.getSizeInBytes());
-        logger.info(String.format("PC incrementado para: %06X", getIntValuePC()));
+        TraceFileWriter recorder = traceFile;
+        if (recorder != null) {
+            recorder.beginInstruction(registerSet);
+        }
 
         // Executa a instrução
-        lastExecutionLog = executeInstruction();
-        logger.info("Log de execução: " + lastExecutionLog);
+        boolean completed = false;
+        access.begin();
+        try {
+            if (trace.isEnabled()) {
+                executeTraced();
+            } else {
+                lastExecutionLog = executeInstruction();
+            }
+            completed = true;
+        } finally {
+            access.end();
+            if (journaling) {
+                undoJournal.endInstruction(registerSet, completed);
+            }
+            if (recorder != null) {
+                recorder.endInstruction(currentInstruction, currentEffectiveAddress, registerSet, completed, halted);
+            }
+        }
+
+        instructionCount++;
+        if (profiler.isEnabled()) {
+            profiler.recordExecution(currentInstruction);
+        }
 
-        // Log do PC após execução
-        logger.info("PC após execução: " + String.format("%06X", getIntValuePC()));
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(getLastExecutionLog());
+        }
     }
 
     /**
-     * Executa a instrução armazenada em currentInstruction.
-     * Inclui um switch-case para instruções de formato 2 e 3.
+     * Executa até o fim do programa ou até concluir o número de instruções informado.
+     * Sempre que possível executa blocos básicos compilados inteiros, e os blocos que passam
+     * do limiar de execuções são traduzidos para bytecode; com o rastro ou o perfilador
+     * habilitados, com o diário de desfazer ligado, durante a gravação em arquivo, ou quando o bloco ultrapassaria o limite,
+     * recorre a {@link #step()}.
+     * Exceções das instruções são propagadas; {@link #getInstructionCount()} indica até onde
+     * a execução chegou.
+     *
+     * A execução também para em um ponto de parada ou de observação ({@link Breakpoints#getHit()}).
+     * Com pontos de observação, os blocos não usam o bytecode gerado e verificam o ponto após
+     * cada instrução.
      */
-    private String executeInstruction() {
-        int format = currentInstruction.format();
-        int opcode = currentInstruction.opcode();
-        int[] operands = currentInstruction.operands();
-        boolean indexed = currentInstruction.indexed();
-        int effectiveAddress = currentInstruction.effectiveAddress();
-        String log;
-
-        // Log antes da execução
-        logger.info(String.format("Executando instrução: Opcode %s, Operandos %s, EffectiveAddress %06X, Indexed: %s",
-                Integer.toHexString(opcode), java.util.Arrays.toString(operands), effectiveAddress, indexed));
-
-        switch (format) {
-            case 2:
-                // Instruções de formato 2 (apenas registradores)
-                log = switch (opcode) {
-                    case 0x04 -> executionUnit.executeCLEAR_LDX(currentInstruction, operands);
-                    case 0x90 -> executionUnit.executeADDR(operands);
-                    default ->
-                            throw new IllegalStateException("Instrução de formato 2 não implementada: " + Integer.toHexString(opcode));
-                };
+    public void run(long maxInstructions) {
+        long limit = instructionCount + maxInstructions;
+        boolean watching = breakpoints.hasWatchpoints();
+        boolean resuming = true;
+        breakpoints.clearHit();
+        while (!halted && instructionCount < limit) {
+            int pc = getIntValuePC();
+            // A primeira instrução executa mesmo com ponto de parada: é a continuação a partir dele
+            if (!resuming && breakpoints.isBreakpoint(pc)) {
+                breakpoints.hit = new Breakpoints.Hit(Breakpoints.Kind.EXECUTE, pc);
                 break;
-            case 3:
-                // Instruções de formato 3 (com acesso à memória)
-                switch (opcode) {
-                    case 0x18:
-                        log = executionUnit.executeADD(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x40:
-                        log = executionUnit.executeAND(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x28:
-                        log = executionUnit.executeCOMP(operands, indexed, effectiveAddress);
-                        break;
-                    case 0xA0:
-                        log = executionUnit.executeCOMPR(operands);
-                        break;
-                    case 0x24:
-                        log = executionUnit.executeDIV(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x9C:
-                        log = executionUnit.executeDIVR(operands);
-                        break;
-                    case 0x3C:
-                        log = executionUnit.executeJ(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x30:
-                        log = executionUnit.executeJEQ(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x34:
-                        log = executionUnit.executeJGT(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x38:
-                        log = executionUnit.executeJLT(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x48:
-                        log = executionUnit.executeJSUB(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x00:
-                        log = executionUnit.executeLDA(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x68:
-                        log = executionUnit.executeLDB(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x50:
-                        log = executionUnit.executeLDCH(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x08:
-                        log = executionUnit.executeLDL(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x6C:
-                        log = executionUnit.executeLDS(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x74:
-                        log = executionUnit.executeLDT(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x20:
-                        log = executionUnit.executeMUL(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x98:
-                        log = executionUnit.executeMULR(operands);
-                        break;
-                    case 0x44:
-                        log = executionUnit.executeOR(operands, indexed, effectiveAddress);
-                        break;
-                    case 0xAC:
-                        log = executionUnit.executeRMO(operands);
-                        break;
-                    case 0x4C:
-                        log = executionUnit.executeRSUB();
-                        if (log.contains("HALT")) {
-                            setHalted();
-                        }
-                        break;
-                    case 0xA4:
-                        log = executionUnit.executeSHIFTL(operands);
-                        break;
-                    case 0xA8:
-                        log = executionUnit.executeSHIFTR(operands);
-                        break;
-                    case 0x0C:
-                        log = executionUnit.executeSTA(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x78:
-                        log = executionUnit.executeSTB(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x54:
-                        log = executionUnit.executeSTCH(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x14:
-                        log = executionUnit.executeSTL(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x7C:
-                        log = executionUnit.executeSTS(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x84:
-                        log = executionUnit.executeSTT(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x10:
-                        log = executionUnit.executeSTX(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x1C:
-                        log = executionUnit.executeSUB(operands, indexed, effectiveAddress);
-                        break;
-                    case 0x94:
-                        log = executionUnit.executeSUBR(operands);
-                        break;
-                    case 0x2C:
-                        log = executionUnit.executeTIX(operands, indexed, effectiveAddress);
-                        break;
-                    case 0xB8:
-                        log = executionUnit.executeTIXR(operands);
-                        break;
-                    default:
-                        throw new IllegalStateException("Instrução de formato 3 não implementada: " + Integer.toHexString(opcode));
+            }
+            resuming = false;
+            BasicBlock block = blockExecutionEnabled && !trace.isEnabled() && !profiler.isEnabled()
+                    && !undoJournal.isEnabled() && traceFile == null
+                    ? blockCompiler.blockAt(pc)
+                    : null;
+            if (block == null || block.length() > limit - instructionCount) {
+                step();
+            } else if (block.isTranslated() && !watching) {
+                executeTranslated(block);
+            } else {
+                executeBlock(block);
+                if (translationEnabled && block.isValid() && !block.isTranslationDisabled()
+                        && block.countExecution() == translationThreshold) {
+                    translate(block);
                 }
+            }
+            if (breakpoints.hit != null) {
                 break;
-            default:
-                throw new IllegalStateException("Formato de instrução não implementado: " + currentInstruction.format());
+            }
+        }
+    }
+
+    /**
+     * Volta a execução em até {@code count} instruções, com o diário de desfazer ligado.
+     * Dentro do histórico do diário, cada instrução é desfeita diretamente; além dele, o estado
+     * é restaurado do último ponto de restauração anterior ao destino e a execução é refeita
+     * até lá. Uma instrução interrompida por falha também conta como uma instrução desfeita.
+     * @return O número de instruções efetivamente voltadas
+     */
+    public long stepBack(long count) {
+        if (!undoJournal.isEnabled()) {
+            throw new IllegalStateException("O diário de desfazer não está habilitado.");
+        }
+        long undone = 0;
+        if (count > undoJournal.getInstructions()) {
+            long target = Math.max(0, instructionCount - count);
+            UndoJournal.Checkpoint checkpoint = undoJournal.checkpointAtOrBefore(target);
+            if (checkpoint != null) {
+                undone = instructionCount - target;
+                replayFrom(checkpoint, target);
+                return undone;
+            }
+        }
+        while (undone < count && undoJournal.getInstructions() > 0) {
+            if (undoJournal.undo(registerSet)) {
+                instructionCount--;
+            }
+            undone++;
+        }
+        undoJournal.discardCheckpointsAfter(instructionCount);
+        clearStopState();
+        return undone;
+    }
+
+    /**
+     * Volta a execução até logo antes da última instrução que escreveu no byte informado,
+     * dentro do histórico do diário de desfazer.
+     * @return O número de instruções voltadas, ou -1 se nenhuma instrução do histórico escreveu nele
+     */
+    public long stepBackToWrite(int byteAddr) {
+        if (!undoJournal.isEnabled()) {
+            throw new IllegalStateException("O diário de desfazer não está habilitado.");
+        }
+        int count = undoJournal.instructionsSinceWrite(byteAddr);
+        return count < 0 ? -1 : stepBack(count);
+    }
+
+    // ================ GRAVAÇÃO E REPRODUÇÃO ================
+
+    /**
+     * Passa a gravar no arquivo, a partir do estado atual, cada instrução executada
+     * (ver {@link TraceFileWriter}). Uma gravação anterior é encerrada. Durante a gravação,
+     * {@link #run(long)} executa instrução a instrução.
+     */
+    public void startRecording(Path path) throws IOException {
+        stopRecording();
+        traceFile = new TraceFileWriter(path, memory, registerSet);
+    }
+
+    /**
+     * Encerra a gravação em andamento, se houver, e fecha o arquivo.
+     * @return O número de instruções gravadas
+     */
+    public long stopRecording() {
+        if (traceFile == null) {
+            return 0;
+        }
+        TraceFileWriter recorder = traceFile;
+        traceFile = null;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar o arquivo de rastro.", e);
+        }
+        return recorder.getRecordCount();
+    }
+
+    /**
+     * Reconstrói o estado após as primeiras {@code index} instruções de um rastro gravado: a
+     * memória e os registradores são os do início da gravação, e as alterações de cada
+     * registro são aplicadas em sequência, sem executar as instruções. O histórico do diário
+     * de desfazer é descartado.
+     * @param reader Leitor do rastro; é reposicionado no início antes da reprodução
+     * @param index  Número de registros a aplicar (0 reconstrói o estado inicial)
+     */
+    public void replay(TraceFileReader reader, long index) {
+        if (traceFile != null) {
+            throw new IllegalStateException("Não é possível reproduzir um rastro durante a gravação.");
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Índice de instrução inválido: " + index);
+        }
+        reset();
+        memory.clearMemory();
+        reader.loadInitialMemory(memory);
+        reader.rewind();
+        long completed = 0;
+        boolean stopped = false;
+        while (reader.getIndex() < index && reader.next()) {
+            for (int write = 0; write < reader.getWriteCount(); write++) {
+                int address = reader.getWriteAddress(write);
+                for (int offset = 0; offset < reader.getWriteLength(write); offset++) {
+                    memory.writeByte(address + offset, reader.getWriteByte(write, offset));
+                }
+            }
+            if (reader.isCompleted()) {
+                completed++;
+            }
+            stopped = reader.isHalted();
+        }
+        if (reader.getIndex() < index) {
+            throw new IllegalArgumentException("O rastro tem apenas " + reader.getIndex() + " instruções.");
+        }
+        for (int number = 0; number < registersBefore.length; number++) {
+            if (number != RegisterSet.F) {
+                registerSet.set(number, reader.getRegister(number));
+            }
+        }
+        registerSet.setF(reader.getF());
+        instructionCount = completed;
+        halted = stopped;
+    }
+
+    // Restaura o ponto de restauração e refaz a execução até a instrução de número target
+    private void replayFrom(UndoJournal.Checkpoint checkpoint, long target) {
+        undoJournal.clearHistory();
+        undoJournal.discardCheckpointsAfter(checkpoint.instruction());
+        memory.restore(checkpoint.memory());
+        for (int number = 0; number < checkpoint.registers().length; number++) {
+            registerSet.set(number, checkpoint.registers()[number]);
+        }
+        registerSet.setF(checkpoint.f());
+        instructionCount = checkpoint.instruction();
+        clearStopState();
+        while (instructionCount < target && !halted) {
+            step();
+        }
+        currentInstruction = null;
+        lastEvent = null;
+        lastExecutionLog = null;
+    }
+
+    // A execução voltou para antes do fim do programa e de qualquer ponto de parada
+    private void clearStopState() {
+        currentInstruction = null;
+        lastEvent = null;
+        lastExecutionLog = null;
+        breakpoints.clearHit();
+        executionUnit.clearHaltRequest();
+        halted = false;
+    }
+
+    private void translate(BasicBlock block) {
+        TranslatedBlock translated = translator.translate(block);
+        if (translated != null) {
+            block.setTranslated(translated);
+        } else {
+            block.deoptimize();
+        }
+    }
+
+    /**
+     * Executa o bytecode gerado para o bloco. Após uma falha o bloco volta definitivamente
+     * à camada de closures, e a exceção é propagada como no interpretador.
+     */
+    private void executeTranslated(BasicBlock block) {
+        currentInstruction = null;
+        lastEvent = null;
+        lastExecutionLog = null;
+        try {
+            instructionCount += block.translated().execute(registerSet, memory, executionUnit, block.decoded(), block);
+        } catch (RuntimeException e) {
+            instructionCount += block.completedBefore(registerSet.get(RegisterSet.PC));
+            block.deoptimize();
+            throw e;
+        }
+        if (executionUnit.isHaltRequested()) {
+            setHalted();
+        }
+    }
+
+    private void executeBlock(BasicBlock block) {
+        currentInstruction = null;
+        lastEvent = null;
+        lastExecutionLog = null;
+        int executed = 0;
+        access.begin();
+        try {
+            for (CompiledInstruction instruction : block.instructions()) {
+                executed += instruction.execute();
+                // Uma escrita no próprio bloco o invalida: o restante é executado a partir da memória.
+                // Um ponto de observação atingido interrompe o bloco após a instrução.
+                if (!block.isValid() || breakpoints.hit != null) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            instructionCount += block.completedBefore(registerSet.get(RegisterSet.PC));
+            throw e;
+        } finally {
+            access.end();
+        }
+        instructionCount += executed;
+        if (executionUnit.isHaltRequested()) {
+            setHalted();
+        }
+    }
+
+    /**
+     * Executa a instrução armazenada em currentInstruction.
+     * A rotina de execução foi resolvida na decodificação pela tabela de {@link InstructionSet},
+     * indexada pelo primeiro byte bruto; opcodes desconhecidos caem em {@link InstructionSet#FAULT}.
+     */
+    private String executeInstruction() {
+        String log = currentInstruction.handler().execute(executionUnit, currentInstruction, currentEffectiveAddress);
+        if (executionUnit.isHaltRequested()) {
+            setHalted();
         }
         return log;
     }
 
+    /**
+     * Executa a instrução registrando no rastro os registradores e a memória alterados.
+     */
+    private void executeTraced() {
+        for (int number = 0; number < registersBefore.length; number++) {
+            registersBefore[number] = registerSet.get(number);
+        }
+        long fBefore = registerSet.getF();
+        writeLength = 0;
+        tracing = true;
+        try {
+            lastExecutionLog = executeInstruction();
+        } finally {
+            tracing = false;
+        }
+
+        TraceEvent event = trace.next(currentInstruction.address(), currentInstruction.opcode(),
+                currentInstruction.format(), currentEffectiveAddress);
+        for (int number = 0; number < registersBefore.length; number++) {
+            int value = registerSet.get(number);
+            if (number != RegisterSet.F && value != registersBefore[number]) {
+                event.registerChanged(number, value);
+            }
+        }
+        if (registerSet.getF() != fBefore) {
+            event.fChanged(registerSet.getF());
+        }
+        if (writeLength > 0) {
+            long value = 0;
+            int length = Math.min(writeLength, 8);
+            for (int i = 0; i < length; i++) {
+                value = (value << 8) | memory.peekByte(writeAddress + i);
+            }
+            event.memoryWritten(writeAddress, length, value);
+        }
+        lastEvent = event;
+    }
+
+    private void onMemoryWrite(int byteAddr, int length) {
+        if (tracing) {
+            writeAddress = byteAddr;
+            writeLength = length;
+        }
+    }
+
     private void incrementPC(int instructionSizeInBytes) {
         setIntValuePC(getIntValuePC() + instructionSizeInBytes);
     }
@@ -228,6 +540,13 @@ public class ControlUnit {
 
     public void reset() {
         registerSet.clearAll();
+        currentInstruction = null;
+        lastEvent = null;
+        lastExecutionLog = null;
+        instructionCount = 0;
+        breakpoints.clearHit();
+        undoJournal.clear();
+        executionUnit.clearHaltRequest();
         halted = false;
     }
 }
@@ -0,0 +1,36 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.models.Instruction;
+
+/**
+ * Instrução já decodificada e pronta para execução, armazenada no cache do decodificador.
+ * Guarda apenas a parte estática da decodificação: o endereço efetivo final depende dos
+ * registradores B e X no momento da execução e é calculado por {@link InstructionDecoder#effectiveAddress}.
+ *
+ * @param address      Endereço (em bytes) onde a instrução foi lida
+ * @param opcode       Opcode da instrução (sem os bits n e i no formato 3)
+ * @param format       Formato da instrução (1, 2 ou 3)
+ * @param operands     Operandos decodificados; não deve ser alterado, pois é compartilhado pelo cache
+ * @param indexed      Flag x (soma o registrador X ao endereço)
+ * @param baseRelative Flag b sem p (soma o registrador B ao endereço)
+ * @param displacement Deslocamento com sinal; se PC-relativo, já inclui o PC da próxima instrução
+ * @param handler      Rotina de execução obtida de {@link InstructionSet} pelo primeiro byte bruto
+ */
+public record DecodedInstruction(int address, int opcode, int format, int[] operands,
+                                 boolean indexed, boolean baseRelative, int displacement,
+                                 InstructionHandler handler) {
+
+    /**
+     * Converte para o modelo {@link Instruction}, dado o endereço efetivo já calculado.
+     */
+    public Instruction toInstruction(int effectiveAddress) {
+        return new Instruction(opcode, operands, format, indexed, effectiveAddress);
+    }
+
+    /**
+     * Tamanho da instrução em bytes, conforme {@link Instruction#getSizeInBytes()}.
+     */
+    public int getSizeInBytes() {
+        return format == 4 ? 6 : 3;
+    }
+}
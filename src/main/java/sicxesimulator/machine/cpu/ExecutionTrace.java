@@ -0,0 +1,85 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Rastro de execução em buffer circular pré-alocado.
+ * Enquanto desabilitado, a unidade de controle não registra nada e o custo por instrução é
+ * apenas a verificação de {@link #isEnabled()}. Quando cheio, os eventos mais antigos são
+ * sobrescritos.
+ */
+public class ExecutionTrace {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final TraceEvent[] events;
+    private volatile boolean enabled;
+    private long recorded; // Total de eventos registrados desde a última limpeza
+
+    public ExecutionTrace() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ExecutionTrace(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade do rastro deve ser positiva.");
+        }
+        events = new TraceEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new TraceEvent();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Número de eventos disponíveis (no máximo a capacidade).
+     */
+    public int size() {
+        return (int) Math.min(recorded, events.length);
+    }
+
+    public long getTotalRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Retorna o i-ésimo evento disponível, do mais antigo (0) ao mais recente (size() - 1).
+     * A instância é reaproveitada quando o buffer dá a volta.
+     */
+    public TraceEvent get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Evento de rastro inexistente: " + index);
+        }
+        long first = recorded - size();
+        return events[(int) ((first + index) % events.length)];
+    }
+
+    /**
+     * Retorna o evento mais recente, ou null se o rastro estiver vazio.
+     */
+    public TraceEvent last() {
+        return recorded == 0 ? null : events[(int) ((recorded - 1) % events.length)];
+    }
+
+    public void clear() {
+        recorded = 0;
+    }
+
+    /**
+     * Reserva o próximo evento do buffer e o inicializa.
+     */
+    TraceEvent next(int address, int opcode, int format, int effectiveAddress) {
+        TraceEvent event = events[(int) (recorded % events.length)];
+        event.begin(address, opcode, format, effectiveAddress);
+        recorded++;
+        return event;
+    }
+}
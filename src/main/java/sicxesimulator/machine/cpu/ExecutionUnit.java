@@ -2,16 +2,13 @@ package sicxesimulator.machine.cpu;
 
 import sicxesimulator.machine.Memory;
 import sicxesimulator.models.Instruction;
-import sicxesimulator.utils.Convert;
-
-import java.util.logging.Logger;
 
 @SuppressWarnings("unused")
 public class ExecutionUnit {
 
-    private static final Logger logger = Logger.getLogger(ExecutionUnit.class.getName());
     private final RegisterSet registers;
     private final Memory memory;
+    private boolean haltRequested;
 
     public ExecutionUnit(RegisterSet registers, Memory memory) {
         this.registers = registers;
@@ -21,8 +18,9 @@ public class ExecutionUnit {
     /**
      * Converte o endereço efetivo (em bytes) para o endereço de palavra (cada palavra tem 3 bytes).
      * Lança exceção se o endereço não estiver alinhado.
+     * Compartilhado com o código gerado por {@link BytecodeTranslator}.
      */
-    private int toWordAddress(int effectiveAddress) {
+    static int toWordAddress(int effectiveAddress) {
         if (effectiveAddress % 3 != 0) {
             throw new IllegalArgumentException("Endereço efetivo não alinhado: " + effectiveAddress);
         }
@@ -34,137 +32,91 @@ public class ExecutionUnit {
     // ===============================================================
 
     public String executeADD(int[] operands, boolean indexed, int effectiveAddress) {
-        logger.fine(String.format("executeADD: effectiveAddress = %06X", effectiveAddress));
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int operandValue = Convert.bytesToInt(wordBytes);
-        logger.fine(String.format("executeADD: Valor lido da memória = %06X", operandValue));
-
-        int result = A.getIntValue() + operandValue;
-        A.setValue(result);
+        int operandValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = registers.get(RegisterSet.A) + operandValue;
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("ADD: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "ADD";
     }
 
     public String executeADDR(int[] operands) {
         // operands[0] = r1, operands[1] = r2
-        Register reg1 = getRegisterByNumber(operands[0]);
-        Register reg2 = getRegisterByNumber(operands[1]);
-        int result = reg1.getIntValue() + reg2.getIntValue();
-        reg2.setValue(result);
+        int reg1 = registerNumber(operands[0]);
+        int reg2 = registerNumber(operands[1]);
+        int result = registers.get(reg1) + registers.get(reg2);
+        registers.set(reg2, result);
         updateConditionCode(result);
-        String log = String.format("ADDR: R%d + R%d = %06X", operands[0], operands[1], result);
-        logger.info(log);
-        return log;
+        return "ADDR";
     }
 
     public String executeAND(int[] operands, boolean indexed, int effectiveAddress) {
-        logger.fine(String.format("executeAND: effectiveAddress = %06X", effectiveAddress));
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int operandValue = Convert.bytesToInt(wordBytes);
-        logger.fine(String.format("executeAND: Valor lido da memória = %06X", operandValue));
-
-        int result = A.getIntValue() & operandValue;
-        A.setValue(result);
+        int operandValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = registers.get(RegisterSet.A) & operandValue;
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("AND: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "AND";
     }
 
     public String executeSUB(int[] operands, boolean indexed, int effectiveAddress) {
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int operandValue = Convert.bytesToInt(wordBytes);
-        int result = A.getIntValue() - operandValue;
-        A.setValue(result);
+        int operandValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = registers.get(RegisterSet.A) - operandValue;
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("SUB: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "SUB";
     }
 
     public String executeSUBR(int[] operands) {
-        Register r1 = getRegisterByNumber(operands[0]);
-        Register r2 = getRegisterByNumber(operands[1]);
-        int result = r2.getIntValue() - r1.getIntValue();
-        r2.setValue(result);
+        int r1 = registerNumber(operands[0]);
+        int r2 = registerNumber(operands[1]);
+        int result = registers.get(r2) - registers.get(r1);
+        registers.set(r2, result);
         updateConditionCode(result);
-        String log = String.format("SUBR: R%d - R%d = %06X", operands[1], operands[0], result);
-        logger.info(log);
-        return log;
+        return "SUBR";
     }
 
     public String executeDIV(int[] operands, boolean indexed, int effectiveAddress) {
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int divisor = Convert.bytesToInt(wordBytes);
-        if (divisor == 0) {
-            throw new ArithmeticException("Divisão por zero");
-        }
-        int result = A.getIntValue() / divisor;
-        A.setValue(result);
+        int divisor = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = divide(registers.get(RegisterSet.A), divisor);
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("DIV: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "DIV";
     }
 
     public String executeDIVR(int[] operands) {
-        Register r1 = getRegisterByNumber(operands[0]);
-        Register r2 = getRegisterByNumber(operands[1]);
-        if (r1.getIntValue() == 0) {
+        int r1 = registerNumber(operands[0]);
+        int r2 = registerNumber(operands[1]);
+        if (registers.get(r1) == 0) {
             throw new ArithmeticException("Divisão por zero");
         }
-        int result = r2.getIntValue() / r1.getIntValue();
-        r2.setValue(result);
+        int result = registers.get(r2) / registers.get(r1);
+        registers.set(r2, result);
         updateConditionCode(result);
-        String log = String.format("DIVR: R%d / R%d = %06X", operands[1], operands[0], result);
-        logger.info(log);
-        return log;
+        return "DIVR";
     }
 
     public String executeMUL(int[] operands, boolean indexed, int effectiveAddress) {
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int operandValue = Convert.bytesToInt(wordBytes);
-        int result = A.getIntValue() * operandValue;
-        A.setValue(result);
+        int operandValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = registers.get(RegisterSet.A) * operandValue;
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("MUL: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "MUL";
     }
 
     public String executeSUBF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long operandF = bytesToLong48(fBytes);
-        long currentF = F.getLongValue();
+        long operandF = memory.readLong48(toWordAddress(effectiveAddress));
+        long currentF = registers.getF();
         long result = currentF - operandF;
-        F.setValue(result);
-        String log = String.format("SUBF: Resultado = %012X", result);
-        logger.info(log);
-        return log;
+        registers.setF(result);
+        return "SUBF";
     }
 
     public String executeMULR(int[] operands) {
-        Register r1 = getRegisterByNumber(operands[0]);
-        Register r2 = getRegisterByNumber(operands[1]);
-        int result = r1.getIntValue() * r2.getIntValue();
-        r2.setValue(result);
+        int r1 = registerNumber(operands[0]);
+        int r2 = registerNumber(operands[1]);
+        int result = registers.get(r1) * registers.get(r2);
+        registers.set(r2, result);
         updateConditionCode(result);
-        String log = String.format("MULR: R%d * R%d = %06X", operands[0], operands[1], result);
-        logger.info(log);
-        return log;
+        return "MULR";
     }
 
     // ===============================================================
@@ -172,103 +124,56 @@ public class ExecutionUnit {
     // ===============================================================
 
     public String executeADDF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long operandF = bytesToLong48(fBytes);
-        long currentF = F.getLongValue();
+        long operandF = memory.readLong48(toWordAddress(effectiveAddress));
+        long currentF = registers.getF();
         long result = currentF + operandF;
-        F.setValue(result);
-        String log = String.format("ADDF: Resultado = %012X", result);
-        logger.info(log);
-        return log;
+        registers.setF(result);
+        return "ADDF";
     }
 
     public String executeCOMPF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long memF = bytesToLong48(fBytes);
-        long currentF = F.getLongValue();
+        long memF = memory.readLong48(toWordAddress(effectiveAddress));
+        long currentF = registers.getF();
         long diff = currentF - memF;
         updateConditionCode((int) diff); // Aproximação para condição
-        String log = String.format("COMPF: F=%012X vs Mem[%06X]=%012X => %s",
-                currentF, effectiveAddress, memF, getConditionCodeDescription());
-        logger.info(log);
-        return log;
+        return "COMPF";
     }
 
     public String executeDIVF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long divisor = bytesToLong48(fBytes);
+        long divisor = memory.readLong48(toWordAddress(effectiveAddress));
         if (divisor == 0) {
             throw new ArithmeticException("Divisão por zero em DIVF");
         }
-        long currentF = F.getLongValue();
+        long currentF = registers.getF();
         long result = currentF / divisor;
-        F.setValue(result);
-        String log = String.format("DIVF: Resultado = %012X", result);
-        logger.info(log);
-        return log;
+        registers.setF(result);
+        return "DIVF";
     }
 
     public String executeMULF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long operandF = bytesToLong48(fBytes);
-        long currentF = F.getLongValue();
+        long operandF = memory.readLong48(toWordAddress(effectiveAddress));
+        long currentF = registers.getF();
         long result = currentF * operandF;
-        F.setValue(result);
-        String log = String.format("MULF: Resultado = %012X", result);
-        logger.info(log);
-        return log;
+        registers.setF(result);
+        return "MULF";
     }
 
     public String executeFIX() {
         // Converte o valor de F para inteiro e armazena em A (truncamento simples)
-        Register F = registers.getRegister("F");
-        Register A = registers.getRegister("A");
-        int fixedValue = (int) F.getLongValue();
-        A.setValue(fixedValue);
-        String log = String.format("FIX: A ← %06X", fixedValue);
-        logger.info(log);
-        return log;
+        int fixedValue = (int) registers.getF();
+        registers.set(RegisterSet.A, fixedValue);
+        return "FIX";
     }
 
     public String executeFLOAT() {
         // Converte o valor inteiro de A para ponto flutuante e armazena em F
-        Register A = registers.getRegister("A");
-        Register F = registers.getRegister("F");
-        long floatValue = A.getIntValue(); // Conversão simples
-        F.setValue(floatValue);
-        String log = String.format("FLOAT: F ← %012X", floatValue);
-        logger.info(log);
-        return log;
+        long floatValue = registers.get(RegisterSet.A); // Conversão simples
+        registers.setF(floatValue);
+        return "FLOAT";
     }
 
     public String executeNORM() {
-        String log = "NORM: Operação de normalização não implementada.";
-        logger.info(log);
-        return log;
+        return "NORM: Operação de normalização não implementada.";
     }
 
     // ===============================================================
@@ -276,72 +181,53 @@ public class ExecutionUnit {
     // ===============================================================
 
     public String executeJ(int[] operands, boolean indexed, int effectiveAddress) {
-        registers.getRegister("PC").setValue(effectiveAddress);
-        String log = String.format("J: PC ← %06X", effectiveAddress);
-        logger.info(log);
-        return log;
+        registers.set(RegisterSet.PC, effectiveAddress);
+        return "J";
     }
 
     public String executeJEQ(int[] operands, boolean indexed, int effectiveAddress) {
-        if (registers.getRegister("SW").getIntValue() == 0) {
-            registers.getRegister("PC").setValue(effectiveAddress);
-            String log = String.format("JEQ: PC ← %06X", effectiveAddress);
-            logger.info(log);
-            return log;
+        if (registers.get(RegisterSet.SW) == 0) {
+            registers.set(RegisterSet.PC, effectiveAddress);
+            return "JEQ";
         } else {
-            String log = "JEQ: Condição não satisfeita";
-            logger.info(log);
-            return log;
+            return "JEQ: Condição não satisfeita";
         }
     }
 
     public String executeJGT(int[] operands, boolean indexed, int effectiveAddress) {
-        if (registers.getRegister("SW").getIntValue() == 2) {
-            registers.getRegister("PC").setValue(effectiveAddress);
-            String log = String.format("JGT: PC ← %06X", effectiveAddress);
-            logger.info(log);
-            return log;
+        if (registers.get(RegisterSet.SW) == 2) {
+            registers.set(RegisterSet.PC, effectiveAddress);
+            return "JGT";
         } else {
-            String log = "JGT: Condição não satisfeita";
-            logger.info(log);
-            return log;
+            return "JGT: Condição não satisfeita";
         }
     }
 
     public String executeJLT(int[] operands, boolean indexed, int effectiveAddress) {
-        if (registers.getRegister("SW").getIntValue() == 1) {
-            registers.getRegister("PC").setValue(effectiveAddress);
-            String log = String.format("JLT: PC ← %06X", effectiveAddress);
-            logger.info(log);
-            return log;
+        if (registers.get(RegisterSet.SW) == 1) {
+            registers.set(RegisterSet.PC, effectiveAddress);
+            return "JLT";
         } else {
-            String log = "JLT: Condição não satisfeita";
-            logger.info(log);
-            return log;
+            return "JLT: Condição não satisfeita";
         }
     }
 
     public String executeJSUB(int[] operands, boolean indexed, int effectiveAddress) {
-        int returnAddress = registers.getRegister("PC").getIntValue();
-        registers.getRegister("L").setValue(returnAddress);
-        registers.getRegister("PC").setValue(effectiveAddress);
-        String log = String.format("JSUB: PC ← %06X | L = %06X", effectiveAddress, returnAddress);
-        logger.info(log);
-        return log;
+        int returnAddress = registers.get(RegisterSet.PC);
+        registers.set(RegisterSet.L, returnAddress);
+        registers.set(RegisterSet.PC, effectiveAddress);
+        return "JSUB";
     }
 
     public String executeRSUB() {
-        int returnAddress = registers.getRegister("L").getIntValue();
+        int returnAddress = registers.get(RegisterSet.L);
         if (returnAddress == 0) {
-            registers.getRegister("PC").setValue(0);
-            String log = "RSUB: Encerrando execução (HALT).";
-            logger.info(log);
-            return log;
+            registers.set(RegisterSet.PC, 0);
+            haltRequested = true;
+            return "RSUB: Encerrando execução (HALT).";
         }
-        registers.getRegister("PC").setValue(returnAddress);
-        String log = String.format("RSUB: Retornando para %06X", returnAddress);
-        logger.info(log);
-        return log;
+        registers.set(RegisterSet.PC, returnAddress);
+        return "RSUB";
     }
 
     // ===============================================================
@@ -349,64 +235,41 @@ public class ExecutionUnit {
     // ===============================================================
 
     public String executeLDA(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("A").setValue(value);
-        String log = String.format("LDA: A ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.A, value);
+        return "LDA";
     }
 
     public String executeLDB(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("B").setValue(value);
-        String log = String.format("LDB: B ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.B, value);
+        return "LDB";
     }
 
     public String executeLDCH(int[] operands, boolean indexed, int effectiveAddress) {
         int byteValue = memory.readByte(toWordAddress(effectiveAddress));
-        Register A = registers.getRegister("A");
-        int currentA = A.getIntValue();
+        int currentA = registers.get(RegisterSet.A);
         int newA = (currentA & 0xFFFF00) | (byteValue & 0xFF);
-        A.setValue(newA);
-        String log = String.format("LDCH: A[byte] ← %02X", byteValue);
-        logger.info(log);
-        return log;
+        registers.set(RegisterSet.A, newA);
+        return "LDCH";
     }
 
     public String executeLDF(int[] operands, boolean indexed, int effectiveAddress) {
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = memory.readWord(wordAddr);
-        byte[] secondWord = memory.readWord(wordAddr + 1);
-        byte[] fBytes = new byte[6];
-        System.arraycopy(firstWord, 0, fBytes, 0, 3);
-        System.arraycopy(secondWord, 0, fBytes, 3, 3);
-        long value = bytesToLong48(fBytes);
-        registers.getRegister("F").setValue(value);
-        String log = String.format("LDF: F ← %012X", value);
-        logger.info(log);
-        return log;
+        long value = memory.readLong48(toWordAddress(effectiveAddress));
+        registers.setF(value);
+        return "LDF";
     }
 
     public String executeLDL(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("L").setValue(value);
-        String log = String.format("LDL: L ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.L, value);
+        return "LDL";
     }
 
     public String executeLDS(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("S").setValue(value);
-        String log = String.format("LDS: S ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.S, value);
+        return "LDS";
     }
 
     /**
@@ -415,20 +278,18 @@ public class ExecutionUnit {
      * Caso contrário, trata como LDX (carrega o valor da memória no registrador X).
      */
     public String executeCLEAR_LDX(Instruction instruction, int[] operands) {
+        return executeCLEAR_LDX(operands, instruction.effectiveAddress());
+    }
+
+    public String executeCLEAR_LDX(int[] operands, int effectiveAddress) {
         if (operands.length == 1) { // CLEAR
-            Register reg = getRegisterByNumber(operands[0]);
-            reg.setValue(0);
-            String log = String.format("CLEAR: R%d zerado", operands[0]);
-            logger.info(log);
-            return log;
+            int reg = registerNumber(operands[0]);
+            registers.set(reg, 0);
+            return "CLEAR";
         } else { // LDX
-            int effectiveAddress = instruction.effectiveAddress();
-            byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-            int value = Convert.bytesToInt(wordBytes);
-            registers.getRegister("X").setValue(value);
-            String log = String.format("LDX: Carregado %06X", value);
-            logger.info(log);
-            return log;
+            int value = memory.readInt24(toWordAddress(effectiveAddress));
+            registers.set(RegisterSet.X, value);
+            return "LDX";
         }
     }
 
@@ -436,44 +297,32 @@ public class ExecutionUnit {
      * Executa a operação COMP: compara o acumulador com o valor lido da memória.
      */
     public String executeCOMP(int[] operands, boolean indexed, int effectiveAddress) {
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int memValue = Convert.bytesToInt(wordBytes);
-        int comparison = A.getIntValue() - memValue;
+        int memValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int comparison = registers.get(RegisterSet.A) - memValue;
         updateConditionCode(comparison);
-        String log = String.format("COMP: A=%06X vs Mem[%06X]=%06X => %s",
-                A.getIntValue(), effectiveAddress, memValue, getConditionCodeDescription());
-        logger.info(log);
-        return log;
+        return "COMP";
     }
 
     /**
      * Executa a operação COMPR: compara dois registradores.
      */
     public String executeCOMPR(int[] operands) {
-        Register r1 = getRegisterByNumber(operands[0]);
-        Register r2 = getRegisterByNumber(operands[1]);
-        int comparison = r1.getIntValue() - r2.getIntValue();
+        int r1 = registerNumber(operands[0]);
+        int r2 = registerNumber(operands[1]);
+        int comparison = registers.get(r1) - registers.get(r2);
         updateConditionCode(comparison);
-        String log = String.format("COMPR: R%d=%06X vs R%d=%06X => %s",
-                operands[0], r1.getIntValue(), operands[1], r2.getIntValue(), getConditionCodeDescription());
-        logger.info(log);
-        return log;
+        return "COMPR";
     }
 
     /**
      * Executa a operação OR: realiza uma operação OR bit a bit entre o acumulador e o valor da memória.
      */
     public String executeOR(int[] operands, boolean indexed, int effectiveAddress) {
-        Register A = registers.getRegister("A");
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int operandValue = Convert.bytesToInt(wordBytes);
-        int result = A.getIntValue() | operandValue;
-        A.setValue(result);
+        int operandValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int result = registers.get(RegisterSet.A) | operandValue;
+        registers.set(RegisterSet.A, result);
         updateConditionCode(result);
-        String log = String.format("OR: Resultado = %06X", result);
-        logger.info(log);
-        return log;
+        return "OR";
     }
 
     /**
@@ -481,14 +330,12 @@ public class ExecutionUnit {
      * O primeiro operando indica o registrador, e o segundo a quantidade de bits.
      */
     public String executeSHIFTL(int[] operands) {
-        Register reg = getRegisterByNumber(operands[0]);
+        int reg = registerNumber(operands[0]);
         int count = operands[1];
-        int value = reg.getIntValue() << count;
-        reg.setValue(value);
+        int value = registers.get(reg) << count;
+        registers.set(reg, value);
         updateConditionCode(value);
-        String log = String.format("SHIFTL: R%d << %d = %06X", operands[0], count, value);
-        logger.info(log);
-        return log;
+        return "SHIFTL";
     }
 
     /**
@@ -496,125 +343,87 @@ public class ExecutionUnit {
      * O primeiro operando indica o registrador, e o segundo a quantidade de bits.
      */
     public String executeSHIFTR(int[] operands) {
-        Register reg = getRegisterByNumber(operands[0]);
+        int reg = registerNumber(operands[0]);
         int count = operands[1];
-        int value = reg.getIntValue() >>> count; // Deslocamento lógico
-        reg.setValue(value);
+        int value = registers.get(reg) >>> count; // Deslocamento lógico
+        registers.set(reg, value);
         updateConditionCode(value);
-        String log = String.format("SHIFTR: R%d >> %d = %06X", operands[0], count, value);
-        logger.info(log);
-        return log;
+        return "SHIFTR";
     }
 
 
     public String executeLDT(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("T").setValue(value);
-        String log = String.format("LDT: T ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.T, value);
+        return "LDT";
     }
 
     public String executeLDX(int[] operands, boolean indexed, int effectiveAddress) {
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int value = Convert.bytesToInt(wordBytes);
-        registers.getRegister("X").setValue(value);
-        String log = String.format("LDX: X ← %06X", value);
-        logger.info(log);
-        return log;
+        int value = memory.readInt24(toWordAddress(effectiveAddress));
+        registers.set(RegisterSet.X, value);
+        return "LDX";
     }
 
     public String executeLPS(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "LPS: Operação não implementada.";
-        logger.info(log);
-        return log;
+        return "LPS: Operação não implementada.";
     }
 
     public String executeSTA(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("A").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STA: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.A);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STA";
     }
 
     public String executeSTB(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("B").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STB: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.B);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STB";
     }
 
     public String executeSTCH(int[] operands, boolean indexed, int effectiveAddress) {
-        int byteValue = registers.getRegister("A").getIntValue() & 0xFF;
+        int byteValue = registers.get(RegisterSet.A) & 0xFF;
         memory.writeByte(toWordAddress(effectiveAddress),  byteValue);
-        String log = String.format("STCH: Mem[%06X] ← %02X", effectiveAddress, byteValue);
-        logger.info(log);
-        return log;
+        return "STCH";
     }
 
     public String executeSTF(int[] operands, boolean indexed, int effectiveAddress) {
-        Register F = registers.getRegister("F");
-        long fValue = F.getLongValue();
-        byte[] bytes = long48ToBytes(fValue);
-        int wordAddr = toWordAddress(effectiveAddress);
-        byte[] firstWord = new byte[3];
-        byte[] secondWord = new byte[3];
-        System.arraycopy(bytes, 0, firstWord, 0, 3);
-        System.arraycopy(bytes, 3, secondWord, 0, 3);
-        memory.writeWord(wordAddr, firstWord);
-        memory.writeWord(wordAddr + 1, secondWord);
-        String log = String.format("STF: Mem[%06X] ← %012X", effectiveAddress, fValue);
-        logger.info(log);
-        return log;
+        long fValue = registers.getF();
+        memory.writeLong48(toWordAddress(effectiveAddress), fValue);
+        return "STF";
     }
 
     public String executeSTI(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "STI: Operação de armazenamento para dispositivo não implementada.";
-        logger.info(log);
-        return log;
+        return "STI: Operação de armazenamento para dispositivo não implementada.";
     }
 
     public String executeSTL(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("L").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STL: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.L);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STL";
     }
 
     public String executeSTS(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("S").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STS: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.S);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STS";
     }
 
     public String executeSTSW(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("SW").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STSW: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.SW);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STSW";
     }
 
     public String executeSTT(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("T").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STT: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.T);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STT";
     }
 
     public String executeSTX(int[] operands, boolean indexed, int effectiveAddress) {
-        int value = registers.getRegister("X").getIntValue();
-        memory.writeWord(toWordAddress(effectiveAddress), Convert.intTo3Bytes(value));
-        String log = String.format("STX: Mem[%06X] ← %06X", effectiveAddress, value);
-        logger.info(log);
-        return log;
+        int value = registers.get(RegisterSet.X);
+        memory.writeInt24(toWordAddress(effectiveAddress), value);
+        return "STX";
     }
 
     // ===============================================================
@@ -622,79 +431,54 @@ public class ExecutionUnit {
     // ===============================================================
 
     public String executeSIO(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "SIO: Início de I/O não implementado.";
-        logger.info(log);
-        return log;
+        return "SIO: Início de I/O não implementado.";
     }
 
     public String executeSSK(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "SSK: Operação de proteção não implementada.";
-        logger.info(log);
-        return log;
+        return "SSK: Operação de proteção não implementada.";
     }
 
     public String executeRD(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "RD: Operação de leitura de dispositivo não implementada.";
-        logger.info(log);
-        return log;
+        return "RD: Operação de leitura de dispositivo não implementada.";
     }
 
     public String executeRMO(int[] operands) {
-        Register source = getRegisterByNumber(operands[0]);
-        Register dest = getRegisterByNumber(operands[1]);
-        dest.setValue(source.getIntValue());
-        String log = String.format("RMO: R%d → R%d | Valor = %06X", operands[0], operands[1], source.getIntValue());
-        logger.info(log);
-        return log;
+        int source = registerNumber(operands[0]);
+        int dest = registerNumber(operands[1]);
+        registers.set(dest, registers.get(source));
+        return "RMO";
     }
 
     public String executeTIO(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "TIO: Teste de I/O não implementado.";
-        logger.info(log);
-        return log;
+        return "TIO: Teste de I/O não implementado.";
     }
 
     public String executeTD(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "TD: Teste de dispositivo não implementado.";
-        logger.info(log);
-        return log;
+        return "TD: Teste de dispositivo não implementado.";
     }
 
     public String executeTIX(int[] operands, boolean indexed, int effectiveAddress) {
-        Register X = registers.getRegister("X");
-        X.setValue(X.getIntValue() + 1);
-        byte[] wordBytes = memory.readWord(toWordAddress(effectiveAddress));
-        int memValue = Convert.bytesToInt(wordBytes);
-        int comparison = X.getIntValue() - memValue;
+        registers.set(RegisterSet.X, registers.get(RegisterSet.X) + 1);
+        int memValue = memory.readInt24(toWordAddress(effectiveAddress));
+        int comparison = registers.get(RegisterSet.X) - memValue;
         updateConditionCode(comparison);
-        String log = String.format("TIX: X=%06X vs Mem[%06X]=%06X => %s",
-                X.getIntValue(), effectiveAddress, memValue, getConditionCodeDescription());
-        logger.info(log);
-        return log;
+        return "TIX";
     }
 
     public String executeTIXR(int[] operands) {
-        Register X = registers.getRegister("X");
-        X.setValue(X.getIntValue() + 1);
-        Register r = getRegisterByNumber(operands[0]);
-        int comparison = X.getIntValue() - r.getIntValue();
+        registers.set(RegisterSet.X, registers.get(RegisterSet.X) + 1);
+        int r = registerNumber(operands[0]);
+        int comparison = registers.get(RegisterSet.X) - registers.get(r);
         updateConditionCode(comparison);
-        String log = String.format("TIXR: X=%06X vs R%d=%06X => %s",
-                X.getIntValue(), operands[0], r.getIntValue(), getConditionCodeDescription());
-        logger.info(log);
-        return log;
+        return "TIXR";
     }
 
     public String executeSVC(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "SVC: Chamada de sistema não implementada.";
-        logger.info(log);
-        return log;
+        return "SVC: Chamada de sistema não implementada.";
     }
 
     public String executeWD(int[] operands, boolean indexed, int effectiveAddress) {
-        String log = "WD: Escrita para dispositivo não implementada.";
-        logger.info(log);
-        return log;
+        return "WD: Escrita para dispositivo não implementada.";
     }
 
     // ===============================================================
@@ -702,68 +486,49 @@ public class ExecutionUnit {
     // ===============================================================
 
     /**
-     * Atualiza a palavra de condição (SW) com base no valor calculado:
-     *  0 para igual, 1 para menor, 2 para maior.
+     * Indica se a última instrução pediu o encerramento da execução (RSUB com L = 0).
      */
-    private void updateConditionCode(int value) {
-        int cc = (value == 0) ? 0 : (value < 0 ? 1 : 2);
-        registers.getRegister("SW").setValue(cc);
+    public boolean isHaltRequested() {
+        return haltRequested;
+    }
+
+    public void clearHaltRequest() {
+        haltRequested = false;
     }
 
     /**
-     * Retorna a descrição textual do código condicional (SW).
+     * Atualiza a palavra de condição (SW) com base no valor calculado:
+     *  0 para igual, 1 para menor, 2 para maior.
      */
-    private String getConditionCodeDescription() {
-        return switch (registers.getRegister("SW").getIntValue()) {
-            case 0 -> "Igual";
-            case 1 -> "Menor";
-            case 2 -> "Maior";
-            default -> "Desconhecido";
-        };
+    private void updateConditionCode(int value) {
+        registers.set(RegisterSet.SW, conditionCode(value));
     }
 
     /**
-     * Retorna o registrador conforme o número:
-     * 0=A, 1=X, 2=L, 3=B, 4=S, 5=T.
+     * Código condicional correspondente ao valor: 0 (igual), 1 (menor) ou 2 (maior).
      */
-    private Register getRegisterByNumber(int num) {
-        return switch (num) {
-            case 0 -> registers.getRegister("A");
-            case 1 -> registers.getRegister("X");
-            case 2 -> registers.getRegister("L");
-            case 3 -> registers.getRegister("B");
-            case 4 -> registers.getRegister("S");
-            case 5 -> registers.getRegister("T");
-            default -> throw new IllegalArgumentException("Registrador inválido: " + num);
-        };
+    static int conditionCode(int value) {
+        return (value == 0) ? 0 : (value < 0 ? 1 : 2);
     }
 
     /**
-     * Converte um array de 6 bytes em um valor long (48 bits).
+     * Divisão inteira usada por DIV, com a mesma falha para divisor zero.
      */
-    private long bytesToLong48(byte[] bytes) {
-        if (bytes.length != 6) {
-            throw new IllegalArgumentException("Array deve ter 6 bytes para valor de 48 bits.");
+    static int divide(int dividend, int divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Divisão por zero");
         }
-        return ((long)(bytes[0] & 0xFF) << 40) |
-                ((long)(bytes[1] & 0xFF) << 32) |
-                ((long)(bytes[2] & 0xFF) << 24) |
-                ((long)(bytes[3] & 0xFF) << 16) |
-                ((long)(bytes[4] & 0xFF) << 8)  |
-                ((long)(bytes[5] & 0xFF));
+        return dividend / divisor;
     }
 
     /**
-     * Converte um valor long (48 bits) em um array de 6 bytes.
+     * Valida o número de registrador usado pelas operações entre registradores:
+     * 0=A, 1=X, 2=L, 3=B, 4=S, 5=T.
      */
-    private byte[] long48ToBytes(long value) {
-        byte[] bytes = new byte[6];
-        bytes[0] = (byte)((value >> 40) & 0xFF);
-        bytes[1] = (byte)((value >> 32) & 0xFF);
-        bytes[2] = (byte)((value >> 24) & 0xFF);
-        bytes[3] = (byte)((value >> 16) & 0xFF);
-        bytes[4] = (byte)((value >> 8) & 0xFF);
-        bytes[5] = (byte)(value & 0xFF);
-        return bytes;
+    private int registerNumber(int num) {
+        if (num < RegisterSet.A || num > RegisterSet.T) {
+            throw new IllegalArgumentException("Registrador inválido: " + num);
+        }
+        return num;
     }
 }
@@ -0,0 +1,25 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Falha lançada pelo tratador comum de opcodes desconhecidos ({@link InstructionSet#FAULT}).
+ */
+public class IllegalInstructionException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final int opcode;
+    private final int address;
+
+    public IllegalInstructionException(int opcode, int address) {
+        super(String.format("Instrução não implementada: opcode %02X em %06X", opcode, address));
+        this.opcode = opcode;
+        this.address = address;
+    }
+
+    public int getOpcode() {
+        return opcode;
+    }
+
+    public int getAddress() {
+        return address;
+    }
+}
@@ -0,0 +1,28 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Delimita os acessos à memória feitos pela instrução em execução, para os observadores que só
+ * devem contar esses acessos ({@link Breakpoints}, {@link Profiler}). A busca e a decodificação ficam fora
+ * da janela, e ela pertence à thread que executa: leituras de outras threads, como a interface
+ * exibindo a memória durante uma execução em segundo plano, nunca estão dentro dela.
+ */
+final class InstructionAccess {
+    // Thread que executa uma instrução, ou null. Cada thread só compara o campo consigo mesma:
+    // vê sempre a própria última escrita, e qualquer outro valor é diferente dela.
+    private Thread executing;
+
+    void begin() {
+        executing = Thread.currentThread();
+    }
+
+    void end() {
+        executing = null;
+    }
+
+    /**
+     * Indica se a thread atual está executando uma instrução.
+     */
+    boolean isInside() {
+        return executing == Thread.currentThread();
+    }
+}
@@ -3,59 +3,131 @@ package sicxesimulator.machine.cpu;
 import sicxesimulator.machine.Memory;
 import sicxesimulator.models.Instruction;
 
-public class InstructionDecoder {
+public final class InstructionDecoder {
+    private static final int[] NO_OPERANDS = new int[0];
+
     private final Memory memory;
     private final RegisterSet registers;
     private int programCounter;
 
+    // Cache de instruções decodificadas, indexado pelo endereço (em bytes) da instrução.
+    private final DecodedInstruction[] cache;
+    private long cacheHits;
+    private long cacheMisses;
+
     public InstructionDecoder(RegisterSet registers, Memory memory) {
         this.memory = memory;
         this.registers = registers;
+        this.cache = new DecodedInstruction[memory.getSize()];
+        // Escritas na memória invalidam as instruções que se sobrepõem ao trecho alterado
+        memory.addWriteListener(this::invalidate);
     }
 
     /**
      * Decodifica a instrução a partir do valor atual de PC, lendo os bytes diretamente da memória.
      */
     public Instruction decodeInstruction() {
-        // Atualiza o PC a partir dos registradores.
-        programCounter = registers.getRegister("PC").getIntValue();
-        // Lê o primeiro byte da instrução da memória (offset 0)
-        int fullByte = memory.readByte(programCounter) & 0xFF;
+        DecodedInstruction decoded = fetch();
+        return decoded.toInstruction(effectiveAddress(decoded));
+    }
 
-        // Determina o formato da instrução
-        int format = determineInstructionFormat(fullByte);
+    /**
+     * Obtém a instrução no endereço atual de PC, reaproveitando o cache quando possível.
+     * A entrada retornada é compartilhada e permanece válida até uma escrita no seu intervalo.
+     */
+    public DecodedInstruction fetch() {
+        return fetch(registers.get(RegisterSet.PC));
+    }
 
-        int opcode;
-        int[] operands;
-        boolean indexed = false;
-        int effectiveAddress = 0;
+    /**
+     * Obtém a instrução que começa no endereço informado, reaproveitando o cache quando possível.
+     */
+    public DecodedInstruction fetch(int address) {
+        if (address < cache.length) {
+            DecodedInstruction cached = cache[address];
+            if (cached != null) {
+                cacheHits++;
+                return cached;
+            }
+        }
+        cacheMisses++;
+        DecodedInstruction decoded = decodeAt(address);
+        cache[address] = decoded;
+        return decoded;
+    }
 
-        if (format == 2) {
-            // Para formato 2, o opcode é lido integralmente (não há bits n e i)
-            opcode = fullByte;
-            operands = decodeFormat2();
-        } else {
-            // Para formato 3 (ou 4, se implementado), extrai os 6 bits de opcode.
-            opcode = fullByte & 0xFC;
-            operands = decodeFormat3(); // Retorna array com [disp12, x, b, p, e]
-            indexed = (operands[1] == 1); // flag x
-            effectiveAddress = calculateEffectiveAddress(operands[0], operands[1], operands[2], operands[3], operands[4]);
+    /**
+     * Calcula o endereço efetivo (EA) de uma instrução decodificada com os valores atuais de B e X.
+     * Instruções de formato 1 e 2 não acessam a memória e têm EA igual a 0.
+     */
+    public int effectiveAddress(DecodedInstruction decoded) {
+        if (decoded.format() < 3) {
+            return 0;
+        }
+        int EA = decoded.displacement();
+        if (decoded.baseRelative()) {
+            EA = registers.get(RegisterSet.B) + EA;
+        }
+        if (decoded.indexed()) {
+            EA += registers.get(RegisterSet.X);
         }
+        return EA;
+    }
 
-        return new Instruction(opcode, operands, format, indexed,  effectiveAddress);
+    /**
+     * Descarta as instruções em cache que leem algum byte do intervalo [byteAddr, byteAddr + length).
+     * Como uma instrução ocupa até 3 bytes, entradas iniciadas até 2 bytes antes também são afetadas.
+     */
+    public void invalidate(int byteAddr, int length) {
+        int start = Math.max(0, byteAddr - 2);
+        int end = Math.min(cache.length, byteAddr + length);
+        for (int address = start; address < end; address++) {
+            cache[address] = null;
+        }
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public void resetCacheStatistics() {
+        cacheHits = 0;
+        cacheMisses = 0;
     }
 
     /**
-     * Determina o formato da instrução.
-     * Para instruções em formato 2, utiliza o byte completo; para formato 3, extrai os 6 bits de opcode.
+     * Decodifica a instrução que começa no endereço informado.
      */
-    private int determineInstructionFormat(int fullByte) {
-        // Exemplo: se o primeiro byte for 0x04 ou 0x90, consideramos formato 2.
-        if (fullByte == 0x04 || fullByte == 0x90) {
-            return 2;
+    private DecodedInstruction decodeAt(int address) {
+        programCounter = address;
+        // Lê o primeiro byte da instrução da memória (offset 0)
+        int fullByte = memory.readByte(programCounter) & 0xFF;
+
+        // Formato e rotina de execução vêm da tabela do conjunto de instruções
+        int format = InstructionSet.format(fullByte);
+        InstructionHandler handler = InstructionSet.handler(fullByte);
+
+        if (format == 1) {
+            // Formato 1 não possui operandos
+            return new DecodedInstruction(address, fullByte, format, NO_OPERANDS, false, false, 0, handler);
         }
-        // Para RSUB, o objeto no formato 3 vem como 0x4C, mas após extração teremos:
-        return 3;
+        if (format == 2) {
+            // Para formato 2, o opcode é lido integralmente (não há bits n e i)
+            return new DecodedInstruction(address, fullByte, format, decodeFormat2(), false, false, 0, handler);
+        }
+
+        // Para formato 3 (ou 4, se implementado), extrai os 6 bits de opcode.
+        int opcode = fullByte & 0xFC;
+        int[] operands = decodeFormat3(); // Retorna array com [disp12, x, b, p, e]
+        boolean indexed = (operands[1] == 1); // flag x
+        boolean pcRelative = operands[3] == 1;
+        boolean baseRelative = !pcRelative && operands[2] == 1;
+        int displacement = calculateDisplacement(operands[0], pcRelative);
+        return new DecodedInstruction(address, opcode, format, operands, indexed, baseRelative, displacement, handler);
     }
 
     /**
@@ -94,26 +166,20 @@ public class InstructionDecoder {
     }
 
     /**
-     * Calcula o endereço efetivo (EA) a partir do deslocamento e dos bits de modo.
-     * - Se p == 1 (PC-relativo): EA = (PC_original + 3) + disp12 (convertido para valor com sinal)
-     * - Se b == 1 (base-relativo): EA = (valor do registrador B) + disp12
-     * - Caso contrário: EA = disp12 (endereço absoluto)
-     * Se o flag indexado (x) estiver ativo, soma o valor do registrador X.
+     * Calcula a parte estática do endereço efetivo a partir do deslocamento.
+     * - Se p == 1 (PC-relativo): (PC_original + 3) + disp12 (convertido para valor com sinal)
+     * - Caso contrário: disp12 com sinal; o registrador B (se b == 1) e o registrador X (se x == 1)
+     *   são somados na execução, em {@link #effectiveAddress(DecodedInstruction)}.
      */
-    private int calculateEffectiveAddress(int disp12, int x, int b, int p, int ignoredE) {
-        int EA = disp12;
+    private int calculateDisplacement(int disp12, boolean pcRelative) {
+        int displacement = disp12;
         // Converte o deslocamento de 12 bits para um valor com sinal
         if ((disp12 & 0x800) != 0) { // se o bit 11 está setado
-            EA = disp12 - 0x1000;
+            displacement = disp12 - 0x1000;
         }
-        if (p == 1) {
-            EA = (programCounter + 3) + EA;
-        } else if (b == 1) {
-            EA = registers.getRegister("B").getIntValue() + EA;
+        if (pcRelative) {
+            displacement = (programCounter + 3) + displacement;
         }
-        if (x == 1) {
-            EA += registers.getRegister("X").getIntValue();
-        }
-        return EA;
+        return displacement;
     }
 }
@@ -0,0 +1,11 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Rotina de execução de uma instrução, selecionada pela tabela de {@link InstructionSet}.
+ * Retorna uma descrição curta e constante (em geral o mnemônico); o texto detalhado da
+ * execução é montado sob demanda a partir do {@link ExecutionTrace}.
+ */
+@FunctionalInterface
+public interface InstructionHandler {
+    String execute(ExecutionUnit unit, DecodedInstruction instruction, int effectiveAddress);
+}
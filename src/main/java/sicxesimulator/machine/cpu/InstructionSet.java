@@ -0,0 +1,182 @@
+package sicxesimulator.machine.cpu;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Descrição única do conjunto de instruções executado pela máquina.
+ * A partir dela são montadas, uma única vez, tabelas de 256 posições indexadas pelo primeiro
+ * byte bruto da instrução: formato de decodificação, mnemônico e rotina de execução.
+ *
+ * Toda instrução ocupa as quatro posições opcode..opcode|3 (todas as combinações dos bits
+ * n e i), qualquer que seja o formato. A posição do próprio opcode (n = i = 0) é decodificada
+ * no formato da instrução no SIC/XE (1, 2 ou 3); as outras três, no leiaute do formato 3, que
+ * é o que o montador gera para toda instrução (palavra de 3 bytes com n = i = 1). Assim o código
+ * montado de qualquer mnemônico é executado pela mesma rotina que a codificação do SIC/XE.
+ * A única exceção é o byte 0x04, compartilhado por CLEAR e LDX (ver abaixo).
+ * Posições não descritas apontam para o tratador comum {@link #FAULT}.
+ */
+public final class InstructionSet {
+    private static final InstructionHandler[] HANDLERS = new InstructionHandler[256];
+    private static final String[] MNEMONICS = new String[256];
+    private static final int[] FORMATS = new int[256];
+    private static final boolean[] BRANCHES = new boolean[256];
+    private static final Map<String, Integer> OPCODES = new LinkedHashMap<>();
+
+    /**
+     * Tratador comum de opcodes desconhecidos.
+     */
+    public static final InstructionHandler FAULT = (unit, instruction, effectiveAddress) -> {
+        throw new IllegalInstructionException(instruction.opcode(), instruction.address());
+    };
+
+    static {
+        Arrays.fill(HANDLERS, FAULT);
+
+        // Aritméticas e lógicas
+        define("ADD", 0x18, 3, (u, i, ea) -> u.executeADD(i.operands(), i.indexed(), ea));
+        define("AND", 0x40, 3, (u, i, ea) -> u.executeAND(i.operands(), i.indexed(), ea));
+        define("COMP", 0x28, 3, (u, i, ea) -> u.executeCOMP(i.operands(), i.indexed(), ea));
+        define("DIV", 0x24, 3, (u, i, ea) -> u.executeDIV(i.operands(), i.indexed(), ea));
+        define("MUL", 0x20, 3, (u, i, ea) -> u.executeMUL(i.operands(), i.indexed(), ea));
+        define("OR", 0x44, 3, (u, i, ea) -> u.executeOR(i.operands(), i.indexed(), ea));
+        define("SUB", 0x1C, 3, (u, i, ea) -> u.executeSUB(i.operands(), i.indexed(), ea));
+        define("TIX", 0x2C, 3, (u, i, ea) -> u.executeTIX(i.operands(), i.indexed(), ea));
+
+        // Operações entre registradores
+        define("ADDR", 0x90, 2, (u, i, ea) -> u.executeADDR(i.operands()));
+        define("COMPR", 0xA0, 2, (u, i, ea) -> u.executeCOMPR(i.operands()));
+        define("DIVR", 0x9C, 2, (u, i, ea) -> u.executeDIVR(i.operands()));
+        define("MULR", 0x98, 2, (u, i, ea) -> u.executeMULR(i.operands()));
+        define("RMO", 0xAC, 2, (u, i, ea) -> u.executeRMO(i.operands()));
+        define("SHIFTL", 0xA4, 2, (u, i, ea) -> u.executeSHIFTL(i.operands()));
+        define("SHIFTR", 0xA8, 2, (u, i, ea) -> u.executeSHIFTR(i.operands()));
+        define("SUBR", 0x94, 2, (u, i, ea) -> u.executeSUBR(i.operands()));
+        define("TIXR", 0xB8, 2, (u, i, ea) -> u.executeTIXR(i.operands()));
+
+        // Ponto flutuante
+        define("ADDF", 0x58, 3, (u, i, ea) -> u.executeADDF(i.operands(), i.indexed(), ea));
+        define("COMPF", 0x88, 3, (u, i, ea) -> u.executeCOMPF(i.operands(), i.indexed(), ea));
+        define("DIVF", 0x64, 3, (u, i, ea) -> u.executeDIVF(i.operands(), i.indexed(), ea));
+        define("MULF", 0x60, 3, (u, i, ea) -> u.executeMULF(i.operands(), i.indexed(), ea));
+        define("SUBF", 0x5C, 3, (u, i, ea) -> u.executeSUBF(i.operands(), i.indexed(), ea));
+        define("FIX", 0xC4, 1, (u, i, ea) -> u.executeFIX());
+        define("FLOAT", 0xC0, 1, (u, i, ea) -> u.executeFLOAT());
+        define("NORM", 0xC8, 1, (u, i, ea) -> u.executeNORM());
+
+        // Saltos e sub-rotinas
+        defineBranch("J", 0x3C, 3, (u, i, ea) -> u.executeJ(i.operands(), i.indexed(), ea));
+        defineBranch("JEQ", 0x30, 3, (u, i, ea) -> u.executeJEQ(i.operands(), i.indexed(), ea));
+        defineBranch("JGT", 0x34, 3, (u, i, ea) -> u.executeJGT(i.operands(), i.indexed(), ea));
+        defineBranch("JLT", 0x38, 3, (u, i, ea) -> u.executeJLT(i.operands(), i.indexed(), ea));
+        defineBranch("JSUB", 0x48, 3, (u, i, ea) -> u.executeJSUB(i.operands(), i.indexed(), ea));
+        defineBranch("RSUB", 0x4C, 3, (u, i, ea) -> u.executeRSUB());
+
+        // Carga
+        define("LDA", 0x00, 3, (u, i, ea) -> u.executeLDA(i.operands(), i.indexed(), ea));
+        define("LDB", 0x68, 3, (u, i, ea) -> u.executeLDB(i.operands(), i.indexed(), ea));
+        define("LDCH", 0x50, 3, (u, i, ea) -> u.executeLDCH(i.operands(), i.indexed(), ea));
+        define("LDF", 0x70, 3, (u, i, ea) -> u.executeLDF(i.operands(), i.indexed(), ea));
+        define("LDL", 0x08, 3, (u, i, ea) -> u.executeLDL(i.operands(), i.indexed(), ea));
+        define("LDS", 0x6C, 3, (u, i, ea) -> u.executeLDS(i.operands(), i.indexed(), ea));
+        define("LDT", 0x74, 3, (u, i, ea) -> u.executeLDT(i.operands(), i.indexed(), ea));
+        define("LDX", 0x04, 3, (u, i, ea) -> u.executeLDX(i.operands(), i.indexed(), ea));
+        // O montador mapeia CLEAR e LDX para 0x04: o byte 0x04 (n = i = 0) é decodificado como
+        // formato 2, e as variantes 0x05..0x07 continuam sendo LDX
+        defineExact("CLEAR", 0x04, 2, (u, i, ea) -> u.executeCLEAR_LDX(i.operands(), ea));
+        define("LPS", 0xD0, 3, (u, i, ea) -> u.executeLPS(i.operands(), i.indexed(), ea));
+
+        // Armazenamento
+        define("STA", 0x0C, 3, (u, i, ea) -> u.executeSTA(i.operands(), i.indexed(), ea));
+        define("STB", 0x78, 3, (u, i, ea) -> u.executeSTB(i.operands(), i.indexed(), ea));
+        define("STCH", 0x54, 3, (u, i, ea) -> u.executeSTCH(i.operands(), i.indexed(), ea));
+        define("STF", 0x80, 3, (u, i, ea) -> u.executeSTF(i.operands(), i.indexed(), ea));
+        define("STI", 0xD4, 3, (u, i, ea) -> u.executeSTI(i.operands(), i.indexed(), ea));
+        define("STL", 0x14, 3, (u, i, ea) -> u.executeSTL(i.operands(), i.indexed(), ea));
+        define("STS", 0x7C, 3, (u, i, ea) -> u.executeSTS(i.operands(), i.indexed(), ea));
+        define("STSW", 0xE8, 3, (u, i, ea) -> u.executeSTSW(i.operands(), i.indexed(), ea));
+        define("STT", 0x84, 3, (u, i, ea) -> u.executeSTT(i.operands(), i.indexed(), ea));
+        define("STX", 0x10, 3, (u, i, ea) -> u.executeSTX(i.operands(), i.indexed(), ea));
+
+        // E/S e controle do sistema
+        define("RD", 0xD8, 3, (u, i, ea) -> u.executeRD(i.operands(), i.indexed(), ea));
+        define("SSK", 0xEC, 3, (u, i, ea) -> u.executeSSK(i.operands(), i.indexed(), ea));
+        define("TD", 0xE0, 3, (u, i, ea) -> u.executeTD(i.operands(), i.indexed(), ea));
+        define("WD", 0xDC, 3, (u, i, ea) -> u.executeWD(i.operands(), i.indexed(), ea));
+        define("SVC", 0xB0, 2, (u, i, ea) -> u.executeSVC(i.operands(), i.indexed(), ea));
+        define("SIO", 0xF0, 1, (u, i, ea) -> u.executeSIO(i.operands(), i.indexed(), ea));
+        define("TIO", 0xF8, 1, (u, i, ea) -> u.executeTIO(i.operands(), i.indexed(), ea));
+    }
+
+    // Impede a instanciação
+    private InstructionSet() { }
+
+    private static void define(String mnemonic, int opcode, int format, InstructionHandler handler) {
+        for (int firstByte = opcode; firstByte < opcode + 4; firstByte++) {
+            HANDLERS[firstByte] = handler;
+            MNEMONICS[firstByte] = mnemonic;
+            // Só a codificação do SIC/XE (n = i = 0) usa o formato 1 ou 2
+            FORMATS[firstByte] = firstByte == opcode ? format : 3;
+        }
+        OPCODES.put(mnemonic, opcode);
+    }
+
+    // Ocupa apenas a posição do próprio opcode, sobrepondo a instrução que a ocupava
+    private static void defineExact(String mnemonic, int opcode, int format, InstructionHandler handler) {
+        HANDLERS[opcode] = handler;
+        MNEMONICS[opcode] = mnemonic;
+        FORMATS[opcode] = format;
+        OPCODES.put(mnemonic, opcode);
+    }
+
+    // Instruções que alteram o PC: encerram um bloco básico
+    private static void defineBranch(String mnemonic, int opcode, int format, InstructionHandler handler) {
+        define(mnemonic, opcode, format, handler);
+        for (int firstByte = opcode; firstByte < opcode + 4; firstByte++) {
+            BRANCHES[firstByte] = true;
+        }
+    }
+
+    /**
+     * Retorna a rotina de execução para o primeiro byte bruto da instrução.
+     */
+    public static InstructionHandler handler(int firstByte) {
+        return HANDLERS[firstByte & 0xFF];
+    }
+
+    /**
+     * Retorna o formato de decodificação do primeiro byte bruto. Bytes desconhecidos
+     * são decodificados no leiaute do formato 3 e executados por {@link #FAULT}.
+     */
+    public static int format(int firstByte) {
+        int format = FORMATS[firstByte & 0xFF];
+        return format != 0 ? format : 3;
+    }
+
+    /**
+     * Retorna o mnemônico do primeiro byte bruto, ou null se o opcode for desconhecido.
+     */
+    public static String mnemonic(int firstByte) {
+        return MNEMONICS[firstByte & 0xFF];
+    }
+
+    /**
+     * Indica se o primeiro byte bruto é de uma instrução de desvio (J, JEQ, JGT, JLT, JSUB, RSUB).
+     */
+    public static boolean isBranch(int firstByte) {
+        return BRANCHES[firstByte & 0xFF];
+    }
+
+    public static boolean isDefined(int firstByte) {
+        return MNEMONICS[firstByte & 0xFF] != null;
+    }
+
+    /**
+     * Retorna os mnemônicos descritos e seus opcodes (com n = i = 0), na ordem da descrição.
+     */
+    public static Map<String, Integer> opcodes() {
+        return Collections.unmodifiableMap(OPCODES);
+    }
+}
@@ -0,0 +1,243 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+import sicxesimulator.models.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Perfilador de execução: conta quantas vezes cada endereço foi executado, quantas vezes
+ * cada opcode apareceu e quantas leituras e escritas cada endereço de memória recebeu.
+ *
+ * Leituras e escritas contam apenas os acessos a dados da instrução em execução, delimitados
+ * como nos pontos de observação ({@link InstructionAccess}): a busca da instrução, que depende
+ * do cache de decodificação, e as leituras da interface ou do rastro não entram na contagem.
+ *
+ * Os contadores são arrays primitivos indexados pelo endereço em bytes, alocados apenas
+ * na primeira vez em que o perfilador é habilitado. Desabilitado, ele não observa leituras
+ * nem escritas e o custo se resume a uma verificação por instrução em
+ * {@link ControlUnit#step()}.
+ */
+public class Profiler {
+
+    /**
+     * Endereço executado e o número de execuções.
+     *
+     * @param address   Endereço (em bytes) da instrução
+     * @param count     Número de execuções
+     * @param firstByte Primeiro byte da instrução (opcode com os bits n e i)
+     */
+    public record HotSpot(int address, long count, int firstByte) {
+        public String mnemonic() {
+            return mnemonicOf(firstByte);
+        }
+    }
+
+    private final Memory memory;
+    private final InstructionAccess access;
+    private final Memory.ReadListener readListener = this::onRead;
+    private final Memory.WriteListener writeListener = this::onWrite;
+    // Alocados ao habilitar; null enquanto o perfilador nunca foi usado
+    private long[] executions;
+    private byte[] firstBytes;
+    private long[] reads;
+    private long[] writes;
+    private final long[] opcodes = new long[256];
+    private long totalInstructions;
+    private boolean enabled;
+
+    Profiler(Memory memory, InstructionAccess access) {
+        this.memory = memory;
+        this.access = access;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Liga ou desliga a coleta. Os contadores são mantidos até {@link #reset()}.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            if (executions == null) {
+                executions = new long[memory.getSize()];
+                firstBytes = new byte[memory.getSize()];
+                reads = new long[memory.getSize()];
+                writes = new long[memory.getSize()];
+            }
+            memory.addReadListener(readListener);
+            memory.addWriteListener(writeListener);
+        } else {
+            memory.removeReadListener(readListener);
+            memory.removeWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * Zera todos os contadores.
+     */
+    public void reset() {
+        if (executions != null) {
+            Arrays.fill(executions, 0);
+            Arrays.fill(firstBytes, (byte) 0);
+            Arrays.fill(reads, 0);
+            Arrays.fill(writes, 0);
+        }
+        Arrays.fill(opcodes, 0);
+        totalInstructions = 0;
+    }
+
+    /**
+     * Registra a execução de uma instrução concluída.
+     */
+    void recordExecution(DecodedInstruction instruction) {
+        int firstByte = firstByte(instruction);
+        executions[instruction.address()]++;
+        firstBytes[instruction.address()] = (byte) firstByte;
+        opcodes[firstByte]++;
+        totalInstructions++;
+    }
+
+    public long getTotalInstructions() {
+        return totalInstructions;
+    }
+
+    public long getExecutions(int address) {
+        return executions != null ? executions[address] : 0;
+    }
+
+    /**
+     * Número de execuções do opcode; instruções de formato 3 são contadas em opcode | 0x03.
+     */
+    public long getOpcodeCount(int firstByte) {
+        return opcodes[firstByte & 0xFF];
+    }
+
+    public long getReads(int address) {
+        return reads != null ? reads[address] : 0;
+    }
+
+    public long getWrites(int address) {
+        return writes != null ? writes[address] : 0;
+    }
+
+    /**
+     * Retorna os endereços mais executados, do mais para o menos frequente.
+     * @param limit Número máximo de endereços retornados
+     */
+    public List<HotSpot> hotSpots(int limit) {
+        List<HotSpot> spots = new ArrayList<>();
+        if (executions == null) {
+            return spots;
+        }
+        for (int address = 0; address < executions.length; address++) {
+            if (executions[address] > 0) {
+                spots.add(new HotSpot(address, executions[address], firstBytes[address] & 0xFF));
+            }
+        }
+        spots.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return spots.size() > limit ? spots.subList(0, limit) : spots;
+    }
+
+    /**
+     * Monta o relatório com os pontos quentes, o histograma de opcodes e os endereços de
+     * memória mais acessados. Os endereços são nomeados pelo rótulo mais próximo da tabela
+     * de símbolos (que guarda endereços em palavras), no formato ROTULO+deslocamento.
+     * @param symbols Tabela de símbolos do programa, ou null para mostrar apenas endereços
+     * @param limit   Número máximo de linhas em cada seção
+     */
+    public String report(SymbolTable symbols, int limit) {
+        TreeMap<Integer, String> labels = labelsByAddress(symbols);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Instruções executadas: %d%n", totalInstructions));
+
+        sb.append(String.format("%nPontos quentes:%n"));
+        sb.append(String.format("  %-8s %-16s %-9s %12s %8s%n", "Endereço", "Rótulo", "Instrução", "Execuções", "%"));
+        for (HotSpot spot : hotSpots(limit)) {
+            sb.append(String.format("  %06X   %-16s %-9s %12d %7.2f%%%n", spot.address(),
+                    label(labels, spot.address()), spot.mnemonic(), spot.count(), percent(spot.count())));
+        }
+
+        sb.append(String.format("%nHistograma de opcodes:%n"));
+        Integer[] order = new Integer[opcodes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(opcodes[b], opcodes[a]));
+        for (int i = 0; i < order.length && i < limit && opcodes[order[i]] > 0; i++) {
+            long count = opcodes[order[i]];
+            sb.append(String.format("  %-8s %12d %7.2f%%%n", mnemonicOf(order[i]), count, percent(count)));
+        }
+
+        sb.append(String.format("%nAcessos à memória:%n"));
+        sb.append(String.format("  %-8s %-16s %12s %12s%n", "Endereço", "Rótulo", "Leituras", "Escritas"));
+        List<Integer> accessed = new ArrayList<>();
+        for (int address = 0; reads != null && address < reads.length; address++) {
+            if (reads[address] > 0 || writes[address] > 0) {
+                accessed.add(address);
+            }
+        }
+        accessed.sort((a, b) -> Long.compare(reads[b] + writes[b], reads[a] + writes[a]));
+        for (int address : accessed.subList(0, Math.min(limit, accessed.size()))) {
+            sb.append(String.format("  %06X   %-16s %12d %12d%n", address, label(labels, address),
+                    reads[address], writes[address]));
+        }
+        return sb.toString();
+    }
+
+    private double percent(long count) {
+        return totalInstructions == 0 ? 0 : 100.0 * count / totalInstructions;
+    }
+
+    private static TreeMap<Integer, String> labelsByAddress(SymbolTable symbols) {
+        TreeMap<Integer, String> labels = new TreeMap<>();
+        if (symbols == null) {
+            return labels;
+        }
+        // Com dois símbolos no mesmo endereço (ex.: nome do programa e primeiro rótulo), vale o menor nome
+        symbols.getSymbols().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> labels.putIfAbsent(entry.getValue() * 3, entry.getKey()));
+        return labels;
+    }
+
+    private static String label(TreeMap<Integer, String> labels, int address) {
+        Map.Entry<Integer, String> entry = labels.floorEntry(address);
+        if (entry == null) {
+            return "";
+        }
+        int offset = address - entry.getKey();
+        return offset == 0 ? entry.getValue() : entry.getValue() + "+" + offset;
+    }
+
+    private static String mnemonicOf(int firstByte) {
+        String mnemonic = InstructionSet.mnemonic(firstByte);
+        return mnemonic != null ? mnemonic : String.format("?%02X", firstByte);
+    }
+
+    // Instruções de formato 3 são agrupadas pelas quatro combinações dos bits n e i
+    private static int firstByte(DecodedInstruction instruction) {
+        return instruction.format() >= 3 ? instruction.opcode() | 0x03 : instruction.opcode();
+    }
+
+    private void onRead(int byteAddr, int length) {
+        if (access.isInside()) {
+            reads[byteAddr]++;
+        }
+    }
+
+    private void onWrite(int byteAddr, int length) {
+        if (access.isInside()) {
+            writes[byteAddr]++;
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package sicxesimulator.machine.cpu;
 
 public class Register {
+	private final RegisterSet owner;
 	private final String name;
-	private long value;
+	private final int number;
 	private final int size; // Tamanho em bits: 24 (padrão) ou 48 para o registrador F
 
 	// Registradores válidos e seus tamanhos
@@ -49,13 +50,22 @@ public class Register {
 
 	 */
 
+	/**
+	 * Cria um registrador avulso, com armazenamento próprio (fora do banco da máquina).
+	 */
 	public Register(String name) {
-		if (!isValidName(name)) {
-			throw new IllegalArgumentException("Registrador inválido: " + name);
-		}
+		this(new RegisterSet(), name, validNumber(name));
+	}
+
+	/**
+	 * Visão nomeada de um registrador do banco {@link RegisterSet}; o valor é lido e
+	 * escrito diretamente no array do banco.
+	 */
+	Register(RegisterSet owner, String name, int number) {
+		this.owner = owner;
 		this.name = name;
-		this.size = name.equals("F") ? 48 : 24;
-		this.value = 0; // Inicializa com zero
+		this.number = number;
+		this.size = number == RegisterSet.F ? 48 : 24;
 	}
 
 	// ================ GETTERS ================
@@ -63,38 +73,64 @@ public class Register {
 		return name;
 	}
 
+	public int getNumber() {
+		return number;
+	}
+
 	public int getIntValue() {
 		if (size == 48) {
 			throw new IllegalStateException("O registrador F é de 48 bits. Use getLongValue().");
 		}
-		return (int) (value & 0xFFFFFF);
+		return owner.get(number);
 	}
 
 	public long getLongValue() {
 		if (size != 48) {
 			throw new IllegalStateException("Esse registrador não é de 48 bits. Use getIntValue().");
 		}
-		return value & 0xFFFFFFFFFFFFL;
+		return owner.getF();
 	}
 
 
 	// ================ SETTERS ================
 	public void setValue(long newValue) {
 		if (size == 24) {
-			this.value = newValue & 0xFFFFFF; // Mantém 24 bits
+			owner.set(number, (int) newValue); // Mantém 24 bits
 		} else {
-			this.value = newValue & 0xFFFFFFFFFFFFL; // Mantém 48 bits
+			owner.setF(newValue); // Mantém 48 bits
 		}
 	}
 
-	public void clearRegister() { value = 0;}
+	public void clearRegister() {
+		setValue(0);
+	}
 
 	// ================ AUXILIARES ================
 
-	private boolean isValidName(String name) {
-		for (String validName : VALID_REGISTERS) {
-			if (validName.equals(name)) return true;
+	/**
+	 * Retorna o número SIC/XE do registrador, ou -1 se o nome for inválido.
+	 */
+	public static int numberOf(String name) {
+		if (name == null) return -1;
+		return switch (name) {
+			case "A" -> RegisterSet.A;
+			case "X" -> RegisterSet.X;
+			case "L" -> RegisterSet.L;
+			case "B" -> RegisterSet.B;
+			case "S" -> RegisterSet.S;
+			case "T" -> RegisterSet.T;
+			case "F" -> RegisterSet.F;
+			case "PC" -> RegisterSet.PC;
+			case "SW" -> RegisterSet.SW;
+			default -> -1;
+		};
+	}
+
+	private static int validNumber(String name) {
+		int number = numberOf(name);
+		if (number < 0) {
+			throw new IllegalArgumentException("Registrador inválido: " + name);
 		}
-		return false;
+		return number;
 	}
 }
\ No newline at end of file
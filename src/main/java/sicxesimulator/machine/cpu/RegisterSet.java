@@ -1,33 +1,89 @@
 package sicxesimulator.machine.cpu;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 
-public class RegisterSet {
-    protected final Map<String, Register> registers = new HashMap<>();
+/**
+ * Banco de registradores da máquina.
+ * Os valores ficam em um array de inteiros indexado pelo número SIC/XE do registrador
+ * (A=0, X=1, L=2, B=3, S=4, T=5, PC=8, SW=9); o registrador F (número 6, 48 bits) é
+ * mantido à parte em um long. O acesso por nome ({@link #getRegister(String)}) é apenas
+ * uma camada de compatibilidade para a interface e os testes.
+ */
+public final class RegisterSet {
+    public static final int A = 0;
+    public static final int X = 1;
+    public static final int L = 2;
+    public static final int B = 3;
+    public static final int S = 4;
+    public static final int T = 5;
+    public static final int F = 6;
+    public static final int PC = 8;
+    public static final int SW = 9;
+
+    private static final int MASK_24 = 0xFFFFFF;
+    private static final long MASK_48 = 0xFFFFFFFFFFFFL;
+
+    // Valores de 24 bits, sempre armazenados já mascarados (0..FFFFFF)
+    private final int[] values = new int[10];
+    private long f;
+
+    // Visões nomeadas, criadas uma única vez e indexadas pelo número do registrador
+    private final Register[] views = new Register[10];
+    private final List<Register> allRegisters;
 
     public RegisterSet() {
-        registers.put("A", new Register("A"));
-        registers.put("X", new Register("X"));
-        registers.put("L", new Register("L"));
-        registers.put("B", new Register("B"));
-        registers.put("S", new Register("S"));
-        registers.put("T", new Register("T"));
-        registers.put("F", new Register("F"));
-        registers.put("PC", new Register("PC"));
-        registers.put("SW", new Register("SW"));
+        for (String name : Register.VALID_REGISTERS) {
+            int number = Register.numberOf(name);
+            views[number] = new Register(this, name, number);
+        }
+        allRegisters = List.of(views[A], views[X], views[L], views[B], views[S],
+                views[T], views[F], views[PC], views[SW]);
+    }
+
+    /**
+     * Lê o valor (24 bits, sem sinal) do registrador de número informado.
+     */
+    public int get(int number) {
+        return values[number];
+    }
+
+    /**
+     * Escreve o valor no registrador de número informado, mantendo apenas 24 bits.
+     */
+    public void set(int number, int value) {
+        values[number] = value & MASK_24;
+    }
+
+    public long getF() {
+        return f;
+    }
+
+    public void setF(long value) {
+        f = value & MASK_48;
     }
 
     public Register getRegister(String name) {
-        return registers.get(name);
+        int number = Register.numberOf(name);
+        return number < 0 ? null : views[number];
+    }
+
+    /**
+     * Retorna a visão nomeada do registrador de número informado, ou null se o número não existir.
+     */
+    public Register getRegister(int number) {
+        return number >= 0 && number < views.length ? views[number] : null;
     }
 
     public void clearAll() {
-        registers.values().forEach(Register::clearRegister);
+        Arrays.fill(values, 0);
+        f = 0;
     }
 
-    public Collection<Register> getAllRegisters() {
-        return this.registers.values();
+    /**
+     * Retorna os registradores na ordem dos seus números (A, X, L, B, S, T, F, PC, SW).
+     */
+    public List<Register> getAllRegisters() {
+        return allRegisters;
     }
 }
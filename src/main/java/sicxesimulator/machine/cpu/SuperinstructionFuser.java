@@ -0,0 +1,216 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.util.Arrays;
+
+/**
+ * Reconhece, na compilação de blocos básicos, sequências frequentes de instruções e as
+ * executa como uma única operação ("superinstrução").
+ *
+ * O resultado é idêntico ao da execução instrução a instrução: registradores, SW e PC
+ * seguem {@link ExecutionUnit}. Se uma das instruções falhar, o PC fica com o endereço da
+ * instrução seguinte à que falhou, como no ciclo de {@link ControlUnit#step()}.
+ */
+public class SuperinstructionFuser {
+
+    /**
+     * Sequências reconhecidas.
+     */
+    public enum Idiom {
+        /** LDA x / ADD y / STA z */
+        LOAD_ADD_STORE,
+        /** TIX limite / JLT laço */
+        TIX_JLT,
+        /** LDCH origem,X / STCH destino,X / TIXR r / JLT laço */
+        COPY_BYTE_LOOP
+    }
+
+    private static final int MASK_24 = 0xFFFFFF;
+
+    private final Memory memory;
+    private final RegisterSet registers;
+    private final long[] hits = new long[Idiom.values().length];
+
+    public SuperinstructionFuser(Memory memory, RegisterSet registers) {
+        this.memory = memory;
+        this.registers = registers;
+    }
+
+    /**
+     * Número de vezes que a sequência foi executada de forma fundida.
+     */
+    public long getHits(Idiom idiom) {
+        return hits[idiom.ordinal()];
+    }
+
+    public void resetHits() {
+        Arrays.fill(hits, 0);
+    }
+
+    /**
+     * Verifica se há uma sequência conhecida a partir de instructions[index].
+     * @return O número de instruções da sequência, ou 0 se não houver.
+     */
+    int match(DecodedInstruction[] instructions, int index) {
+        Idiom idiom = idiomAt(instructions, index);
+        return idiom == null ? 0 : length(idiom);
+    }
+
+    /**
+     * Compila a sequência reconhecida por {@link #match} a partir de instructions[index].
+     */
+    CompiledInstruction fuse(DecodedInstruction[] instructions, int index) {
+        Idiom idiom = idiomAt(instructions, index);
+        if (idiom == null) {
+            throw new IllegalArgumentException("Nenhuma sequência conhecida em " + index);
+        }
+        return switch (idiom) {
+            case LOAD_ADD_STORE -> loadAddStore(instructions[index], instructions[index + 1], instructions[index + 2]);
+            case TIX_JLT -> tixJlt(instructions[index], instructions[index + 1]);
+            case COPY_BYTE_LOOP -> copyByteLoop(instructions[index], instructions[index + 1],
+                    instructions[index + 2], instructions[index + 3]);
+        };
+    }
+
+    private static int length(Idiom idiom) {
+        return switch (idiom) {
+            case LOAD_ADD_STORE -> 3;
+            case TIX_JLT -> 2;
+            case COPY_BYTE_LOOP -> 4;
+        };
+    }
+
+    private static Idiom idiomAt(DecodedInstruction[] instructions, int index) {
+        if (is(instructions, index, "LDA") && is(instructions, index + 1, "ADD") && is(instructions, index + 2, "STA")) {
+            return Idiom.LOAD_ADD_STORE;
+        }
+        if (is(instructions, index, "TIX") && is(instructions, index + 1, "JLT")) {
+            return Idiom.TIX_JLT;
+        }
+        if (is(instructions, index, "LDCH") && is(instructions, index + 1, "STCH")
+                && is(instructions, index + 2, "TIXR") && is(instructions, index + 3, "JLT")
+                // Registrador inválido em TIXR: deixa a falha para a execução normal
+                && instructions[index + 2].operands()[0] <= RegisterSet.T) {
+            return Idiom.COPY_BYTE_LOOP;
+        }
+        return null;
+    }
+
+    private static boolean is(DecodedInstruction[] instructions, int index, String mnemonic) {
+        if (index >= instructions.length || instructions[index].format() < 3) {
+            return false;
+        }
+        return mnemonic.equals(InstructionSet.mnemonic(instructions[index].opcode() | 0x03));
+    }
+
+    // ================ SEQUÊNCIAS FUNDIDAS ================
+
+    private CompiledInstruction loadAddStore(DecodedInstruction load, DecodedInstruction add, DecodedInstruction store) {
+        Memory mem = memory;
+        RegisterSet regs = registers;
+        long[] counters = hits;
+        int afterLoad = next(load);
+        int afterAdd = next(add);
+        int afterStore = next(store);
+        return () -> {
+            counters[Idiom.LOAD_ADD_STORE.ordinal()]++;
+            int pc = afterLoad;
+            try {
+                regs.set(RegisterSet.A, mem.readInt24(ExecutionUnit.toWordAddress(effectiveAddress(regs, load))));
+                pc = afterAdd;
+                int result = regs.get(RegisterSet.A) + mem.readInt24(ExecutionUnit.toWordAddress(effectiveAddress(regs, add)));
+                regs.set(RegisterSet.A, result);
+                regs.set(RegisterSet.SW, ExecutionUnit.conditionCode(result));
+                pc = afterStore;
+                mem.writeInt24(ExecutionUnit.toWordAddress(effectiveAddress(regs, store)), regs.get(RegisterSet.A));
+            } catch (RuntimeException e) {
+                regs.set(RegisterSet.PC, pc);
+                throw e;
+            }
+            regs.set(RegisterSet.PC, afterStore);
+            return 3;
+        };
+    }
+
+    private CompiledInstruction tixJlt(DecodedInstruction tix, DecodedInstruction jlt) {
+        Memory mem = memory;
+        RegisterSet regs = registers;
+        long[] counters = hits;
+        int afterTix = next(tix);
+        int afterJlt = next(jlt);
+        return () -> {
+            counters[Idiom.TIX_JLT.ordinal()]++;
+            // O endereço de TIX usa X antes do incremento
+            int address = effectiveAddress(regs, tix);
+            regs.set(RegisterSet.X, regs.get(RegisterSet.X) + 1);
+            int limit;
+            try {
+                limit = mem.readInt24(ExecutionUnit.toWordAddress(address));
+            } catch (RuntimeException e) {
+                regs.set(RegisterSet.PC, afterTix);
+                throw e;
+            }
+            int cc = ExecutionUnit.conditionCode(regs.get(RegisterSet.X) - limit);
+            regs.set(RegisterSet.SW, cc);
+            regs.set(RegisterSet.PC, cc == 1 ? effectiveAddress(regs, jlt) : afterJlt);
+            return 2;
+        };
+    }
+
+    private CompiledInstruction copyByteLoop(DecodedInstruction load, DecodedInstruction store,
+                                             DecodedInstruction tixr, DecodedInstruction jlt) {
+        Memory mem = memory;
+        RegisterSet regs = registers;
+        long[] counters = hits;
+        int afterLoad = next(load);
+        int afterStore = next(store);
+        int afterJlt = next(jlt);
+        int register = tixr.operands()[0];
+        // Bytes ocupados por TIXR e JLT: uma escrita de STCH neles encerra a sequência
+        int tailStart = tixr.address();
+        int tailEnd = afterJlt;
+        return () -> {
+            counters[Idiom.COPY_BYTE_LOOP.ordinal()]++;
+            int pc = afterLoad;
+            try {
+                int value = mem.readByte(ExecutionUnit.toWordAddress(effectiveAddress(regs, load)));
+                regs.set(RegisterSet.A, (regs.get(RegisterSet.A) & 0xFFFF00) | (value & 0xFF));
+                pc = afterStore;
+                int target = ExecutionUnit.toWordAddress(effectiveAddress(regs, store));
+                mem.writeByte(target, regs.get(RegisterSet.A) & 0xFF);
+                if (target >= tailStart && target < tailEnd) {
+                    regs.set(RegisterSet.PC, afterStore);
+                    return 2;
+                }
+            } catch (RuntimeException e) {
+                regs.set(RegisterSet.PC, pc);
+                throw e;
+            }
+            int x = (regs.get(RegisterSet.X) + 1) & MASK_24;
+            regs.set(RegisterSet.X, x);
+            int cc = ExecutionUnit.conditionCode(x - regs.get(register));
+            regs.set(RegisterSet.SW, cc);
+            regs.set(RegisterSet.PC, cc == 1 ? effectiveAddress(regs, jlt) : afterJlt);
+            return 4;
+        };
+    }
+
+    private static int next(DecodedInstruction instruction) {
+        return instruction.address() + instruction.getSizeInBytes();
+    }
+
+    /**
+     * Mesmo cálculo de {@link InstructionDecoder#effectiveAddress}, com os registradores atuais.
+     */
+    private static int effectiveAddress(RegisterSet regs, DecodedInstruction instruction) {
+        int address = instruction.displacement();
+        if (instruction.baseRelative()) {
+            address = regs.get(RegisterSet.B) + address;
+        }
+        if (instruction.indexed()) {
+            address += regs.get(RegisterSet.X);
+        }
+        return address;
+    }
+}
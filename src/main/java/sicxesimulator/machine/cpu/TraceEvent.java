@@ -0,0 +1,147 @@
+package sicxesimulator.machine.cpu;
+
+/**
+ * Evento de rastro de uma instrução executada: endereço, opcode, endereço efetivo e o que
+ * foi alterado (registradores e memória). As instâncias são pré-alocadas e reaproveitadas
+ * pelo {@link ExecutionTrace}; o texto só é montado quando {@link #render()} é chamado.
+ */
+public final class TraceEvent {
+    private static final String[] REGISTER_NAMES = {"A", "X", "L", "B", "S", "T", "F", null, "PC", "SW"};
+
+    private int address;
+    private int opcode;
+    private int format;
+    private int effectiveAddress;
+    private int changedRegisters; // Bit n ligado = registrador de número n alterado
+    private final int[] registerValues = new int[10];
+    private long fValue;
+    private int memoryAddress;
+    private int memoryLength;     // 0 quando a instrução não escreveu na memória
+    private long memoryValue;
+
+    TraceEvent() { }
+
+    void begin(int address, int opcode, int format, int effectiveAddress) {
+        this.address = address;
+        this.opcode = opcode;
+        this.format = format;
+        this.effectiveAddress = effectiveAddress;
+        this.changedRegisters = 0;
+        this.memoryLength = 0;
+    }
+
+    void registerChanged(int number, int value) {
+        changedRegisters |= 1 << number;
+        registerValues[number] = value;
+    }
+
+    void fChanged(long value) {
+        changedRegisters |= 1 << RegisterSet.F;
+        fValue = value;
+    }
+
+    void memoryWritten(int byteAddr, int length, long value) {
+        memoryAddress = byteAddr;
+        memoryLength = length;
+        memoryValue = value;
+    }
+
+    // ================ GETTERS ================
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * Opcode da instrução (sem os bits n e i no formato 3), como em {@link DecodedInstruction#opcode()}.
+     */
+    public int getOpcode() {
+        return opcode;
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public String getMnemonic() {
+        // No formato 3 qualquer combinação de n e i serve; usa n = i = 1 para não cair no CLEAR (0x04)
+        return InstructionSet.mnemonic(format >= 3 ? opcode | 0x03 : opcode);
+    }
+
+    public int getEffectiveAddress() {
+        return effectiveAddress;
+    }
+
+    /**
+     * Máscara dos registradores alterados: o bit n corresponde ao registrador de número n.
+     * O incremento sequencial do PC não é considerado alteração; apenas desvios aparecem.
+     */
+    public int getChangedRegisters() {
+        return changedRegisters;
+    }
+
+    public boolean isRegisterChanged(int number) {
+        return (changedRegisters & (1 << number)) != 0;
+    }
+
+    public int getRegisterValue(int number) {
+        return registerValues[number];
+    }
+
+    public long getFValue() {
+        return fValue;
+    }
+
+    public boolean hasMemoryWrite() {
+        return memoryLength > 0;
+    }
+
+    public int getMemoryAddress() {
+        return memoryAddress;
+    }
+
+    public int getMemoryLength() {
+        return memoryLength;
+    }
+
+    /**
+     * Valor escrito na memória (até 8 bytes, big-endian).
+     */
+    public long getMemoryValue() {
+        return memoryValue;
+    }
+
+    /**
+     * Monta a descrição textual do evento, por exemplo:
+     * {@code 000006: ADD EA=000021 | A=000030 SW=000002}.
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(48);
+        String mnemonic = getMnemonic();
+        sb.append(String.format("%06X: %s", address, mnemonic != null ? mnemonic : String.format("?%02X", opcode)));
+        if (format >= 3) {
+            sb.append(String.format(" EA=%06X", effectiveAddress));
+        }
+        if (changedRegisters != 0 || memoryLength > 0) {
+            sb.append(" |");
+        }
+        for (int number = 0; number < REGISTER_NAMES.length; number++) {
+            if (!isRegisterChanged(number)) {
+                continue;
+            }
+            if (number == RegisterSet.F) {
+                sb.append(String.format(" F=%012X", fValue));
+            } else {
+                sb.append(String.format(" %s=%06X", REGISTER_NAMES[number], registerValues[number]));
+            }
+        }
+        if (memoryLength > 0) {
+            sb.append(String.format(" Mem[%06X] ← %0" + (Math.min(memoryLength, 8) * 2) + "X", memoryAddress, memoryValue));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -0,0 +1,283 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Leitura de um arquivo gravado por {@link TraceFileWriter}.
+ *
+ * O arquivo é mapeado na memória e percorrido como um cursor: {@link #next()} decodifica o
+ * próximo registro nos campos do próprio leitor, sem criar objetos, e mantém os valores
+ * atuais de todos os registradores. A memória não é acompanhada pelo leitor; as escritas de
+ * cada registro ficam disponíveis em {@link #getWriteAddress(int)} e afins, e
+ * {@link ControlUnit#replay(TraceFileReader, long)} as aplica para reconstruir o estado.
+ *
+ * Arquivos maiores que 2 GB não são suportados.
+ */
+public final class TraceFileReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long recordCount;
+    private final int memorySize;
+    private final int[] initialRegisters = new int[TraceFileWriter.REGISTER_COUNT];
+    private final long initialF;
+    private final int imageOffset;
+    private final int firstRecord;
+
+    // Registro atual e estado dos registradores após ele
+    private long index;
+    private int address;
+    private int opcode;
+    private int flags;
+    private int effectiveAddress;
+    private int changedRegisters;
+    private final int[] registers = new int[TraceFileWriter.REGISTER_COUNT];
+    private long f;
+    private int writeCount;
+    private int[] writeAddresses = new int[4];
+    private int[] writeLengths = new int[4];
+    private int[] writePositions = new int[4];
+
+    public TraceFileReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de rastro maior que 2 GB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < TraceFileWriter.HEADER_SIZE
+                    || buffer.getInt(0) != TraceFileWriter.MAGIC
+                    || buffer.getShort(4) != TraceFileWriter.VERSION) {
+                throw new IOException("Arquivo de rastro inválido ou de versão desconhecida: " + path);
+            }
+            buffer.position(TraceFileWriter.RECORD_COUNT_OFFSET);
+            recordCount = buffer.getLong();
+            memorySize = buffer.getInt();
+            for (int number = 0; number < initialRegisters.length; number++) {
+                initialRegisters[number] = buffer.getInt();
+            }
+            initialF = buffer.getLong();
+            imageOffset = buffer.position();
+            firstRecord = imageOffset + memorySize;
+            if (firstRecord > buffer.limit()) {
+                throw new IOException("Arquivo de rastro truncado: " + path);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        rewind();
+    }
+
+    // ================ CABEÇALHO ================
+
+    /**
+     * Número de registros informado no cabeçalho. É 0 se a gravação não foi fechada; nesse
+     * caso os registros ainda podem ser percorridos até o fim do arquivo.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getMemorySize() {
+        return memorySize;
+    }
+
+    public int getInitialRegister(int number) {
+        return initialRegisters[number];
+    }
+
+    public long getInitialF() {
+        return initialF;
+    }
+
+    /**
+     * Copia para a memória informada, que deve estar zerada, a imagem inicial gravada.
+     */
+    public void loadInitialMemory(Memory memory) {
+        if (memory.getSize() != memorySize) {
+            throw new IllegalArgumentException("O rastro foi gravado com memória de " + memorySize + " bytes.");
+        }
+        for (int offset = 0; offset < memorySize; offset++) {
+            byte value = buffer.get(imageOffset + offset);
+            if (value != 0) {
+                memory.writeByte(offset, value & 0xFF);
+            }
+        }
+    }
+
+    // ================ CURSOR ================
+
+    /**
+     * Volta para antes do primeiro registro, com os registradores no estado inicial.
+     */
+    public void rewind() {
+        buffer.position(firstRecord);
+        System.arraycopy(initialRegisters, 0, registers, 0, registers.length);
+        f = initialF;
+        index = 0;
+        address = 0;
+        writeCount = 0;
+        changedRegisters = 0;
+    }
+
+    public boolean hasNext() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Avança para o próximo registro.
+     * @return false se não há mais registros
+     */
+    public boolean next() {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        address += (int) getSigned();
+        opcode = buffer.get() & 0xFF;
+        flags = buffer.get() & 0xFF;
+        int format = flags & TraceFileWriter.FLAG_FORMAT;
+        effectiveAddress = format >= 3 ? address + (int) getSigned() : 0;
+
+        // Os valores anteriores da gravação já têm o PC incrementado (ver DecodedInstruction#getSizeInBytes)
+        registers[RegisterSet.PC] = address + (format == 4 ? 6 : 3);
+        changedRegisters = (int) getUnsigned();
+        for (int number = 0; number < registers.length; number++) {
+            if ((changedRegisters & (1 << number)) == 0) {
+                continue;
+            }
+            if (number == RegisterSet.F) {
+                f += getSigned();
+            } else {
+                registers[number] += (int) getSigned();
+            }
+        }
+
+        writeCount = (flags & TraceFileWriter.FLAG_WRITES) >> TraceFileWriter.FLAG_WRITES_SHIFT;
+        if (writeCount == TraceFileWriter.FLAG_WRITES >> TraceFileWriter.FLAG_WRITES_SHIFT) {
+            writeCount = (int) getUnsigned();
+        }
+        if (writeCount > writeAddresses.length) {
+            writeAddresses = Arrays.copyOf(writeAddresses, writeCount);
+            writeLengths = Arrays.copyOf(writeLengths, writeCount);
+            writePositions = Arrays.copyOf(writePositions, writeCount);
+        }
+        for (int i = 0; i < writeCount; i++) {
+            writeAddresses[i] = effectiveAddress + (int) getSigned();
+            writeLengths[i] = buffer.get() & 0xFF;
+            writePositions[i] = buffer.position();
+            buffer.position(buffer.position() + writeLengths[i]);
+        }
+        index++;
+        return true;
+    }
+
+    /**
+     * Número de registros já lidos; o registro atual é o de número {@code getIndex() - 1}.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * Opcode da instrução, como em {@link DecodedInstruction#opcode()}.
+     */
+    public int getOpcode() {
+        return opcode;
+    }
+
+    public int getFormat() {
+        return flags & TraceFileWriter.FLAG_FORMAT;
+    }
+
+    public int getEffectiveAddress() {
+        return effectiveAddress;
+    }
+
+    /**
+     * Indica se a instrução foi concluída; false se foi interrompida por uma falha.
+     */
+    public boolean isCompleted() {
+        return (flags & TraceFileWriter.FLAG_COMPLETED) != 0;
+    }
+
+    /**
+     * Indica se a instrução encerrou o programa.
+     */
+    public boolean isHalted() {
+        return (flags & TraceFileWriter.FLAG_HALTED) != 0;
+    }
+
+    /**
+     * Máscara dos registradores alterados pela instrução: o bit n corresponde ao registrador
+     * de número n. O incremento sequencial do PC não é considerado alteração.
+     */
+    public int getChangedRegisters() {
+        return changedRegisters;
+    }
+
+    /**
+     * Valor do registrador após o registro atual.
+     */
+    public int getRegister(int number) {
+        return registers[number];
+    }
+
+    public long getF() {
+        return f;
+    }
+
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    public int getWriteAddress(int write) {
+        return writeAddresses[write];
+    }
+
+    public int getWriteLength(int write) {
+        return writeLengths[write];
+    }
+
+    /**
+     * Byte escrito na posição {@code offset} da escrita informada, sem sinal.
+     */
+    public int getWriteByte(int write, int offset) {
+        if (offset < 0 || offset >= writeLengths[write]) {
+            throw new IndexOutOfBoundsException("Byte fora da escrita: " + offset);
+        }
+        return buffer.get(writePositions[write] + offset) & 0xFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long getSigned() {
+        long value = getUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long getUnsigned() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,267 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Grava em arquivo, instrução a instrução, uma execução completa, para ser analisada depois
+ * com {@link TraceFileReader} sem simular de novo.
+ *
+ * O arquivo começa com um cabeçalho de tamanho fixo e a imagem inicial da memória; em seguida
+ * vem um registro por instrução executada, com os campos em varint (inteiros com sinal em
+ * zigue-zague) e relativos ao estado anterior:
+ * <pre>
+ *   cabeçalho   "SICT", versão (2 bytes), número de registros (8), tamanho da memória (4),
+ *               registradores 0 a 9 (4 cada, o de F ignorado), F (8), imagem da memória
+ *   registro    endereço - endereço do registro anterior
+ *               opcode (1 byte)
+ *               flags (1 byte): formato (bits 0-2), número de escritas na memória (bits 3-5;
+ *               7 indica que o número vem depois, em varint), concluída (bit 6), fim do programa (bit 7)
+ *               endereço efetivo - endereço (só nos formatos 3 e 4)
+ *               máscara dos registradores alterados (bit n = registrador n)
+ *               para cada registrador alterado: valor novo - valor anterior
+ *               número de escritas na memória, se não coube nas flags
+ *               para cada escrita: endereço - endereço efetivo, tamanho, bytes escritos
+ * </pre>
+ * Os valores anteriores são os do início da instrução, já com o PC incrementado; assim o PC só
+ * aparece na máscara nos desvios. Os registros passam por um buffer e são escritos no canal em
+ * blocos.
+ */
+public class TraceFileWriter implements AutoCloseable {
+    static final int MAGIC = 0x53494354; // "SICT"
+    static final short VERSION = 1;
+    static final int REGISTER_COUNT = 10;
+    /** Posição do número de registros no cabeçalho, atualizado ao fechar. */
+    static final int RECORD_COUNT_OFFSET = 6;
+    static final int HEADER_SIZE = RECORD_COUNT_OFFSET + 8 + 4 + REGISTER_COUNT * 4 + 8;
+
+    static final int FLAG_FORMAT = 0x07;
+    static final int FLAG_WRITES_SHIFT = 3;
+    static final int FLAG_WRITES = 0x07 << FLAG_WRITES_SHIFT;
+    static final int FLAG_COMPLETED = 0x40;
+    static final int FLAG_HALTED = 0x80;
+    /** Maior escrita de uma instrução, em bytes (a de {@link Memory#writeLong48(int, long)}). */
+    static final int MAX_WRITE_LENGTH = 8;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Pior caso de um registro sem as escritas: endereço, opcode, flags, EA, máscara e registradores
+    private static final int MAX_RECORD_BASE = 5 + 1 + 1 + 5 + 2 + (REGISTER_COUNT - 1) * 5 + 10 + 5;
+    private static final int MAX_WRITE_SIZE = 5 + 1 + MAX_WRITE_LENGTH;
+
+    private final FileChannel channel;
+    private final Memory memory;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Memory.WriteListener writeListener = this::onWrite;
+    private long records;
+    private int previousAddress;
+    private boolean closed;
+
+    // Estado da instrução em andamento
+    private final int[] registersBefore = new int[REGISTER_COUNT];
+    private long fBefore;
+    private boolean recording;
+    private int[] writeAddresses = new int[4];
+    private int[] writeLengths = new int[4];
+    private int writeCount;
+
+    /**
+     * Cria o arquivo (substituindo o existente) e grava o cabeçalho com o estado atual.
+     */
+    TraceFileWriter(Path path, Memory memory, RegisterSet registers) throws IOException {
+        this.memory = memory;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader(registers);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        memory.addWriteListener(writeListener);
+    }
+
+    /**
+     * Número de instruções gravadas até agora.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    private void writeHeader(RegisterSet registers) throws IOException {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(0);
+        buffer.putInt(memory.getSize());
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            buffer.putInt(registers.get(number));
+        }
+        buffer.putLong(registers.getF());
+        byte[] image = memory.getMemoryMap();
+        for (int offset = 0; offset < image.length; ) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), image.length - offset);
+            buffer.put(image, offset, length);
+            offset += length;
+        }
+    }
+
+    // ================ GRAVAÇÃO ================
+
+    /**
+     * Início de uma instrução, com o PC já incrementado: guarda os registradores para
+     * comparação no fim.
+     */
+    void beginInstruction(RegisterSet registers) {
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            registersBefore[number] = registers.get(number);
+        }
+        fBefore = registers.getF();
+        writeCount = 0;
+        recording = true;
+    }
+
+    /**
+     * Fim de uma instrução, concluída ou interrompida por uma falha: grava o seu registro.
+     */
+    void endInstruction(DecodedInstruction instruction, int effectiveAddress, RegisterSet registers,
+                        boolean completed, boolean halted) {
+        recording = false;
+        if (buffer.remaining() < MAX_RECORD_BASE + writeCount * MAX_WRITE_SIZE) {
+            flushBuffer();
+        }
+        int address = instruction.address();
+        putSigned(address - previousAddress);
+        previousAddress = address;
+        buffer.put((byte) instruction.opcode());
+        int flags = instruction.format() & FLAG_FORMAT
+                | Math.min(writeCount, FLAG_WRITES >> FLAG_WRITES_SHIFT) << FLAG_WRITES_SHIFT;
+        if (completed) {
+            flags |= FLAG_COMPLETED;
+        }
+        if (halted) {
+            flags |= FLAG_HALTED;
+        }
+        buffer.put((byte) flags);
+        if (instruction.format() >= 3) {
+            putSigned(effectiveAddress - address);
+        }
+
+        int changed = 0;
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            boolean differs = number == RegisterSet.F
+                    ? registers.getF() != fBefore
+                    : registers.get(number) != registersBefore[number];
+            if (differs) {
+                changed |= 1 << number;
+            }
+        }
+        putUnsigned(changed);
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            if ((changed & (1 << number)) == 0) {
+                continue;
+            }
+            if (number == RegisterSet.F) {
+                putSigned(registers.getF() - fBefore);
+            } else {
+                putSigned(registers.get(number) - registersBefore[number]);
+            }
+        }
+
+        if (writeCount >= FLAG_WRITES >> FLAG_WRITES_SHIFT) {
+            putUnsigned(writeCount);
+        }
+        for (int i = 0; i < writeCount; i++) {
+            putSigned(writeAddresses[i] - effectiveAddress);
+            buffer.put((byte) writeLengths[i]);
+            for (int offset = 0; offset < writeLengths[i]; offset++) {
+                buffer.put((byte) memory.peekByte(writeAddresses[i] + offset));
+            }
+        }
+        records++;
+    }
+
+    private void onWrite(int byteAddr, int length) {
+        if (!recording) {
+            return;
+        }
+        if (length > MAX_WRITE_LENGTH) {
+            throw new IllegalStateException("Escrita de " + length + " bytes não cabe no registro de rastro.");
+        }
+        if (writeCount == writeAddresses.length) {
+            writeAddresses = Arrays.copyOf(writeAddresses, writeCount * 2);
+            writeLengths = Arrays.copyOf(writeLengths, writeCount * 2);
+        }
+        writeAddresses[writeCount] = byteAddr;
+        writeLengths[writeCount] = length;
+        writeCount++;
+    }
+
+    // ================ ARQUIVO ================
+
+    /**
+     * Escreve no arquivo os registros ainda no buffer.
+     */
+    public void flush() {
+        if (!closed) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Escreve os registros pendentes, atualiza o número de registros no cabeçalho e fecha o
+     * arquivo. A memória deixa de ser observada.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        recording = false;
+        memory.removeWriteListener(writeListener);
+        try {
+            drain();
+            ByteBuffer count = ByteBuffer.allocate(8).putLong(0, records);
+            channel.write(count, RECORD_COUNT_OFFSET);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBuffer() {
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o arquivo de rastro.", e);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putSigned(long value) {
+        putUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    private void putUnsigned(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
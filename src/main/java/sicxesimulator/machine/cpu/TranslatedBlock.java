@@ -0,0 +1,17 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+/**
+ * Bloco básico traduzido para bytecode por {@link BytecodeTranslator}.
+ */
+interface TranslatedBlock {
+
+    /**
+     * Executa o bloco e retorna o número de instruções concluídas. O retorno é menor que o
+     * tamanho do bloco quando uma escrita invalida o próprio bloco; nesse caso o PC já aponta
+     * para a próxima instrução a executar.
+     */
+    int execute(RegisterSet registers, Memory memory, ExecutionUnit unit,
+                DecodedInstruction[] instructions, BasicBlock block);
+}
@@ -0,0 +1,328 @@
+package sicxesimulator.machine.cpu;
+
+import sicxesimulator.machine.Memory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Diário de desfazer: guarda, por instrução executada, apenas os valores sobrescritos dos
+ * registradores e da memória, para que {@link ControlUnit#stepBack(long)} volte a execução.
+ *
+ * Os registros ficam em um buffer circular de longs, de capacidade fixa; cheio, as instruções
+ * mais antigas são descartadas inteiras. Para voltar além do buffer, o diário guarda
+ * periodicamente pontos de restauração (imagem da memória, copiada na escrita, e dos
+ * registradores), a partir dos quais a execução é refeita até a instrução desejada. O número
+ * de pontos também é limitado, então a memória ocupada não cresce com a duração da execução.
+ *
+ * Formato de cada registro (4 bits de tipo no topo do long):
+ * <pre>
+ *   VALOR   conteúdo anterior de uma escrita na memória (até 48 bits), antes do cabeçalho MEMÓRIA
+ *   REG     número do registrador e valor anterior (24 bits)
+ *   F       valor anterior do registrador F (48 bits)
+ *   MEMÓRIA tamanho e endereço da escrita
+ *   FIM     fim de uma instrução; indica se ela foi concluída (contada em getInstructionCount)
+ * </pre>
+ * Refazer a execução a partir de um ponto de restauração supõe que ela seja determinística,
+ * como é para programas que não usam dispositivos de E/S.
+ */
+public class UndoJournal {
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 100_000;
+    public static final int DEFAULT_MAX_CHECKPOINTS = 32;
+
+    private static final int REGISTER_COUNT = 10;
+    private static final long TAG_VALUE = 0;
+    private static final long TAG_REGISTER = 1;
+    private static final long TAG_F = 2;
+    private static final long TAG_MEMORY = 3;
+    private static final long TAG_END = 4;
+    private static final long MASK_32 = 0xFFFFFFFFL;
+    private static final long MASK_48 = 0xFFFFFFFFFFFFL;
+
+    /**
+     * Ponto de restauração: estado completo antes da instrução de número {@code instruction}.
+     */
+    record Checkpoint(long instruction, Memory.Snapshot memory, int[] registers, long f) { }
+
+    private final Memory memory;
+    private final Memory.OverwriteListener overwriteListener = this::onOverwrite;
+    private int capacity = DEFAULT_CAPACITY;
+    private long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private int maxCheckpoints = DEFAULT_MAX_CHECKPOINTS;
+    private boolean enabled;
+
+    private long[] entries;
+    private int head;
+    private int size;
+    private int instructions;
+
+    private final Deque<Checkpoint> checkpoints = new ArrayDeque<>();
+    private long lastCheckpoint = -1;
+
+    // Estado da instrução em andamento
+    private final int[] registersBefore = new int[REGISTER_COUNT];
+    private long fBefore;
+    private boolean recording;
+
+    public UndoJournal(Memory memory) {
+        this.memory = memory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Liga ou desliga o diário. Ligado, {@link ControlUnit#run(long)} executa instrução a
+     * instrução; desligado, o histórico é descartado.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            entries = new long[capacity];
+            memory.setOverwriteListener(overwriteListener);
+        } else {
+            memory.setOverwriteListener(null);
+            entries = null;
+        }
+        clear();
+    }
+
+    /**
+     * Define o número de registros do buffer circular. O histórico é descartado.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 64) {
+            throw new IllegalArgumentException("A capacidade do diário deve ser de pelo menos 64 registros.");
+        }
+        this.capacity = capacity;
+        if (enabled) {
+            entries = new long[capacity];
+        }
+        clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Define de quantas em quantas instruções é criado um ponto de restauração, e quantos
+     * pontos são mantidos (os mais antigos são descartados).
+     */
+    public void setCheckpointPolicy(long interval, int maxCheckpoints) {
+        if (interval <= 0 || maxCheckpoints <= 0) {
+            throw new IllegalArgumentException("O intervalo e o número de pontos de restauração devem ser positivos.");
+        }
+        this.checkpointInterval = interval;
+        this.maxCheckpoints = maxCheckpoints;
+    }
+
+    /**
+     * Número de instruções que podem ser desfeitas diretamente pelo buffer.
+     */
+    public int getInstructions() {
+        return instructions;
+    }
+
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /**
+     * Descarta o histórico e os pontos de restauração.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        instructions = 0;
+        recording = false;
+        checkpoints.clear();
+        lastCheckpoint = -1;
+    }
+
+    // ================ GRAVAÇÃO ================
+
+    /**
+     * Cria um ponto de restauração antes da instrução de número {@code instruction}, se já
+     * passou o intervalo desde o último.
+     */
+    void checkpointIfDue(long instruction, RegisterSet registers) {
+        if (lastCheckpoint >= 0 && instruction - lastCheckpoint < checkpointInterval) {
+            return;
+        }
+        int[] values = new int[REGISTER_COUNT];
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            values[number] = registers.get(number);
+        }
+        if (checkpoints.size() == maxCheckpoints) {
+            checkpoints.removeFirst();
+        }
+        checkpoints.addLast(new Checkpoint(instruction, memory.snapshot(), values, registers.getF()));
+        lastCheckpoint = instruction;
+    }
+
+    /**
+     * Início de uma instrução: guarda os registradores para comparação no fim.
+     */
+    void beginInstruction(RegisterSet registers) {
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            registersBefore[number] = registers.get(number);
+        }
+        fBefore = registers.getF();
+        recording = true;
+    }
+
+    /**
+     * Fim de uma instrução, concluída ou interrompida por uma falha: grava os registradores
+     * alterados e o marcador de fim.
+     */
+    void endInstruction(RegisterSet registers, boolean completed) {
+        recording = false;
+        for (int number = 0; number < REGISTER_COUNT; number++) {
+            if (number != RegisterSet.F && registers.get(number) != registersBefore[number]) {
+                push(TAG_REGISTER << 60 | (long) number << 32 | (registersBefore[number] & MASK_32));
+            }
+        }
+        if (registers.getF() != fBefore) {
+            push(TAG_F << 60 | (fBefore & MASK_48));
+        }
+        push(TAG_END << 60 | (completed ? 1 : 0));
+        instructions++;
+    }
+
+    private void onOverwrite(int byteAddr, int length, long previous) {
+        if (recording) {
+            push(TAG_VALUE << 60 | (previous & MASK_48));
+            push(TAG_MEMORY << 60 | (long) length << 32 | (byteAddr & MASK_32));
+        }
+    }
+
+    private void push(long entry) {
+        if (size == capacity) {
+            dropOldestInstruction();
+        }
+        entries[(head + size) % capacity] = entry;
+        size++;
+    }
+
+    // Descarta os registros da instrução mais antiga, até o seu marcador de fim
+    private void dropOldestInstruction() {
+        while (size > 0) {
+            long entry = entries[head];
+            head = (head + 1) % capacity;
+            size--;
+            if (tag(entry) == TAG_END) {
+                instructions--;
+                return;
+            }
+        }
+    }
+
+    // ================ DESFAZER ================
+
+    /**
+     * Desfaz a última instrução gravada, restaurando registradores e memória.
+     * @return true se a instrução desfeita havia sido concluída
+     */
+    boolean undo(RegisterSet registers) {
+        if (instructions == 0) {
+            throw new IllegalStateException("Não há instruções para desfazer.");
+        }
+        boolean completed = (pop() & 1) != 0;
+        while (size > 0 && tag(peek()) != TAG_END) {
+            long entry = pop();
+            if (tag(entry) == TAG_REGISTER) {
+                registers.set((int) (entry >>> 32) & 0xF, (int) entry);
+            } else if (tag(entry) == TAG_F) {
+                registers.setF(entry & MASK_48);
+            } else if (tag(entry) == TAG_MEMORY) {
+                restoreMemory((int) entry, (int) (entry >>> 32) & 0xF, pop() & MASK_48);
+            }
+        }
+        instructions--;
+        return completed;
+    }
+
+    /**
+     * Conta quantas instruções, a partir da última, é preciso desfazer para voltar a antes da
+     * última escrita no byte informado.
+     * @return O número de instruções, ou -1 se nenhuma instrução no buffer escreveu nele
+     */
+    int instructionsSinceWrite(int byteAddr) {
+        int count = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            long entry = entries[(head + i) % capacity];
+            if (tag(entry) == TAG_END) {
+                count++;
+            } else if (tag(entry) == TAG_MEMORY) {
+                int address = (int) entry;
+                int length = (int) (entry >>> 32) & 0xF;
+                if (byteAddr >= address && byteAddr < address + length) {
+                    return count;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Último ponto de restauração anterior ou igual à instrução informada, ou null se não houver.
+     */
+    Checkpoint checkpointAtOrBefore(long instruction) {
+        Iterator<Checkpoint> iterator = checkpoints.descendingIterator();
+        while (iterator.hasNext()) {
+            Checkpoint checkpoint = iterator.next();
+            if (checkpoint.instruction() <= instruction) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descarta os pontos de restauração posteriores à instrução informada, que deixaram de
+     * fazer parte da execução.
+     */
+    void discardCheckpointsAfter(long instruction) {
+        while (!checkpoints.isEmpty() && checkpoints.peekLast().instruction() > instruction) {
+            checkpoints.removeLast();
+        }
+        lastCheckpoint = checkpoints.isEmpty() ? -1 : checkpoints.peekLast().instruction();
+    }
+
+    /**
+     * Descarta o histórico do buffer, mantendo os pontos de restauração.
+     */
+    void clearHistory() {
+        head = 0;
+        size = 0;
+        instructions = 0;
+    }
+
+    private void restoreMemory(int byteAddr, int length, long previous) {
+        switch (length) {
+            case 1 -> memory.writeByte(byteAddr, (int) previous);
+            case 3 -> memory.writeInt24(byteAddr / 3, (int) previous);
+            default -> memory.writeLong48(byteAddr / 3, previous);
+        }
+    }
+
+    private long pop() {
+        size--;
+        return entries[(head + size) % capacity];
+    }
+
+    private long peek() {
+        return entries[(head + size - 1) % capacity];
+    }
+
+    private static long tag(long entry) {
+        return entry >>> 60;
+    }
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import sicxesimulator.events.MacroExpansionEvent;
 import sicxesimulator.logger.SimulatorLogger;
 
 public class MacroProcessor {
@@ -18,6 +19,8 @@ public class MacroProcessor {
      * @throws IOException Se ocorrer um erro de leitura/escrita.
      */
     public void process(String inputFile, String outputFile) throws IOException {
+        MacroExpansionEvent event = new MacroExpansionEvent();
+        event.begin();
         SimulatorLogger.logExecution("MacroProcessor iniciado. Entrada: " + inputFile);
         List<String> sourceLines = Files.readAllLines(Paths.get(inputFile), StandardCharsets.UTF_8);
         List<String> outputLines = new ArrayList<>();
@@ -83,6 +86,15 @@ public class MacroProcessor {
 
         Files.write(Paths.get(outputFile), expandedLines, StandardCharsets.UTF_8);
         SimulatorLogger.logExecution("Processamento concluído. Arquivo gerado: " + outputFile);
+
+        // Só preenchido com uma gravação JFR ativa
+        if (event.shouldCommit()) {
+            event.inputFile = inputFile;
+            event.inputLines = sourceLines.size();
+            event.outputLines = expandedLines.size();
+            event.macros = macroTable.size();
+            event.commit();
+        }
     }
 
     /**
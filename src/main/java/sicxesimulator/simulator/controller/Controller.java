@@ -2,16 +2,19 @@ package sicxesimulator.simulator.controller;
 
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
-import javafx.concurrent.Task;
 import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
 import sicxesimulator.logger.SimulatorLogger;
+import sicxesimulator.machine.MachineRunner;
+import sicxesimulator.machine.Memory;
+import sicxesimulator.machine.cpu.Breakpoints;
+import sicxesimulator.machine.cpu.ExecutionTrace;
 import sicxesimulator.models.ObjectFile;
 import sicxesimulator.machine.cpu.Register;
 import sicxesimulator.simulator.model.Model;
 import sicxesimulator.simulator.view.MainView;
+import sicxesimulator.simulator.view.components.tables.MemoryTableModel;
 import sicxesimulator.simulator.view.components.tables.ObjectFileTableItem;
-import sicxesimulator.simulator.view.records.MemoryEntry;
 
 import sicxesimulator.simulator.view.records.RegisterEntry;
 import sicxesimulator.simulator.view.records.SymbolEntry;
@@ -22,13 +25,22 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class Controller {
+    // Até esta taxa cada instrução é exibida e registrada ao executar; acima dela, a cada
+    // quadro são exibidas as instruções mais recentes do rastro
+    private static final long STEP_OUTPUT_MAX_RATE = 1_000;
+    private static final int TRACE_LINES_PER_FRAME = 64;
+
     private final Model model;
     private final MainView view;
+    // Usados pela thread de execução, ou com a execução parada
+    private volatile boolean traceOutput;
+    private long traceMark;
 
     public Controller(Model model, MainView view) {
         this.model = model;
         this.view = view;
         this.model.addListener(view::initializeView);
+        this.model.getRunner().setStateListener(this::onRunStateChanged);
     }
 
     ///  ============== BOTÕES PRINCIPAIS =================== ///
@@ -164,68 +176,120 @@ public class Controller {
     /// Grupo Inferior. ExecutionControls
 
     public void handleRunAction() {
-        int pc = model.getMachine().getControlUnit().getIntValuePC();
-        SimulatorLogger.logExecution("Início do ciclo de execução. PC inicial: " + String.format("%06X", pc));
-
-        if (model.codeLoadedProperty().get()) {
-            if (!model.simulationFinishedProperty().get()) {
-                Task<Void> runTask = new Task<>() {
-                    @Override
-                    protected Void call() {
-                        while (!model.simulationFinishedProperty().get() && !model.simulationPausedProperty().get()) {
-                            try {
-                                // Capture o valor do PC em uma variável final
-                                final int currentPC = model.getMachine().getControlUnit().getIntValuePC();
-                                SimulatorLogger.logExecution("Antes da instrução. PC: " + String.format("%06X", currentPC));
-
-                                model.runNextInstruction();
-
-                                String log = model.getMachine().getControlUnit().getLastExecutionLog();
-                                if (log == null) {
-                                    log = "Log de execução não disponível.";
-                                }
-                                SimulatorLogger.logExecution("Instrução executada: " + log);
-                                model.setSimulationFinished(model.getMachine().getControlUnit().isHalted());
-                                // Captura o log em uma variável final para uso na lambda
-                                final String finalLog = log;
-                                Platform.runLater(() -> {
-                                    view.appendOutput(finalLog);
-                                    view.updateAllTables();
-                                });
-
-                            } catch (Exception ex) {
-                                String errorMsg = ex.getMessage() != null ? ex.getMessage() : ex.toString();
-                                SimulatorLogger.logError("Erro durante execução. PC: "
-                                        + model.getMachine().getControlUnit().getIntValuePC(), ex);
-                                Platform.runLater(() -> DialogUtil.showError("Erro na execução: " + errorMsg));
-                                break;
-                            }
-                            model.applyCycleDelay();
-                        }
-                        if (model.simulationFinishedProperty().get()) {
-                            SimulatorLogger.logExecution("Execução concluída!");
-                            Platform.runLater(() -> view.appendOutput("Execução concluída!"));
-                        }
-                        return null;
-                    }
-                };
-                new Thread(runTask).start();
-            } else {
-                DialogUtil.showError("Fim do programa!");
-            }
-        } else {
+        if (!model.codeLoadedProperty().get()) {
             DialogUtil.showError("Nenhum programa montado!");
+            return;
         }
-
         if (model.simulationFinishedProperty().get()) {
-            Platform.runLater(() -> DialogUtil.showAlert(Alert.AlertType.INFORMATION,
-                    "Execução Concluída",
-                    "Simulação Finalizada",
-                    "A simulação foi concluída com sucesso!"));
+            DialogUtil.showError("Fim do programa!");
+            return;
+        }
+        MachineRunner runner = model.getRunner();
+        if (runner.isRunning()) {
+            DialogUtil.showError("A simulação já está em execução!");
+            return;
+        }
+        if (runner.getState() == MachineRunner.State.FAULTED) {
+            runner.cancel();
+        }
+        int pc = model.getMachine().getControlUnit().getIntValuePC();
+        SimulatorLogger.logExecution("Início do ciclo de execução. PC inicial: %06X", pc);
+        startRun();
+    }
+
+    private void startRun() {
+        MachineRunner runner = model.getRunner();
+        long rate = model.getInstructionRate();
+        traceOutput = rate == 0 || rate > STEP_OUTPUT_MAX_RATE;
+        runner.setStepListener(traceOutput ? null : this::onInstructionExecuted);
+        runner.setSliceListener(traceOutput ? this::onSliceExecuted : null);
+        traceMark = model.getMachine().getControlUnit().getExecutionTrace().getTotalRecorded();
+        view.startFrameRefresh();
+        runner.start();
+    }
+
+    // Chamado pela thread de execução após cada instrução
+    private void onInstructionExecuted() {
+        String log = model.getMachine().getControlUnit().getLastExecutionLog();
+        if (log == null) {
+            log = "Log de execução não disponível.";
+        }
+        SimulatorLogger.logExecution("Instrução executada: " + log);
+        // A interface busca a saída e o estado uma vez por quadro
+        view.publishOutput(log);
+    }
+
+    // Chamado pela thread de execução entre trechos, com a máquina parada
+    private void onSliceExecuted() {
+        if (view.takeFrameRequest()) {
+            publishTrace();
+        }
+    }
+
+    // Exibe as instruções mais recentes do rastro desde a última publicação
+    private void publishTrace() {
+        ExecutionTrace trace = model.getMachine().getControlUnit().getExecutionTrace();
+        long total = trace.getTotalRecorded();
+        if (total < traceMark) {
+            traceMark = 0; // O rastro foi limpo
+        }
+        int shown = (int) Math.min(Math.min(total - traceMark, trace.size()), TRACE_LINES_PER_FRAME);
+        List<String> lines = new ArrayList<>(shown);
+        for (int i = trace.size() - shown; i < trace.size(); i++) {
+            lines.add(trace.get(i).render());
+        }
+        traceMark = total;
+        view.publishOutput(lines);
+    }
+
+    // Chamado na thread que mudou o estado da execução: a de execução ou a da interface
+    private void onRunStateChanged(MachineRunner.State state) {
+        MachineRunner runner = model.getRunner();
+        if (state != MachineRunner.State.RUNNING && state != MachineRunner.State.IDLE && traceOutput) {
+            publishTrace();
+        }
+        switch (state) {
+            case RUNNING -> Platform.runLater(() -> model.setSimulationPaused(false));
+            case PAUSED -> {
+                Breakpoints.Hit hit = runner.getHit();
+                String message = hit != null ? describeBreakpoint(hit) : "Execução pausada.";
+                SimulatorLogger.logExecution(message);
+                view.publishOutput(message);
+                view.stopFrameRefresh();
+                Platform.runLater(() -> model.setSimulationPaused(true));
+            }
+            case HALTED -> {
+                view.stopFrameRefresh();
+                SimulatorLogger.logExecution("Execução concluída!");
+                Platform.runLater(() -> {
+                    model.setSimulationFinished(true);
+                    model.setSimulationPaused(false);
+                    view.appendOutput("Execução concluída!");
+                });
+            }
+            case FAULTED -> {
+                Exception fault = runner.getFault();
+                String errorMsg = fault.getMessage() != null ? fault.getMessage() : fault.toString();
+                SimulatorLogger.logError("Erro durante execução. PC: "
+                        + model.getMachine().getControlUnit().getIntValuePC(), fault);
+                view.stopFrameRefresh();
+                Platform.runLater(() -> {
+                    model.setSimulationPaused(false);
+                    DialogUtil.showError("Erro na execução: " + errorMsg);
+                });
+            }
+            case IDLE -> {
+                view.stopFrameRefresh();
+                Platform.runLater(() -> model.setSimulationPaused(false));
+            }
         }
     }
 
     public void handleNextAction() {
+        if (model.getRunner().isRunning()) {
+            DialogUtil.showError("Pause a execução antes de avançar instrução a instrução!");
+            return;
+        }
         if (model.codeLoadedProperty().get()) {
             if (!model.simulationFinishedProperty().get()) {
                 try {
@@ -249,30 +313,55 @@ public class Controller {
         }
     }
 
+    public void handleStepBackAction() {
+        if (!model.codeLoadedProperty().get()) {
+            DialogUtil.showError("Nenhum programa montado!");
+            return;
+        }
+        if (model.getRunner().isRunning()) {
+            DialogUtil.showError("Pause a execução antes de voltar!");
+            return;
+        }
+        if (model.stepBack(1) == 0) {
+            DialogUtil.showError("Não há instruções para voltar!");
+            return;
+        }
+        String message = String.format("Instrução desfeita. PC: %06X",
+                model.getMachine().getControlUnit().getIntValuePC());
+        view.appendOutput(message);
+        view.updateAllTables();
+        SimulatorLogger.logExecution(message);
+    }
+
     public void handlePauseAction() {
+        MachineRunner runner = model.getRunner();
         if (!model.codeLoadedProperty().get()) {
             DialogUtil.showError("Nenhum programa em execução para pausar!");
             return;
         }
-        if (model.codeLoadedProperty().get()) {
+        if (runner.isRunning()) {
+            // A mensagem é exibida quando a execução de fato para
+            runner.pause();
+        } else if (runner.getState() == MachineRunner.State.PAUSED && !model.simulationFinishedProperty().get()) {
             view.appendOutput("Execução retomada!");
             SimulatorLogger.logExecution("Execução retomada.");
-            model.setSimulationPaused(false);
+            startRun();
         } else {
-            view.appendOutput("Execução pausada!");
-            SimulatorLogger.logExecution("Execução pausada.");
-            model.setSimulationPaused(true);
+            DialogUtil.showError("Nenhum programa em execução para pausar!");
         }
     }
 
     public void handleResetAction() {
+        // Para a execução antes de limpar a interface
+        model.getRunner().cancel();
+
         // Limpa o conteúdo de todas tabelas
         view.clearTables();
 
         // Atualiza as tabelas
         view.updateAllTables();
 
-        // Limpa o conteúdo de todos TextArea
+        // Limpa o conteúdo das áreas de texto e do console
         view.getInputField().clear();
         view.getOutputArea().clear();
         view.getMacroArea().clear();
@@ -440,6 +529,8 @@ public class Controller {
 
     public void handleChangeMemorySizeAction(int newSizeInBytes) {
         try {
+            // A execução em andamento usa a memória atual
+            model.getRunner().cancel();
             model.getMachine().changeMemorySize(newSizeInBytes);
             model.setMemorySize(newSizeInBytes);
 
@@ -456,6 +547,63 @@ public class Controller {
         model.setSimulationSpeed(newSimulationSpeed);
     }
 
+    public void handleChangeInstructionRateAction(long instructionsPerSecond) {
+        try {
+            model.setInstructionRate(instructionsPerSecond);
+        } catch (IllegalArgumentException e) {
+            DialogUtil.showError(e.getMessage());
+        }
+    }
+
+    // Os pontos de parada são lidos pela thread de execução: durante a execução, as alterações
+    // são aplicadas por ela entre trechos
+    public void handleToggleBreakpointAction(int address) {
+        model.getRunner().apply(() -> {
+            try {
+                boolean added = model.getMachine().getControlUnit().getBreakpoints().toggleBreakpoint(address);
+                view.appendOutput(String.format(added ? "Ponto de parada incluído em %06X." : "Ponto de parada em %06X removido.", address));
+            } catch (IllegalArgumentException e) {
+                Platform.runLater(() -> DialogUtil.showError(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Inclui ou remove um ponto de observação sobre a palavra (3 bytes) que começa no endereço.
+     */
+    public void handleToggleWatchpointAction(int address, Breakpoints.Kind kind) {
+        String access = kind == Breakpoints.Kind.READ ? "leitura" : "escrita";
+        model.getRunner().apply(() -> {
+            Breakpoints breakpoints = model.getMachine().getControlUnit().getBreakpoints();
+            try {
+                if (breakpoints.isWatched(address, kind)) {
+                    breakpoints.removeWatchpoint(address, 3, kind);
+                    view.appendOutput(String.format("Observação de %s em %06X removida.", access, address));
+                } else {
+                    breakpoints.addWatchpoint(address, 3, kind);
+                    view.appendOutput(String.format("Observando %s em %06X.", access, address));
+                }
+            } catch (IllegalArgumentException e) {
+                Platform.runLater(() -> DialogUtil.showError(e.getMessage()));
+            }
+        });
+    }
+
+    public void handleClearBreakpointsAction() {
+        model.getRunner().apply(() -> {
+            model.getMachine().getControlUnit().getBreakpoints().clear();
+            view.appendOutput("Pontos de parada e de observação removidos.");
+        });
+    }
+
+    private static String describeBreakpoint(Breakpoints.Hit hit) {
+        return switch (hit.kind()) {
+            case EXECUTE -> String.format("Ponto de parada em %06X.", hit.address());
+            case READ -> String.format("Leitura observada em %06X.", hit.address());
+            case WRITE -> String.format("Escrita observada em %06X.", hit.address());
+        };
+    }
+
     ///  5) menuBar Exibir
 
     public void handleSetHexViewAction() {
@@ -490,21 +638,24 @@ public class Controller {
         return model.getMemorySize();
     }
 
-    public String getCycleDelay() {
-        int simulationSpeed = model.getSimulationSpeed();
-        return Mapper.mapSimulationSpeedToCycleDelay(simulationSpeed)+ "ms";
+    public String getInstructionRate() {
+        return Mapper.formatInstructionRate(model.getInstructionRate());
     }
 
-    public List<MemoryEntry> getMemoryEntries() {
-        List<MemoryEntry> entries = new ArrayList<>();
-        var memory = model.getMachine().getMemory();
-        for (int wordIndex = 0; wordIndex < memory.getAddressRange(); wordIndex++) {
-            byte[] word = memory.readWord(wordIndex);
-            int byteAddress = wordIndex * 3;
-            String formattedAddress = ValueFormatter.formatAddress(byteAddress, model.getViewConfig().getAddressFormat());
-            entries.add(new MemoryEntry(formattedAddress, Convert.bytesToHex(word)));
-        }
-        return entries;
+    /**
+     * Retorna a memória da máquina atual; muda quando o tamanho da memória é alterado.
+     */
+    public Memory getMemory() {
+        return model.getMachine().getMemory();
+    }
+
+    /**
+     * Cria o modelo da tabela de memória, lido diretamente da memória atual e com os
+     * endereços no formato de exibição configurado.
+     */
+    public MemoryTableModel createMemoryTableModel() {
+        return new MemoryTableModel(getMemory(),
+                byteAddress -> ValueFormatter.formatAddress(byteAddress, model.getViewConfig().getAddressFormat()));
     }
 
     public List<RegisterEntry> getRegisterEntries() {
@@ -7,7 +7,9 @@ import sicxesimulator.assembler.Assembler;
 import sicxesimulator.linker.Linker;
 import sicxesimulator.loader.Loader;
 import sicxesimulator.macroprocessor.MacroProcessor;
+import sicxesimulator.machine.ExecutionScheduler;
 import sicxesimulator.machine.Machine;
+import sicxesimulator.machine.MachineRunner;
 import sicxesimulator.utils.*;
 
 import java.io.IOException;
@@ -36,7 +38,10 @@ public class Model {
 
     // Estado do modelo
     private int memorySize;
-    private int simulationSpeed;
+    // Ritmo da execução contínua; começa sem limite ("tempo real")
+    private final ExecutionScheduler scheduler = new ExecutionScheduler(0);
+    // Execução contínua em segundo plano, sempre na mesma thread
+    private final MachineRunner runner;
 
     // Estados reativos
     private final BooleanProperty codeLoaded = new SimpleBooleanProperty(false);
@@ -51,6 +56,11 @@ public class Model {
         this.macroProcessor = new MacroProcessor();
         this.assembler = new Assembler();
         this.linker = new Linker();
+        this.runner = new MachineRunner(machine, scheduler);
+        // A saída da interface mostra os registradores e a memória alterados por instrução
+        machine.getControlUnit().getExecutionTrace().setEnabled(true);
+        // A execução pela interface é instrução a instrução e pode ser desfeita com "Voltar"
+        machine.getControlUnit().getUndoJournal().setEnabled(true);
     }
 
     /// Métodos de notificação
@@ -96,14 +106,30 @@ public class Model {
 
     public void setSimulationSpeed(int newSimulationSpeed) {
         if (newSimulationSpeed >= 0 && newSimulationSpeed <= 4) {
-            this.simulationSpeed = newSimulationSpeed;
+            setInstructionRate(Mapper.mapSimulationSpeedToInstructionRate(newSimulationSpeed));
         } else {
             throw new IllegalArgumentException("Velocidade inválida. Use 0 (tempo real), 1 (muito lento), 2 (lento), 3 (médio), ou 4 (rápido).");
         }
     }
 
-    public int getSimulationSpeed() {
-        return simulationSpeed;
+    /**
+     * Define a taxa alvo da execução contínua, em instruções por segundo (0 não limita).
+     * Vale também para uma execução em andamento.
+     */
+    public void setInstructionRate(long instructionsPerSecond) {
+        scheduler.setTargetRate(instructionsPerSecond);
+    }
+
+    public long getInstructionRate() {
+        return scheduler.getTargetRate();
+    }
+
+    public ExecutionScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public MachineRunner getRunner() {
+        return runner;
     }
 
     public void setMemorySize(int newMemorySize) {
@@ -155,7 +181,10 @@ public class Model {
 
     public void loadObjectFile(ObjectFile selectedFile) {
         if (selectedFile != null) {
+            runner.cancel();
             loader.load(selectedFile);
+            // O histórico do programa anterior não se aplica ao novo
+            machine.getControlUnit().getUndoJournal().clear();
             notifyListeners();  // Notifica os listeners quando um novo arquivo é carregado
         }
     }
@@ -178,7 +207,20 @@ public class Model {
         machine.runCycle();
     }
 
+    /**
+     * Volta a execução em até {@code count} instruções.
+     * @return O número de instruções efetivamente voltadas
+     */
+    public long stepBack(long count) {
+        long undone = machine.getControlUnit().stepBack(count);
+        if (undone > 0) {
+            setSimulationFinished(false);
+        }
+        return undone;
+    }
+
     public void reset() {
+        runner.cancel();
         machine.reset();
         assembler.reset();
         objectFileList.clear();
@@ -189,18 +231,6 @@ public class Model {
 
     ///  Métodos auxiliares
 
-    public void applyCycleDelay() {
-        if (simulationSpeed > 0) {
-            try {
-                long delay = Mapper.mapSimulationSpeedToCycleDelay(simulationSpeed);
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                System.err.println("Execução interrompida: " + e.getMessage());
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
     public void removeObjectFile(ObjectFile objectFile) {
         objectFileList.remove(objectFile);
     }
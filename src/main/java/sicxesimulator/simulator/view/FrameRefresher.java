@@ -0,0 +1,122 @@
+package sicxesimulator.simulator.view;
+
+import javafx.animation.AnimationTimer;
+import sicxesimulator.simulator.view.components.OutputConsole;
+import sicxesimulator.utils.LogRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Atualiza a interface no máximo uma vez por quadro durante a execução contínua.
+ *
+ * A thread da simulação apenas publica as linhas de saída e marca o estado como alterado;
+ * a cada quadro, na thread da interface, as linhas pendentes são anexadas de uma só vez e as
+ * tabelas são atualizadas uma única vez, independentemente de quantas instruções executaram.
+ * Assim a vazão de instruções não depende do custo de desenhar as tabelas.
+ *
+ * Quem não publica a cada instrução pode consultar {@link #takeFrameRequest()} e montar a
+ * saída apenas uma vez por quadro.
+ *
+ * As linhas pendentes também ficam em um buffer limitado: se a interface atrasar, as mais
+ * antigas são descartadas (e contadas no console) em vez de acumular na memória.
+ */
+public class FrameRefresher extends AnimationTimer {
+    private final LogRingBuffer pendingOutput;
+    private final OutputConsole console;
+    private final Runnable tableRefresh;
+    private volatile boolean dirty;
+    private volatile boolean frameRequested;
+
+    /**
+     * @param console      Console que recebe, a cada quadro, as linhas publicadas
+     * @param tableRefresh Atualiza as tabelas, na thread da interface
+     */
+    public FrameRefresher(OutputConsole console, Runnable tableRefresh) {
+        this.console = console;
+        this.tableRefresh = tableRefresh;
+        // Mais linhas pendentes do que cabem no console seriam descartadas de qualquer forma
+        this.pendingOutput = new LogRingBuffer(console.getBuffer().getCapacity());
+    }
+
+    /**
+     * Publica uma linha de saída. Pode ser chamado de qualquer thread.
+     */
+    public void publishOutput(String line) {
+        synchronized (pendingOutput) {
+            pendingOutput.add(line);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Publica várias linhas de saída de uma vez. Pode ser chamado de qualquer thread.
+     */
+    public void publishOutput(List<String> lines) {
+        synchronized (pendingOutput) {
+            for (String line : lines) {
+                pendingOutput.add(line);
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Indica se um quadro foi desenhado desde a última chamada, ou seja, se vale a pena
+     * publicar a saída agora. Pode ser chamado de qualquer thread.
+     */
+    public boolean takeFrameRequest() {
+        if (!frameRequested) {
+            return false;
+        }
+        frameRequested = false;
+        return true;
+    }
+
+    /**
+     * Indica que o estado da máquina mudou. Pode ser chamado de qualquer thread.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @Override
+    public void handle(long now) {
+        frameRequested = true;
+        flush();
+    }
+
+    /**
+     * Para as atualizações por quadro e aplica o que ainda estiver pendente.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        flush();
+    }
+
+    /**
+     * Aplica as linhas pendentes e atualiza as tabelas, se algo mudou desde o último quadro.
+     * Deve ser chamado na thread da interface.
+     */
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        List<String> lines;
+        long dropped;
+        synchronized (pendingOutput) {
+            lines = new ArrayList<>(pendingOutput.size());
+            for (int i = 0; i < pendingOutput.size(); i++) {
+                lines.add(pendingOutput.get(i));
+            }
+            dropped = pendingOutput.getDropped();
+            pendingOutput.clear();
+        }
+        if (!lines.isEmpty() || dropped > 0) {
+            console.appendAll(lines, dropped);
+        }
+        tableRefresh.run();
+    }
+}
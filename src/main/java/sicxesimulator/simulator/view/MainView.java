@@ -3,6 +3,7 @@ package sicxesimulator.simulator.view;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -12,12 +13,13 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import sicxesimulator.machine.cpu.Breakpoints;
 import sicxesimulator.models.ObjectFile;
 import sicxesimulator.simulator.controller.Controller;
 import sicxesimulator.simulator.model.Model;
+import sicxesimulator.simulator.view.components.OutputConsole;
 import sicxesimulator.simulator.view.components.SimulationToolbar;
 import sicxesimulator.simulator.view.components.tables.*;
-import sicxesimulator.simulator.view.records.MemoryEntry;
 import sicxesimulator.simulator.view.records.RegisterEntry;
 import sicxesimulator.simulator.view.records.SymbolEntry;
 import sicxesimulator.utils.Convert;
@@ -26,6 +28,7 @@ import sicxesimulator.utils.ViewConfig;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.IntConsumer;
 
 public class MainView extends javafx.application.Application {
     private static Model injectedModel;
@@ -41,16 +44,20 @@ public class MainView extends javafx.application.Application {
     // Áreas de texto (lado esquerdo)
     private TextArea inputArea;
     private TextArea macroOutArea;
-    private TextArea outputArea;
+    private OutputConsole outputConsole;
 
     // Componente para exibição dos ObjectFiles montados (TableView customizado)
     private ObjectFileTableView objectFileTableView;
 
     // Tabelas de Memória, Registradores e Símbolos
     private MemoryTableView memoryTable;
+    private MemoryTableModel memoryTableModel;
     private RegisterTableView registerTable;
     private SymbolTableView symbolTable;
 
+    // Atualização por quadro durante a execução contínua
+    private FrameRefresher frameRefresher;
+
     // Labels de status
     private Label executionSpeedLabel;
     private Label memorySizeLabel;
@@ -68,7 +75,21 @@ public class MainView extends javafx.application.Application {
 
         // Configurações de exibição
         viewConfig = model.getViewConfig();
-        viewConfig.addFormatChangeListener(newFormat -> updateAllTables());
+        // Os endereços mudam de formato: as linhas já criadas da tabela de memória são reformatadas
+        viewConfig.addFormatChangeListener(newFormat -> Platform.runLater(() -> {
+            if (memoryTableModel != null) {
+                memoryTableModel.refreshAddresses();
+            }
+            updateAllTables();
+        }));
+
+        // Console de saída limitado, atualizado uma vez por quadro durante a execução contínua
+        outputConsole = new OutputConsole(viewConfig.createConsoleBuffer());
+        frameRefresher = new FrameRefresher(outputConsole, () -> {
+            updateMemoryTable();
+            updateRegisterTable();
+            updateSymbolTable();
+        });
 
         // Cria o layout principal
         BorderPane root = new BorderPane();
@@ -234,14 +255,17 @@ public class MainView extends javafx.application.Application {
         rightPane.setPadding(new Insets(5));
 
         // Área de saída de mensagens
-        outputArea = new TextArea();
-        outputArea.setPromptText("Saída de mensagens...");
-        outputArea.setEditable(false);
-        outputArea.setStyle("-fx-font-family: Consolas; -fx-font-size: 14; -fx-text-fill: green;");
-        outputArea.setPrefHeight(500);
-        outputArea.setPrefWidth(550);
-        TitledPane outputTitled = new TitledPane("Saída de Mensagens", outputArea);
+        outputConsole.setPlaceholder(new Label("Saída de mensagens..."));
+        outputConsole.setStyle("-fx-font-family: Consolas; -fx-font-size: 14; -fx-text-fill: green;");
+        outputConsole.setPrefHeight(500);
+        outputConsole.setPrefWidth(550);
+        TitledPane outputTitled = new TitledPane("Saída de Mensagens", outputConsole);
         outputTitled.setCollapsible(false);
+        // Informa no título quantas linhas antigas deixaram de ser exibidas
+        outputConsole.droppedLinesProperty().addListener((obs, oldValue, dropped) ->
+                outputTitled.setText(dropped.longValue() == 0
+                        ? "Saída de Mensagens"
+                        : "Saída de Mensagens (" + dropped + " linhas descartadas)"));
 
         // Botões de execução: Executar, Pausar, Próximo
         HBox executionControls = simulationToolbar.getExecutionControls();
@@ -269,7 +293,7 @@ public class MainView extends javafx.application.Application {
     }
 
     private HBox createBottomBar() {
-        executionSpeedLabel = new Label("Atraso de ciclo: ");
+        executionSpeedLabel = new Label("Velocidade: ");
         memorySizeLabel = new Label("Memória: ");
         viewFormatLabel = new Label("Formato: ");
 
@@ -316,7 +340,18 @@ public class MainView extends javafx.application.Application {
         Menu executionMenu = new Menu("Execução");
         MenuItem executionSpeedItem = new MenuItem("Velocidade de execução");
         executionSpeedItem.setOnAction(e -> showExecutionSpeedDialog());
-        executionMenu.getItems().add(executionSpeedItem);
+        MenuItem breakpointItem = new MenuItem("Alternar ponto de parada");
+        breakpointItem.setOnAction(e -> showAddressDialog("Ponto de Parada", controller::handleToggleBreakpointAction));
+        MenuItem writeWatchItem = new MenuItem("Alternar observação de escrita");
+        writeWatchItem.setOnAction(e -> showAddressDialog("Observação de Escrita",
+                address -> controller.handleToggleWatchpointAction(address, Breakpoints.Kind.WRITE)));
+        MenuItem readWatchItem = new MenuItem("Alternar observação de leitura");
+        readWatchItem.setOnAction(e -> showAddressDialog("Observação de Leitura",
+                address -> controller.handleToggleWatchpointAction(address, Breakpoints.Kind.READ)));
+        MenuItem clearBreakpointsItem = new MenuItem("Remover pontos de parada");
+        clearBreakpointsItem.setOnAction(e -> controller.handleClearBreakpointsAction());
+        executionMenu.getItems().addAll(executionSpeedItem, new SeparatorMenuItem(),
+                breakpointItem, writeWatchItem, readWatchItem, clearBreakpointsItem);
 
         // Menu "Exibição"
         Menu viewMenu = new Menu("Exibição");
@@ -395,7 +430,7 @@ public class MainView extends javafx.application.Application {
         showWelcomeMessage();
         updateAllTables();
         updateViewFormatLabel();
-        updateCycleDelayLabel();
+        updateInstructionRateLabel();
         updateMemorySizeLabel();
     }
 
@@ -409,8 +444,8 @@ public class MainView extends javafx.application.Application {
         return inputArea;
     }
 
-    public TextArea getOutputArea() {
-        return outputArea;
+    public OutputConsole getOutputArea() {
+        return outputConsole;
     }
 
     public TextArea getMacroArea() {
@@ -455,10 +490,17 @@ public class MainView extends javafx.application.Application {
         });
     }
 
+    /**
+     * Atualiza no lugar as linhas das palavras escritas desde a última atualização. A tabela
+     * só troca de modelo quando a memória da máquina é substituída.
+     */
     public void updateMemoryTable() {
-        memoryTable.getItems().clear();
-        List<MemoryEntry> entries = controller.getMemoryEntries();
-        memoryTable.getItems().addAll(entries);
+        if (memoryTableModel == null || memoryTableModel.getMemory() != controller.getMemory()) {
+            memoryTableModel = controller.createMemoryTableModel();
+            memoryTable.setItems(memoryTableModel);
+        } else {
+            memoryTableModel.refreshChanged();
+        }
     }
 
     public void updateRegisterTable() {
@@ -477,7 +519,7 @@ public class MainView extends javafx.application.Application {
 
     public void updateAllLabels() {
         updateViewFormatLabel();
-        updateCycleDelayLabel();
+        updateInstructionRateLabel();
         updateMemorySizeLabel();
     }
 
@@ -485,8 +527,8 @@ public class MainView extends javafx.application.Application {
         Platform.runLater(() -> viewFormatLabel.setText("Formato: " + viewConfig.getAddressFormat()));
     }
 
-    public void updateCycleDelayLabel() {
-        Platform.runLater(() -> executionSpeedLabel.setText("Atraso de ciclo: " + controller.getCycleDelay()));
+    public void updateInstructionRateLabel() {
+        Platform.runLater(() -> executionSpeedLabel.setText("Velocidade: " + controller.getInstructionRate()));
     }
 
     public void updateMemorySizeLabel() {
@@ -495,7 +537,7 @@ public class MainView extends javafx.application.Application {
 
 
     public void clearOutputArea() {
-        outputArea.clear();
+        outputConsole.clear();
     }
 
     public void clearMacroOutArea() {
@@ -503,7 +545,8 @@ public class MainView extends javafx.application.Application {
     }
 
     public void clearTables() {
-        memoryTable.getItems().clear();
+        memoryTableModel = null;
+        memoryTable.setItems(FXCollections.observableArrayList());
         registerTable.getItems().clear();
         symbolTable.getItems().clear();
     }
@@ -515,13 +558,17 @@ public class MainView extends javafx.application.Application {
     }
 
     public void showExecutionSpeedDialog() {
-        List<String> options = Arrays.asList("Tempo real", "Rápido", "Médio", "Lento", "Muito lento");
+        List<String> options = Arrays.asList("Tempo real", "Rápido", "Médio", "Lento", "Muito lento", "Personalizada");
         Optional<String> result = DialogUtil.showChoiceDialog(
                 "Velocidade de Execução",
                 "Selecione a velocidade de execução:",
                 "Velocidade:",
                 options);
         result.ifPresent(selected -> {
+            if (selected.equals("Personalizada")) {
+                showInstructionRateDialog();
+                return;
+            }
             int speedValue = switch (selected) {
                 case "Rápido" -> 4;
                 case "Médio" -> 3;
@@ -530,15 +577,28 @@ public class MainView extends javafx.application.Application {
                 default -> 0;
             };
             controller.handleChangeRunningSpeedAction(speedValue);
-            String delayInMs = switch (speedValue) {
-                case 0 -> "Tempo real";
-                case 1 -> "1000ms";
-                case 2 -> "500ms";
-                case 3 -> "250ms";
-                case 4 -> "100ms";
-                default -> "Erro na velocidade.";
-            };
-            executionSpeedLabel.setText("Atraso de ciclo: " + delayInMs);
+            updateInstructionRateLabel();
+        });
+    }
+
+    private void showInstructionRateDialog() {
+        Optional<String> result = DialogUtil.showTextInputDialog(
+                "Velocidade de Execução",
+                "Defina a velocidade de execução",
+                "Instruções por segundo (0 para tempo real):",
+                "1000");
+        result.ifPresent(input -> {
+            try {
+                long rate = Long.parseLong(input.trim());
+                if (rate < 0) {
+                    DialogUtil.showErrorDialog("Valor Inválido", "Velocidade de Execução", "O valor não pode ser negativo!");
+                    return;
+                }
+                controller.handleChangeInstructionRateAction(rate);
+                updateInstructionRateLabel();
+            } catch (NumberFormatException e) {
+                DialogUtil.showErrorDialog("Valor Inválido", "Velocidade de Execução", "Digite um número inteiro!");
+            }
         });
     }
 
@@ -564,6 +624,24 @@ public class MainView extends javafx.application.Application {
         });
     }
 
+    /**
+     * Pede um endereço em hexadecimal (em bytes) e o repassa à ação.
+     */
+    private void showAddressDialog(String title, IntConsumer action) {
+        Optional<String> result = DialogUtil.showTextInputDialog(
+                title,
+                "Informe o endereço",
+                "Endereço (hexadecimal, em bytes):",
+                "");
+        result.ifPresent(input -> {
+            try {
+                action.accept(Integer.parseInt(input.trim(), 16));
+            } catch (NumberFormatException ex) {
+                DialogUtil.showErrorDialog("Erro", "Valor Inválido", "Por favor, insira um endereço hexadecimal.");
+            }
+        });
+    }
+
     public void showWelcomeMessage() {
         String welcomeMessage = """
     ╔══════════════════════════════════════╗
@@ -591,7 +669,52 @@ public class MainView extends javafx.application.Application {
     /// MÉTODOS DE CONTROLE DE COMPONENTES
 
     public void appendOutput(String message) {
-        Platform.runLater(() -> outputArea.appendText("> " + message + "\n"));
+        Platform.runLater(() -> outputConsole.append(message));
+    }
+
+    /// EXECUÇÃO CONTÍNUA
+
+    /**
+     * Passa a atualizar a saída e as tabelas uma vez por quadro, com o que a simulação publicar.
+     */
+    public void startFrameRefresh() {
+        Platform.runLater(frameRefresher::start);
+    }
+
+    /**
+     * Encerra as atualizações por quadro, aplicando o que ainda estiver pendente.
+     */
+    public void stopFrameRefresh() {
+        Platform.runLater(() -> {
+            frameRefresher.stop();
+            // A execução parou: a tabela de memória é sincronizada por inteiro com a memória
+            if (memoryTableModel != null && memoryTableModel.getMemory() == controller.getMemory()) {
+                memoryTableModel.refreshAll();
+            }
+        });
+    }
+
+    /**
+     * Publica uma linha de saída da execução contínua, exibida no próximo quadro.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void publishOutput(String message) {
+        frameRefresher.publishOutput(message);
+    }
+
+    /**
+     * Publica várias linhas de saída da execução contínua, exibidas no próximo quadro.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void publishOutput(List<String> lines) {
+        frameRefresher.publishOutput(lines);
+    }
+
+    /**
+     * Indica se um quadro foi desenhado desde a última chamada. Pode ser chamado de qualquer thread.
+     */
+    public boolean takeFrameRequest() {
+        return frameRefresher.takeFrameRequest();
     }
 
 
@@ -0,0 +1,149 @@
+package sicxesimulator.simulator.view.components;
+
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import sicxesimulator.utils.LogRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Console de saída com número limitado de linhas.
+ *
+ * As linhas ficam em um {@link LogRingBuffer}, e a lista exibida é uma visão virtual sobre ele:
+ * o {@link ListView} só cria células para as linhas visíveis, e cada lote de linhas anexadas
+ * gera uma única notificação de alteração. Uma execução longa, ou que nunca termina, ocupa no
+ * máximo a capacidade do buffer.
+ */
+public final class OutputConsole extends ListView<String> {
+
+    // Altura fixa das linhas: a lista não precisa medir linhas ao rolar
+    private static final double ROW_HEIGHT = 20;
+
+    private final LogRingBuffer buffer;
+    private final Lines lines = new Lines();
+    private final ReadOnlyLongWrapper droppedLines = new ReadOnlyLongWrapper(this, "droppedLines");
+
+    public OutputConsole(LogRingBuffer buffer) {
+        this.buffer = buffer;
+        setItems(lines);
+        setFixedCellSize(ROW_HEIGHT);
+        setCellFactory(view -> new ListCell<>() {
+            @Override
+            protected void updateItem(String line, boolean empty) {
+                super.updateItem(line, empty);
+                setText(empty || line == null ? null : "> " + line);
+            }
+        });
+    }
+
+    /**
+     * Anexa uma mensagem; mensagens com várias linhas ocupam uma linha do console para cada.
+     * Deve ser chamado na thread da interface.
+     */
+    public void append(String message) {
+        appendAll(List.of(message), 0);
+    }
+
+    /**
+     * Anexa um lote de mensagens com uma única notificação à lista.
+     * Deve ser chamado na thread da interface.
+     * @param messages Mensagens, na ordem em que foram produzidas
+     * @param dropped  Mensagens já descartadas antes de chegar ao console
+     */
+    public void appendAll(List<String> messages, long dropped) {
+        int oldSize = buffer.size();
+        // Linhas antigas substituídas pelas novas, da mais antiga para a mais recente
+        List<String> evicted = new ArrayList<>();
+        int stored = 0;
+        for (String message : messages) {
+            for (String line : message.split("\n", -1)) {
+                String head = buffer.size() == buffer.getCapacity() ? buffer.get(0) : null;
+                if (buffer.add(line)) {
+                    stored++;
+                    // Só as linhas que a lista já exibia entram na notificação de remoção
+                    if (head != null && evicted.size() < oldSize) {
+                        evicted.add(head);
+                    }
+                }
+            }
+        }
+        buffer.addDropped(dropped);
+        lines.appended(oldSize, stored, evicted);
+        droppedLines.set(buffer.getDropped());
+        if (buffer.size() > 0) {
+            scrollTo(buffer.size() - 1);
+        }
+    }
+
+    /**
+     * Remove todas as linhas.
+     */
+    public void clear() {
+        List<String> previous = snapshot();
+        buffer.clear();
+        lines.cleared(previous);
+        droppedLines.set(0);
+    }
+
+    /**
+     * Número de linhas descartadas por falta de espaço desde a última limpeza.
+     */
+    public ReadOnlyLongProperty droppedLinesProperty() {
+        return droppedLines.getReadOnlyProperty();
+    }
+
+    public LogRingBuffer getBuffer() {
+        return buffer;
+    }
+
+    private List<String> snapshot() {
+        List<String> copy = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            copy.add(buffer.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Visão do buffer como lista observável.
+     */
+    private class Lines extends ObservableListBase<String> {
+
+        @Override
+        public String get(int index) {
+            return buffer.get(index);
+        }
+
+        @Override
+        public int size() {
+            return buffer.size();
+        }
+
+        void appended(int oldSize, int stored, List<String> evicted) {
+            if (stored == 0) {
+                return;
+            }
+            // Remoção das linhas mais antigas e inclusão das novas no final, sem repassar
+            // as linhas que apenas mudaram de posição
+            beginChange();
+            if (!evicted.isEmpty()) {
+                nextRemove(0, evicted);
+            }
+            nextAdd(oldSize - evicted.size(), buffer.size());
+            endChange();
+        }
+
+        void cleared(List<String> previous) {
+            if (previous.isEmpty()) {
+                return;
+            }
+            beginChange();
+            nextRemove(0, previous);
+            endChange();
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class SimulationToolbar extends HBox {
     protected Button runButton;
     protected Button pauseButton;
     protected Button nextButton;
+    protected Button backButton;
     protected Button assembleButton;
     protected Button loadButton;
     protected Button linkButton;
@@ -74,7 +75,7 @@ public class SimulationToolbar extends HBox {
     }
 
     /**
-     * Cria o HBox que contém os controles de execução. (Executar, Pausar, Próximo, Carregar)
+     * Cria o HBox que contém os controles de execução. (Executar, Pausar, Próximo, Voltar, Carregar)
      * É utilizado para criar o layout da interface gráfica exclusivamente dentro do construtor da classe.
      * @return HBox com os controles de execução
      */
@@ -88,10 +89,13 @@ public class SimulationToolbar extends HBox {
         nextButton = new Button("Próximo");
         nextButton.setOnAction(e -> controller.handleNextAction());
 
+        backButton = new Button("Voltar");
+        backButton.setOnAction(e -> controller.handleStepBackAction());
+
         loadButton = new Button("Carregar");
         loadButton.setOnAction(e -> controller.handleLoadObjectFileAction());
 
-        HBox executionControls = new HBox(10, runButton, pauseButton, nextButton, loadButton);
+        HBox executionControls = new HBox(10, runButton, pauseButton, nextButton, backButton, loadButton);
         executionControls.setAlignment(Pos.CENTER);
         return executionControls;
     }
@@ -153,6 +157,8 @@ public class SimulationToolbar extends HBox {
         runButton.disableProperty().bind(executionAllowed.not());
         pauseButton.disableProperty().bind(executionAllowed.not());
         nextButton.disableProperty().bind(executionAllowed.not());
+        // Voltar também é possível depois do fim do programa
+        backButton.disableProperty().bind(controller.getCodeLoadedProperty().not());
     }
 
     /**
@@ -164,7 +170,7 @@ public class SimulationToolbar extends HBox {
     }
 
     /**
-     * Retorna o HBox que contém os controles de execução. (Executar, Pausar, Próximo, Carregar)
+     * Retorna o HBox que contém os controles de execução. (Executar, Pausar, Próximo, Voltar, Carregar)
      * @return HBox com os controles de execução
      */
     public HBox getExecutionControls() {
@@ -0,0 +1,46 @@
+package sicxesimulator.simulator.view.components.tables;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+/**
+ * Linha da tabela de memória: uma palavra, identificada pelo seu índice. A linha é criada
+ * uma única vez por {@link MemoryTableModel} e atualizada no lugar quando a palavra muda.
+ */
+public class MemoryTableItem {
+    private final int wordIndex;
+    private final ReadOnlyStringWrapper address = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper value = new ReadOnlyStringWrapper();
+
+    MemoryTableItem(int wordIndex) {
+        this.wordIndex = wordIndex;
+    }
+
+    public int getWordIndex() {
+        return wordIndex;
+    }
+
+    public String getAddress() {
+        return address.get();
+    }
+
+    public ReadOnlyStringProperty addressProperty() {
+        return address.getReadOnlyProperty();
+    }
+
+    public String getValue() {
+        return value.get();
+    }
+
+    public ReadOnlyStringProperty valueProperty() {
+        return value.getReadOnlyProperty();
+    }
+
+    void setAddress(String address) {
+        this.address.set(address);
+    }
+
+    void setValue(String value) {
+        this.value.set(value);
+    }
+}
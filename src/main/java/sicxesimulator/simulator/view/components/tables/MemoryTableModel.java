@@ -0,0 +1,102 @@
+package sicxesimulator.simulator.view.components.tables;
+
+import javafx.collections.ObservableListBase;
+import sicxesimulator.machine.Memory;
+import sicxesimulator.utils.Convert;
+
+import java.util.function.IntFunction;
+
+/**
+ * Lista virtual de linhas da tabela de memória, lida diretamente de {@link Memory}.
+ *
+ * A tabela só pede as linhas visíveis, e cada linha é criada na primeira vez em que é pedida
+ * e reaproveitada depois. Nas atualizações, apenas as palavras escritas desde a anterior
+ * (segundo as épocas de escrita da memória) têm o valor refeito, no próprio objeto da linha;
+ * a lista em si nunca é reconstruída. Quando a execução para, {@link #refreshAll()} relê
+ * todas as linhas criadas, sem depender das épocas.
+ */
+public class MemoryTableModel extends ObservableListBase<MemoryTableItem> {
+    private final Memory memory;
+    private final IntFunction<String> addressFormatter;
+    private final MemoryTableItem[] items;
+    private int epoch;
+
+    /**
+     * @param memory           Memória exibida
+     * @param addressFormatter Formata o endereço em bytes de cada linha
+     */
+    public MemoryTableModel(Memory memory, IntFunction<String> addressFormatter) {
+        this.memory = memory;
+        this.addressFormatter = addressFormatter;
+        this.items = new MemoryTableItem[memory.getAddressRange()];
+        this.epoch = memory.advanceEpoch();
+    }
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    @Override
+    public MemoryTableItem get(int index) {
+        MemoryTableItem item = items[index];
+        if (item == null) {
+            item = new MemoryTableItem(index);
+            item.setAddress(addressFormatter.apply(index * 3));
+            item.setValue(valueOf(index));
+            items[index] = item;
+        }
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Atualiza o valor das linhas já criadas cujas palavras foram escritas desde a última
+     * atualização. As demais serão lidas da memória quando forem exibidas.
+     */
+    public void refreshChanged() {
+        int since = epoch;
+        epoch = memory.advanceEpoch();
+        // Escritas concorrentes com o avanço anterior podem ter ficado com a época encerrada
+        // por ele: a consulta a inclui, e essas palavras são apenas relidas mais uma vez
+        for (int wordIndex : memory.changedWordsSince(since - 1)) {
+            MemoryTableItem item = items[wordIndex];
+            if (item != null) {
+                item.setValue(valueOf(wordIndex));
+            }
+        }
+    }
+
+    /**
+     * Relê da memória o valor de todas as linhas já criadas. Chamado quando a execução para,
+     * para que a tabela mostre o estado final mesmo que alguma escrita feita na thread de
+     * execução não tenha sido vista pelas atualizações por época.
+     */
+    public void refreshAll() {
+        epoch = memory.advanceEpoch();
+        for (MemoryTableItem item : items) {
+            if (item != null) {
+                item.setValue(valueOf(item.getWordIndex()));
+            }
+        }
+    }
+
+    /**
+     * Reformata o endereço das linhas já criadas, após uma mudança do formato de exibição.
+     */
+    public void refreshAddresses() {
+        for (MemoryTableItem item : items) {
+            if (item != null) {
+                item.setAddress(addressFormatter.apply(item.getWordIndex() * 3));
+            }
+        }
+    }
+
+    private String valueOf(int wordIndex) {
+        // Sem notificar leituras: a exibição não deve contar como acesso do programa
+        return Convert.bytesToHex(memory.peekWord(wordIndex));
+    }
+}
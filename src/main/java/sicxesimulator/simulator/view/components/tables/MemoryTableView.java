@@ -1,20 +1,28 @@
 package sicxesimulator.simulator.view.components.tables;
 
 import javafx.scene.control.TableColumn;
-import sicxesimulator.simulator.view.records.MemoryEntry;
 
-public class MemoryTableView extends BaseTableView<MemoryEntry> {
+public final class MemoryTableView extends BaseTableView<MemoryTableItem> {
+
+    // Altura fixa das linhas: a tabela não precisa medir linhas ao rolar por toda a memória
+    private static final double ROW_HEIGHT = 24;
 
     public MemoryTableView() {
         super("Endereço", "Valor");
+        this.setFixedCellSize(ROW_HEIGHT);
     }
 
     @Override
     protected void createColumns(String[] columnTitles) {
-        TableColumn<MemoryEntry, String> addressCol = createColumn(columnTitles[0], "address");
-        TableColumn<MemoryEntry, String> valueCol = createColumn(columnTitles[1], "value");
+        // As células observam as propriedades da linha, atualizadas no lugar pelo MemoryTableModel
+        TableColumn<MemoryTableItem, String> addressCol = new TableColumn<>(columnTitles[0]);
+        addressCol.setCellValueFactory(cellData -> cellData.getValue().addressProperty());
+        TableColumn<MemoryTableItem, String> valueCol = new TableColumn<>(columnTitles[1]);
+        valueCol.setCellValueFactory(cellData -> cellData.getValue().valueProperty());
+        addressCol.setSortable(false);
+        valueCol.setSortable(false);
 
         //noinspection unchecked
         this.getColumns().addAll(addressCol, valueCol);
     }
-}
\ No newline at end of file
+}
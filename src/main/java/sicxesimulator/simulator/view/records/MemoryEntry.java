@@ -1,3 +0,0 @@
-package sicxesimulator.simulator.view.records;
-
-public record MemoryEntry(String address, String value) {}
\ No newline at end of file
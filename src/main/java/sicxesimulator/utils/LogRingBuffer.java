@@ -0,0 +1,122 @@
+package sicxesimulator.utils;
+
+import java.util.Arrays;
+
+/**
+ * Buffer circular de linhas de log com capacidade fixa.
+ *
+ * Enquanto há espaço, todas as linhas são guardadas. Cheio, o buffer segue a política de
+ * transbordo: {@link OverflowPolicy#DROP_OLDEST} substitui sempre a linha mais antiga, e
+ * {@link OverflowPolicy#SAMPLE} guarda apenas uma a cada {@code sampleInterval} linhas novas
+ * (também no lugar da mais antiga). As linhas não guardadas ou substituídas são contadas em
+ * {@link #getDropped()}. A memória ocupada nunca passa da capacidade, por mais longa que seja
+ * a execução.
+ *
+ * Não é sincronizado.
+ */
+public class LogRingBuffer {
+
+    public enum OverflowPolicy {
+        /** Mantém as linhas mais recentes, descartando as mais antigas. */
+        DROP_OLDEST,
+        /** Depois de cheio, guarda uma amostra das linhas novas, no lugar das mais antigas. */
+        SAMPLE
+    }
+
+    private final String[] lines;
+    private final OverflowPolicy policy;
+    private final int sampleInterval;
+    private int head;
+    private int size;
+    private long dropped;
+    private long overflowCount;
+
+    /**
+     * @param capacity       Número máximo de linhas guardadas
+     * @param policy         Política aplicada quando o buffer está cheio
+     * @param sampleInterval Com {@link OverflowPolicy#SAMPLE}, guarda uma a cada tantas linhas novas
+     */
+    public LogRingBuffer(int capacity, OverflowPolicy policy, int sampleInterval) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade deve ser positiva.");
+        }
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("O intervalo de amostragem deve ser positivo.");
+        }
+        this.lines = new String[capacity];
+        this.policy = policy;
+        this.sampleInterval = sampleInterval;
+    }
+
+    public LogRingBuffer(int capacity) {
+        this(capacity, OverflowPolicy.DROP_OLDEST, 1);
+    }
+
+    /**
+     * Adiciona uma linha ao final.
+     * @return true se a linha foi guardada, false se foi descartada pela amostragem
+     */
+    public boolean add(String line) {
+        if (size < lines.length) {
+            lines[(head + size) % lines.length] = line;
+            size++;
+            return true;
+        }
+        // Cheio: a linha nova é descartada ou substitui a mais antiga
+        dropped++;
+        if (policy == OverflowPolicy.SAMPLE && overflowCount++ % sampleInterval != 0) {
+            return false;
+        }
+        lines[head] = line;
+        head = (head + 1) % lines.length;
+        return true;
+    }
+
+    /**
+     * Retorna a linha na posição informada, da mais antiga (0) para a mais recente.
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice de linha inválido: " + index);
+        }
+        return lines[(head + index) % lines.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Número de linhas descartadas ou substituídas desde a criação ou o último {@link #clear()}.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Contabiliza linhas descartadas antes de chegarem ao buffer.
+     */
+    public void addDropped(long count) {
+        dropped += count;
+    }
+
+    public void clear() {
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+        dropped = 0;
+        overflowCount = 0;
+    }
+}
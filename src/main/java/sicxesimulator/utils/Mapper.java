@@ -2,6 +2,7 @@ package sicxesimulator.utils;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -75,13 +76,33 @@ public abstract class Mapper {
 
     // Mappers
 
-    public static int mapSimulationSpeedToCycleDelay(int simulationSpeeed) {
-        return switch (simulationSpeeed) {
-            case 1 -> 1000;
-            case 2 -> 500;
-            case 3 -> 250;
-            case 4 -> 100;
+    /**
+     * Taxa em instruções por segundo de cada nível de velocidade predefinido, equivalente ao
+     * antigo atraso fixo por instrução (1000, 500, 250 e 100 ms). O nível 0 não limita.
+     */
+    public static long mapSimulationSpeedToInstructionRate(int simulationSpeed) {
+        return switch (simulationSpeed) {
+            case 1 -> 1;
+            case 2 -> 2;
+            case 3 -> 4;
+            case 4 -> 10;
             default -> 0;
         };
     }
+
+    /**
+     * Texto de uma taxa de execução, ex.: "Tempo real", "10 instr/s", "2,5 MIPS".
+     */
+    public static String formatInstructionRate(long instructionsPerSecond) {
+        if (instructionsPerSecond == 0) {
+            return "Tempo real";
+        }
+        if (instructionsPerSecond >= 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f MIPS", instructionsPerSecond / 1_000_000.0).replace('.', ',');
+        }
+        if (instructionsPerSecond >= 1_000) {
+            return String.format(Locale.ROOT, "%.1f mil instr/s", instructionsPerSecond / 1_000.0).replace('.', ',');
+        }
+        return instructionsPerSecond + " instr/s";
+    }
 }
@@ -5,6 +5,11 @@ import java.util.List;
 
 public class ViewConfig {
     private String addressFormat = "HEX";
+
+    // Console de saída: número máximo de linhas guardadas e o que fazer quando está cheio
+    private int consoleCapacity = 10_000;
+    private LogRingBuffer.OverflowPolicy consoleOverflowPolicy = LogRingBuffer.OverflowPolicy.DROP_OLDEST;
+    private int consoleSampleInterval = 100;
     private final List<FormatChangeListener> listeners = new ArrayList<>();
 
     public interface FormatChangeListener {
@@ -23,4 +28,35 @@ public class ViewConfig {
     public String getAddressFormat() {
         return addressFormat;
     }
+
+    public int getConsoleCapacity() {
+        return consoleCapacity;
+    }
+
+    public void setConsoleCapacity(int consoleCapacity) {
+        this.consoleCapacity = consoleCapacity;
+    }
+
+    public LogRingBuffer.OverflowPolicy getConsoleOverflowPolicy() {
+        return consoleOverflowPolicy;
+    }
+
+    public void setConsoleOverflowPolicy(LogRingBuffer.OverflowPolicy consoleOverflowPolicy) {
+        this.consoleOverflowPolicy = consoleOverflowPolicy;
+    }
+
+    public int getConsoleSampleInterval() {
+        return consoleSampleInterval;
+    }
+
+    public void setConsoleSampleInterval(int consoleSampleInterval) {
+        this.consoleSampleInterval = consoleSampleInterval;
+    }
+
+    /**
+     * Cria um buffer de linhas com a capacidade e a política de transbordo configuradas.
+     */
+    public LogRingBuffer createConsoleBuffer() {
+        return new LogRingBuffer(consoleCapacity, consoleOverflowPolicy, consoleSampleInterval);
+    }
 }
@@ -0,0 +1,132 @@
+package sicxesimulator.logger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+public class AsyncLogWriterTest {
+
+    @Test
+    public void testQueueIsBoundedAndFifo() {
+        LogQueue<Integer> queue = new LogQueue<>(3);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testWritesFormattedRecordsOnFlush() throws IOException {
+        Path directory = Files.createTempDirectory("sicxe-log");
+        try {
+            AsyncLogWriter writer = new AsyncLogWriter(directory, new String[]{"execution", "error"}, 16, 1 << 20, 2);
+            writer.setOverflowPolicy(AsyncLogWriter.OverflowPolicy.BLOCK, 1);
+            for (int i = 0; i < 1000; i++) {
+                writer.log(0, Level.INFO, "PC: %06X", new Object[]{i * 3}, null, false);
+            }
+            writer.log(1, Level.SEVERE, "Falha", null, new IllegalStateException("teste"), true);
+            writer.flush();
+
+            String execution = Files.readString(directory.resolve("execution.log.0"), StandardCharsets.UTF_8);
+            assertEquals(1000, execution.lines().count());
+            assertTrue(execution.contains("INFO: PC: 000000"));
+            assertTrue(execution.contains("INFO: PC: 000BB5"));
+            String error = Files.readString(directory.resolve("error.log.0"), StandardCharsets.UTF_8);
+            assertTrue(error.contains("SEVERE: Falha"));
+            assertTrue(error.contains("IllegalStateException: teste"));
+            assertEquals(0, writer.getDropped());
+
+            // Depois de fechado, os registros são descartados
+            writer.close();
+            writer.log(0, Level.INFO, "tarde demais", null, null, false);
+            assertEquals(1, writer.getDropped());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testInvalidRecordsDoNotStopTheWriter() throws IOException {
+        Path directory = Files.createTempDirectory("sicxe-log");
+        try {
+            AsyncLogWriter writer = new AsyncLogWriter(directory, new String[]{"execution"}, 16, 1 << 20, 1);
+            Object failing = new Object() {
+                @Override
+                public String toString() {
+                    throw new IllegalStateException("toString");
+                }
+            };
+            Throwable broken = new RuntimeException() {
+                @Override
+                public void printStackTrace(PrintWriter s) {
+                    throw new IllegalStateException("pilha");
+                }
+            };
+            writer.log(0, Level.INFO, "PC: %d", new Object[]{"texto"}, null, false);
+            writer.log(0, Level.INFO, "Valor: %s", new Object[]{failing}, null, false);
+            writer.log(0, Level.SEVERE, "Falha", null, broken, true);
+            writer.log(0, Level.INFO, "PC: %06X", new Object[]{3}, null, false);
+            writer.flush();
+
+            String execution = Files.readString(directory.resolve("execution.log.0"), StandardCharsets.UTF_8);
+            assertEquals(4, execution.lines().count());
+            assertTrue(execution.contains("INFO: PC: %d [formato inválido: "));
+            assertTrue(execution.contains("INFO: Valor: %s [formato inválido: java.lang.IllegalStateException]"));
+            assertTrue(execution.contains("SEVERE: Registro não pôde ser escrito: java.lang.IllegalStateException"));
+            assertTrue(execution.contains("INFO: PC: 000003"));
+
+            // A thread de escrita continua viva: novos registros ainda chegam ao arquivo
+            writer.log(0, Level.INFO, "depois", null, null, false);
+            writer.close();
+            execution = Files.readString(directory.resolve("execution.log.0"), StandardCharsets.UTF_8);
+            assertTrue(execution.contains("INFO: depois"));
+            assertEquals(0, writer.getDropped());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testRotatesFilesAtLimit() throws IOException {
+        Path directory = Files.createTempDirectory("sicxe-log");
+        try (AsyncLogWriter writer = new AsyncLogWriter(directory, new String[]{"machine"}, 64, 200, 3)) {
+            writer.setOverflowPolicy(AsyncLogWriter.OverflowPolicy.BLOCK, 1);
+            for (int i = 0; i < 20; i++) {
+                writer.log(0, Level.INFO, "registro número " + i, null, null, false);
+            }
+            writer.flush();
+            assertTrue(Files.size(directory.resolve("machine.log.0")) <= 200);
+            assertTrue(Files.exists(directory.resolve("machine.log.1")));
+            assertTrue(Files.exists(directory.resolve("machine.log.2")));
+            assertFalse(Files.exists(directory.resolve("machine.log.3")));
+            // O registro mais recente está no arquivo atual
+            assertTrue(Files.readString(directory.resolve("machine.log.0")).contains("registro número 19"));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -3,8 +3,23 @@ package sicxesimulator.machine;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import sicxesimulator.machine.cpu.BasicBlock;
+import sicxesimulator.machine.cpu.Breakpoints;
 import sicxesimulator.machine.cpu.ControlUnit;
+import sicxesimulator.machine.cpu.ExecutionTrace;
+import sicxesimulator.machine.cpu.IllegalInstructionException;
+import sicxesimulator.machine.cpu.InstructionSet;
+import sicxesimulator.machine.cpu.Profiler;
 import sicxesimulator.machine.cpu.RegisterSet;
+import sicxesimulator.machine.cpu.SuperinstructionFuser;
+import sicxesimulator.machine.cpu.TraceEvent;
+import sicxesimulator.machine.cpu.UndoJournal;
+import sicxesimulator.models.SymbolTable;
+import sicxesimulator.utils.Mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class ControlUnitTest {
 
@@ -45,5 +60,540 @@ public class ControlUnitTest {
         assertEquals(expectedValue, regAValue);
     }
 
+    @Test
+    public void testPreviouslyUnreachableOpcodesAreDispatched() {
+        // LDX (0x04 | n i = 0x07) com endereço absoluto 9, seguida de STSW (0xE8 | 0x03) em 12
+        memory.writeWord(0, new byte[]{0x07, 0x00, 0x09});
+        memory.writeWord(1, new byte[]{(byte) 0xEB, 0x00, 0x0C});
+        memory.writeWord(9 / 3, new byte[]{0x00, 0x00, 0x2A});
+        registers.getRegister("SW").setValue(2);
+
+        controlUnit.step();
+        controlUnit.step();
+
+        assertEquals(0x2A, registers.getRegister("X").getIntValue());
+        assertArrayEquals(new byte[]{0x00, 0x00, 0x02}, memory.readWord(12 / 3));
+    }
+
+    @Test
+    public void testUnknownOpcodeHitsFaultHandler() {
+        memory.writeWord(0, new byte[]{(byte) 0xFF, 0x00, 0x00});
+
+        IllegalInstructionException fault = assertThrows(IllegalInstructionException.class, controlUnit::step);
+        assertEquals(0xFC, fault.getOpcode());
+        assertEquals(0, fault.getAddress());
+    }
+
+    @Test
+    public void testFormat1OpcodesOccupyAllVariants() {
+        for (int opcode : new int[]{0xC0, 0xC4, 0xC8, 0xF0, 0xF8}) {
+            // O próprio opcode é formato 1; as variantes com n e i usam o leiaute do montador
+            assertEquals(1, InstructionSet.format(opcode));
+            for (int firstByte = opcode + 1; firstByte <= (opcode | 3); firstByte++) {
+                assertEquals(3, InstructionSet.format(firstByte));
+                assertEquals(InstructionSet.mnemonic(opcode), InstructionSet.mnemonic(firstByte));
+                assertSame(InstructionSet.handler(opcode), InstructionSet.handler(firstByte));
+            }
+        }
+
+        // FLOAT na codificação do SIC/XE, FIX como gerada pelo montador (0xC4 | n i)
+        registers.getRegister("A").setValue(42);
+        memory.writeWord(0, new byte[]{(byte) 0xC0, 0x00, 0x00});
+        memory.writeWord(1, new byte[]{(byte) 0xC7, 0x00, 0x00});
+        controlUnit.step();
+        registers.getRegister("A").setValue(0);
+        controlUnit.step();
+
+        assertEquals(42, registers.getF());
+        assertEquals(42, registers.getRegister("A").getIntValue());
+    }
+
+    @Test
+    public void testFormat2OpcodesOccupyAllVariants() {
+        for (int opcode : new int[]{0x90, 0x94, 0x98, 0x9C, 0xA0, 0xA4, 0xA8, 0xAC, 0xB0, 0xB8}) {
+            assertEquals(2, InstructionSet.format(opcode));
+            for (int firstByte = opcode + 1; firstByte <= (opcode | 3); firstByte++) {
+                assertEquals(3, InstructionSet.format(firstByte));
+                assertEquals(InstructionSet.mnemonic(opcode), InstructionSet.mnemonic(firstByte));
+                assertSame(InstructionSet.handler(opcode), InstructionSet.handler(firstByte));
+            }
+        }
+        // O byte 0x04 é CLEAR (formato 2); as variantes com n e i continuam sendo LDX
+        assertEquals(2, InstructionSet.format(0x04));
+        assertEquals("LDX", InstructionSet.mnemonic(0x07));
+
+        // COMPR A,S na codificação do SIC/XE: segundo byte com os dois registradores
+        registers.getRegister("A").setValue(1);
+        registers.getRegister("S").setValue(5);
+        memory.writeWord(0, new byte[]{(byte) 0xA0, 0x04, 0x00});
+        controlUnit.step();
+
+        assertEquals(1, registers.getRegister("SW").getIntValue());
+        assertEquals(3, controlUnit.getIntValuePC());
+    }
+
+    @Test
+    public void testAssembledOpcodesExecuteAsTheSameMnemonic() {
+        List<String> assembled = List.of(
+                "ADD", "ADDR", "AND", "CLEAR", "COMP", "COMPR", "DIV", "DIVR",
+                "J", "JEQ", "JGT", "JLT", "JSUB", "LDA", "LDB", "LDCH", "LDL", "LDS",
+                "LDT", "LDX", "MUL", "MULR", "OR", "RMO", "RSUB", "SHIFTL", "SHIFTR",
+                "STA", "STB", "STCH", "STL", "STS", "STT", "STX", "SUB", "SUBR", "TIX",
+                "TIXR");
+        for (String mnemonic : assembled) {
+            assertTrue(Mapper.isMnemonic(mnemonic));
+            assertEquals(InstructionSet.opcodes().get(mnemonic), Mapper.getOpcode(mnemonic));
+            // O código montado (opcode | n i) é executado pela instrução do mesmo mnemônico
+            String executed = InstructionSet.mnemonic(Mapper.getOpcode(mnemonic) | 0x03);
+            assertEquals(mnemonic.equals("CLEAR") ? "LDX" : mnemonic, executed);
+        }
+        // A tabela do montador não acompanha o conjunto de instruções da máquina
+        assertFalse(Mapper.isValidMnemonic("FIX"));
+        assertFalse(Mapper.isValidMnemonic("SVC"));
+    }
+
+    @Test
+    public void testTraceRecordsChangedRegistersAndMemory() {
+        ExecutionTrace trace = controlUnit.getExecutionTrace();
+        trace.setEnabled(true);
+        // LDA 9 seguida de STA 12 (endereços absolutos)
+        memory.writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        memory.writeWord(1, new byte[]{0x0F, 0x00, 0x0C});
+        memory.writeWord(9 / 3, new byte[]{0x00, 0x10, 0x20});
+
+        controlUnit.step();
+        controlUnit.step();
+
+        assertEquals(2, trace.size());
+        TraceEvent load = trace.get(0);
+        assertEquals("LDA", load.getMnemonic());
+        assertEquals(1 << RegisterSet.A, load.getChangedRegisters());
+        assertEquals(0x1020, load.getRegisterValue(RegisterSet.A));
+        assertFalse(load.hasMemoryWrite());
+
+        TraceEvent store = trace.get(1);
+        assertEquals(3, store.getAddress());
+        assertEquals(12, store.getMemoryAddress());
+        assertEquals(0x1020, store.getMemoryValue());
+        assertEquals("000003: STA EA=00000C | Mem[00000C] ← 001020", controlUnit.getLastExecutionLog());
+    }
+
+    @Test
+    public void testTraceDisabledRecordsNothing() {
+        memory.writeWord(0, new byte[]{0x03, 0x00, 0x09});
+
+        controlUnit.step();
+
+        assertEquals(0, controlUnit.getExecutionTrace().size());
+        assertTrue(controlUnit.getLastExecutionLog().contains("LDA"));
+    }
+
+    @Test
+    public void testBlockExecutionSeesSelfModifyingWrite() {
+        // LDA 15; STA 9 (sobrescreve a instrução em 9 com RSUB); LDT 18; LDS 18; RSUB
+        memory.writeWord(0, new byte[]{0x03, 0x00, 0x0F});
+        memory.writeWord(1, new byte[]{0x0F, 0x00, 0x09});
+        memory.writeWord(2, new byte[]{0x77, 0x00, 0x12});
+        memory.writeWord(3, new byte[]{0x6F, 0x00, 0x12});
+        memory.writeWord(4, new byte[]{0x4F, 0x00, 0x00});
+        memory.writeWord(5, new byte[]{0x4F, 0x00, 0x00});
+        memory.writeWord(6, new byte[]{0x00, 0x00, 0x07});
+
+        controlUnit.run(100);
+
+        assertTrue(controlUnit.isHalted());
+        assertEquals(4, controlUnit.getInstructionCount());
+        assertEquals(7, registers.get(RegisterSet.T));
+        assertEquals(0, registers.get(RegisterSet.S));
+        assertEquals(1, controlUnit.getBlockCompiler().getBlocksInvalidated());
+    }
+
+    @Test
+    public void testRunRespectsInstructionBudget() {
+        // Laço infinito: J 0
+        memory.writeWord(0, new byte[]{0x3F, 0x00, 0x00});
+
+        controlUnit.run(10);
+
+        assertEquals(10, controlUnit.getInstructionCount());
+        assertFalse(controlUnit.isHalted());
+    }
+
+    @Test
+    public void testTranslatedBlockMatchesInterpreter() {
+        // SUM += 1 e TIX até LIMIT: LDA 18; ADD 21; STA 18; TIX 24; JLT 0; RSUB
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        Memory reference = new Memory(1024);
+        ControlUnit interpreter = new ControlUnit(reference);
+        interpreter.setBlockExecutionEnabled(false);
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+            reference.writeWord(i, program[i]);
+        }
+        controlUnit.setTranslationThreshold(2);
+
+        controlUnit.run(10_000);
+        interpreter.run(10_000);
+
+        assertEquals(1, controlUnit.getTranslator().getBlocksTranslated());
+        assertEquals(interpreter.getInstructionCount(), controlUnit.getInstructionCount());
+        for (int number : new int[]{RegisterSet.A, RegisterSet.X, RegisterSet.PC, RegisterSet.SW}) {
+            assertEquals(interpreter.getRegisterSet().get(number), registers.get(number));
+        }
+        assertArrayEquals(reference.getMemoryMap(), memory.getMemoryMap());
+    }
+
+    @Test
+    public void testFusedSequencesMatchInterpreter() {
+        // LDA/ADD/STA e TIX/JLT: LDA 18; ADD 21; STA 18; TIX 24; JLT 0; RSUB
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        assertFusedRunMatchesInterpreter(program);
+
+        SuperinstructionFuser fuser = controlUnit.getBlockCompiler().getFuser();
+        assertEquals(50, fuser.getHits(SuperinstructionFuser.Idiom.LOAD_ADD_STORE));
+        assertEquals(50, fuser.getHits(SuperinstructionFuser.Idiom.TIX_JLT));
+    }
+
+    @Test
+    public void testFusedCopyLoopMatchesInterpreter() {
+        // LDT 24; LDCH 90; STCH 93; TIXR T; JLT 3; RSUB (copia o byte 30 para o byte 31)
+        byte[][] program = {
+                {0x77, 0x00, 0x18}, {0x53, 0x00, 0x5A}, {0x57, 0x00, 0x5D},
+                {(byte) 0xBB, 0x00, 0x05}, {0x3B, 0x00, 0x03}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x00}, {0x00, 0x00, 0x07},
+                {0x00, 0x00, 0x00}, {0x41, 0x00, 0x00}
+        };
+        assertFusedRunMatchesInterpreter(program);
+
+        assertEquals(7, controlUnit.getBlockCompiler().getFuser().getHits(SuperinstructionFuser.Idiom.COPY_BYTE_LOOP));
+        assertEquals(0x41, memory.readByte(31) & 0xFF);
+    }
+
+    private void assertFusedRunMatchesInterpreter(byte[][] program) {
+        Memory reference = new Memory(1024);
+        ControlUnit interpreter = new ControlUnit(reference);
+        interpreter.setBlockExecutionEnabled(false);
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+            reference.writeWord(i, program[i]);
+        }
+        // Mantém as sequências na camada de blocos compilados
+        controlUnit.setTranslationEnabled(false);
+
+        controlUnit.run(10_000);
+        interpreter.run(10_000);
+
+        assertEquals(interpreter.getInstructionCount(), controlUnit.getInstructionCount());
+        for (int number : new int[]{RegisterSet.A, RegisterSet.X, RegisterSet.T, RegisterSet.PC, RegisterSet.SW}) {
+            assertEquals(interpreter.getRegisterSet().get(number), registers.get(number));
+        }
+        assertArrayEquals(reference.getMemoryMap(), memory.getMemoryMap());
+    }
+
+    @Test
+    public void testBreakpointStopsBeforeInstructionAndResumes() {
+        // LDA 18; ADD 21; STA 18; TIX 24; JLT 0; RSUB, com LIMIT = 50
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+        }
+        controlUnit.setTranslationThreshold(2);
+        Breakpoints breakpoints = controlUnit.getBreakpoints();
+        // STA 18: separa LDA/ADD/STA em dois blocos
+        breakpoints.addBreakpoint(6);
+
+        controlUnit.run(10_000);
+        assertEquals(new Breakpoints.Hit(Breakpoints.Kind.EXECUTE, 6), breakpoints.getHit());
+        assertEquals(6, controlUnit.getIntValuePC());
+        assertEquals(2, controlUnit.getInstructionCount());
+
+        // Continua a partir do ponto de parada, já com os blocos traduzidos
+        for (int round = 1; round <= 5; round++) {
+            controlUnit.run(10_000);
+            assertEquals(6, controlUnit.getIntValuePC());
+            assertEquals(2 + 5L * round, controlUnit.getInstructionCount());
+            assertEquals(round + 1, registers.get(RegisterSet.A));
+        }
+
+        breakpoints.removeBreakpoint(6);
+        controlUnit.run(10_000);
+        assertNull(breakpoints.getHit());
+        assertTrue(controlUnit.isHalted());
+        assertEquals(50, memory.readInt24(6));
+    }
+
+    @Test
+    public void testWatchpointsStopAfterAccessingInstruction() {
+        // LDA 18; ADD 21; STA 18; TIX 24; JLT 0; RSUB, com LIMIT = 50
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+        }
+        controlUnit.setTranslationThreshold(2);
+        Breakpoints breakpoints = controlUnit.getBreakpoints();
+
+        // Escrita em SUM: para logo após STA, mesmo com LDA/ADD/STA fundidas fora da observação
+        breakpoints.addWatchpoint(18, 3, Breakpoints.Kind.WRITE);
+        for (int round = 1; round <= 4; round++) {
+            controlUnit.run(10_000);
+            assertEquals(new Breakpoints.Hit(Breakpoints.Kind.WRITE, 18), breakpoints.getHit());
+            assertEquals(9, controlUnit.getIntValuePC());
+            assertEquals(3 + 5L * (round - 1), controlUnit.getInstructionCount());
+            assertEquals(round, memory.readInt24(6));
+        }
 
-}
\ No newline at end of file
+        // Leitura de LIMIT por TIX
+        breakpoints.removeWatchpoint(18, 3, Breakpoints.Kind.WRITE);
+        breakpoints.addWatchpoint(24, 1, Breakpoints.Kind.READ);
+        controlUnit.run(10_000);
+        assertEquals(new Breakpoints.Hit(Breakpoints.Kind.READ, 24), breakpoints.getHit());
+        assertEquals(12, controlUnit.getIntValuePC());
+        assertEquals(4, registers.get(RegisterSet.X));
+
+        // A interface lendo a memória fora da execução não dispara o ponto
+        memory.readInt24(8);
+        breakpoints.clear();
+        controlUnit.run(10_000);
+        assertNull(breakpoints.getHit());
+        assertTrue(controlUnit.isHalted());
+        assertEquals(50, memory.readInt24(6));
+    }
+
+    @Test
+    public void testReadWatchpointIgnoresAccessesOutsideTheInstruction() throws InterruptedException {
+        // STA 9; LDA 12; RSUB, com leitura observada em 9 e 15
+        memory.writeWord(0, new byte[]{0x0F, 0x00, 0x09});
+        memory.writeWord(1, new byte[]{0x03, 0x00, 0x0C});
+        memory.writeWord(2, new byte[]{0x4F, 0x00, 0x00});
+        Breakpoints breakpoints = controlUnit.getBreakpoints();
+        breakpoints.addWatchpoint(9, 3, Breakpoints.Kind.READ);
+        breakpoints.addWatchpoint(15, 3, Breakpoints.Kind.READ);
+        // O rastro relê a palavra escrita por STA para registrá-la
+        controlUnit.getExecutionTrace().setEnabled(true);
+
+        // Durante a escrita de STA, outra thread lê as palavras observadas, como a tabela de memória
+        List<Thread> readers = new ArrayList<>();
+        memory.addWriteListener((address, length) -> {
+            Thread reader = new Thread(() -> {
+                memory.readWord(9 / 3);
+                memory.readInt24(15 / 3);
+            });
+            readers.add(reader);
+            reader.start();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        controlUnit.run(10);
+
+        assertEquals(1, readers.size());
+        assertNull(breakpoints.getHit());
+        assertTrue(controlUnit.isHalted());
+        assertArrayEquals(new byte[3], memory.peekWord(9 / 3));
+    }
+
+    @Test
+    public void testStepBackRestoresRegistersAndMemory() {
+        List<String> states = runJournaledLoop();
+        int total = states.size() - 1;
+        assertTrue(controlUnit.isHalted());
+
+        assertEquals(1, controlUnit.stepBack(1));
+        assertFalse(controlUnit.isHalted());
+        assertEquals(states.get(total - 1), state());
+
+        assertEquals(total - 11, controlUnit.stepBack(total - 11));
+        assertEquals(states.get(10), state());
+        assertEquals(10, controlUnit.getInstructionCount());
+
+        // Volta a executar normalmente a partir do estado restaurado
+        controlUnit.run(10_000);
+        assertTrue(controlUnit.isHalted());
+        assertEquals(states.get(total), state());
+    }
+
+    @Test
+    public void testStepBackToLastWrite() {
+        runJournaledLoop();
+
+        // A última escrita em SUM (byte 18) foi o STA antes de TIX, JLT e RSUB
+        assertEquals(4, controlUnit.stepBackToWrite(18));
+        assertEquals(6, controlUnit.getIntValuePC());
+        assertEquals(49, memory.readInt24(6));
+        assertEquals(-1, controlUnit.stepBackToWrite(300));
+    }
+
+    @Test
+    public void testStepBackBeyondJournalReplaysFromCheckpoint() {
+        UndoJournal journal = controlUnit.getUndoJournal();
+        journal.setCapacity(64);
+        journal.setCheckpointPolicy(20, 100);
+        List<String> states = runJournaledLoop();
+        int total = states.size() - 1;
+        assertTrue(journal.getInstructions() < 200);
+        assertTrue(journal.getCheckpointCount() > 1);
+
+        assertEquals(200, controlUnit.stepBack(200));
+        assertEquals(states.get(total - 200), state());
+        assertEquals(total - 200, controlUnit.getInstructionCount());
+
+        assertEquals(3, controlUnit.stepBack(3));
+        assertEquals(states.get(total - 203), state());
+    }
+
+    // SUM += 1 até LIMIT = 50, com o diário ligado; retorna o estado antes e após cada instrução
+    private List<String> runJournaledLoop() {
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+        }
+        controlUnit.getUndoJournal().setEnabled(true);
+        List<String> states = new ArrayList<>();
+        states.add(state());
+        while (!controlUnit.isHalted()) {
+            controlUnit.step();
+            states.add(state());
+        }
+        return states;
+    }
+
+    private String state() {
+        StringBuilder sb = new StringBuilder();
+        for (int number : new int[]{RegisterSet.A, RegisterSet.X, RegisterSet.L, RegisterSet.PC, RegisterSet.SW}) {
+            sb.append(registers.get(number)).append(' ');
+        }
+        return sb.append(Arrays.toString(memory.getMemoryMap())).toString();
+    }
+
+    @Test
+    public void testProfilerCountsExecutionsOpcodesAndMemoryAccesses() {
+        // LDA 18; ADD 21; STA 18; TIX 24; JLT 0; RSUB, com LIMIT = 50
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+        }
+        Profiler profiler = controlUnit.getProfiler();
+        // Nunca habilitado, o perfilador não observa a memória nem aloca contadores
+        assertEquals(0, profiler.getWrites(18));
+        assertTrue(profiler.hotSpots(5).isEmpty());
+        profiler.setEnabled(true);
+
+        controlUnit.run(10_000);
+
+        assertEquals(controlUnit.getInstructionCount(), profiler.getTotalInstructions());
+        assertEquals(50, profiler.getExecutions(0));
+        assertEquals(1, profiler.getExecutions(15));
+        assertEquals(50, profiler.getOpcodeCount(0x03)); // LDA
+        assertEquals(50, profiler.getOpcodeCount(0x2F)); // TIX
+        // SUM fica na palavra 6 (byte 18), ONE na palavra 7 (byte 21)
+        assertEquals(50, profiler.getReads(18));
+        assertEquals(50, profiler.getWrites(18));
+        assertEquals(50, profiler.getReads(21));
+        assertEquals(0, profiler.getWrites(21));
+        assertEquals(0, profiler.hotSpots(1).get(0).address() % 3);
+
+        SymbolTable symbols = new SymbolTable();
+        symbols.addSymbol("LOOP", 0);
+        symbols.addSymbol("SUM", 6);
+        String report = profiler.report(symbols, 5);
+        assertTrue(report.contains("LOOP+3"));
+        assertTrue(report.contains("SUM"));
+        assertTrue(report.contains("TIX"));
+
+        // Desligado, nada mais é contado
+        profiler.setEnabled(false);
+        registers.set(RegisterSet.PC, 0);
+        controlUnit.step();
+        assertEquals(50, profiler.getExecutions(0));
+        memory.writeWord(6, new byte[]{0x00, 0x00, 0x00});
+        assertEquals(50, profiler.getWrites(18));
+    }
+
+    @Test
+    public void testProfilerCountsDoNotDependOnDecodeCache() {
+        // LDA 12; ADD 15; STA 18; RSUB
+        byte[][] program = {
+                {0x03, 0x00, 0x0C}, {0x1B, 0x00, 0x0F}, {0x0F, 0x00, 0x12},
+                {0x4F, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x02}
+        };
+        for (int i = 0; i < program.length; i++) {
+            memory.writeWord(i, program[i]);
+        }
+        // Execução com o cache de decodificação frio
+        Profiler cold = controlUnit.getProfiler();
+        cold.setEnabled(true);
+        controlUnit.run(100);
+
+        // Mesma execução em outra unidade, com o cache aquecido por uma execução anterior
+        ControlUnit warmUnit = new ControlUnit(memory);
+        warmUnit.run(100);
+        warmUnit.reset();
+        Profiler warm = warmUnit.getProfiler();
+        warm.setEnabled(true);
+        warmUnit.run(100);
+
+        assertEquals(0, cold.getReads(0));
+        for (int address = 0; address < 3 * program.length; address++) {
+            assertEquals(cold.getReads(address), warm.getReads(address), "leituras em " + address);
+            assertEquals(cold.getWrites(address), warm.getWrites(address), "escritas em " + address);
+        }
+        assertEquals(1, warm.getReads(12));
+        assertEquals(1, warm.getReads(15));
+        assertEquals(1, warm.getWrites(18));
+
+        // Leituras fora de uma instrução, como as da interface, também não são contadas
+        memory.readWord(4);
+        assertEquals(1, warm.getReads(12));
+    }
+
+    @Test
+    public void testFaultInTranslatedBlockFallsBackToInterpreter() {
+        // LDA 15; ADD 15; DIV 18; RSUB
+        memory.writeWord(0, new byte[]{0x03, 0x00, 0x0F});
+        memory.writeWord(1, new byte[]{0x1B, 0x00, 0x0F});
+        memory.writeWord(2, new byte[]{0x27, 0x00, 0x12});
+        memory.writeWord(3, new byte[]{0x4F, 0x00, 0x00});
+        memory.writeWord(5, new byte[]{0x00, 0x00, 0x05});
+        memory.writeWord(6, new byte[]{0x00, 0x00, 0x01});
+        controlUnit.setTranslationThreshold(1);
+        controlUnit.run(100);
+        BasicBlock block = controlUnit.getBlockCompiler().blockAt(0);
+        assertTrue(block.isTranslated());
+
+        // Divisor zero: a falha deixa o mesmo estado que o interpretador deixaria
+        controlUnit.reset();
+        memory.writeWord(6, new byte[]{0x00, 0x00, 0x00});
+        assertThrows(ArithmeticException.class, () -> controlUnit.run(100));
+
+        assertEquals(2, controlUnit.getInstructionCount());
+        assertEquals(9, registers.get(RegisterSet.PC));
+        assertEquals(10, registers.get(RegisterSet.A));
+        assertFalse(block.isTranslated());
+    }
+}
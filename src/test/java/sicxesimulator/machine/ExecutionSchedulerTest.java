@@ -0,0 +1,89 @@
+package sicxesimulator.machine;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionSchedulerTest {
+
+    @Test
+    public void testBatchCoversOneSlice() {
+        assertEquals(ExecutionScheduler.UNLIMITED_BATCH, ExecutionScheduler.batchSize(0));
+        assertEquals(1, ExecutionScheduler.batchSize(10));
+        assertEquals(1, ExecutionScheduler.batchSize(1_000));
+        assertEquals(10, ExecutionScheduler.batchSize(10_000));
+        assertEquals(50_000, ExecutionScheduler.batchSize(50_000_000));
+        assertEquals(ExecutionScheduler.UNLIMITED_BATCH, ExecutionScheduler.batchSize(1_000_000_000));
+    }
+
+    @Test
+    public void testSlowRateIsPaced() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(50);
+        scheduler.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            scheduler.tick();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis >= 199, "Rápido demais: " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis < 400, "Lento demais: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testHighRateDoesNotDrift() {
+        // 200 mil instruções a 2 MIPS: 100 lotes de 2000 em 100 ms, sem erro acumulado por lote
+        ExecutionScheduler scheduler = new ExecutionScheduler(2_000_000);
+        scheduler.start();
+        long start = System.nanoTime();
+        long executed = 0;
+        while (executed < 200_000) {
+            int batch = scheduler.nextBatch();
+            executed += batch;
+            scheduler.completed(batch);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(200_000, executed);
+        assertTrue(elapsedMillis >= 99, "Rápido demais: " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis < 200, "Lento demais: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testUnlimitedNeverWaits() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(0);
+        scheduler.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            scheduler.tick();
+        }
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertTrue(scheduler.isUnlimited());
+    }
+
+    @Test
+    public void testRateChangeRestartsCount() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(1);
+        scheduler.start();
+        assertEquals(1, scheduler.nextBatch());
+        // A mudança vale no próximo lote, sem compensar o tempo na taxa anterior
+        scheduler.setTargetRate(0);
+        assertEquals(ExecutionScheduler.UNLIMITED_BATCH, scheduler.nextBatch());
+        long start = System.nanoTime();
+        scheduler.completed(ExecutionScheduler.UNLIMITED_BATCH);
+        assertTrue(System.nanoTime() - start < 100_000_000L);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setTargetRate(-1));
+    }
+
+    @Test
+    public void testInterruptStopsWaiting() {
+        ExecutionScheduler scheduler = new ExecutionScheduler(1);
+        scheduler.start();
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        scheduler.tick();
+        try {
+            assertTrue(System.nanoTime() - start < 500_000_000L);
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import sicxesimulator.machine.cpu.ControlUnit;
+import sicxesimulator.machine.cpu.InstructionDecoder;
 import sicxesimulator.machine.cpu.RegisterSet;
 
 public class InstructionDecoderTest {
@@ -61,4 +62,40 @@ public class InstructionDecoderTest {
         assertEquals(3, registers.getRegister("PC").getIntValue());
     }
 
+    @Test
+    public void testDecodeCacheHitsOnRepeatedAddress() {
+        // LDA com endereço absoluto 9, executada duas vezes no mesmo endereço
+        memory.writeByte(0, 0x03);
+        memory.writeByte(1, 0x00);
+        memory.writeByte(2, 0x09);
+        InstructionDecoder decoder = controlUnit.getInstructionDecoder();
+
+        controlUnit.step();
+        registers.getRegister("PC").setValue(0);
+        controlUnit.step();
+
+        assertEquals(1, decoder.getCacheMisses());
+        assertEquals(1, decoder.getCacheHits());
+    }
+
+    @Test
+    public void testWriteInvalidatesCachedInstruction() {
+        // LDA 9 é decodificada e colocada no cache
+        memory.writeByte(0, 0x03);
+        memory.writeByte(1, 0x00);
+        memory.writeByte(2, 0x09);
+        memory.writeWord(9 / 3, new byte[]{0x00, 0x00, 0x11});
+        memory.writeWord(12 / 3, new byte[]{0x00, 0x00, 0x22});
+        controlUnit.step();
+        assertEquals(0x11, registers.getRegister("A").getIntValue());
+
+        // Código auto-modificável: o deslocamento passa a apontar para o endereço 12
+        memory.writeByte(2, 0x0C);
+        registers.getRegister("PC").setValue(0);
+        controlUnit.step();
+
+        assertEquals(0x22, registers.getRegister("A").getIntValue());
+        assertEquals(2, controlUnit.getInstructionDecoder().getCacheMisses());
+    }
+
 }
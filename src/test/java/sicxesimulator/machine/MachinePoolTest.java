@@ -0,0 +1,70 @@
+package sicxesimulator.machine;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MachinePoolTest {
+
+    @Test
+    public void testJobsFromImageRunIndependently() {
+        // LDA 12; ADD 12; STA 12; RSUB: dobra o valor da palavra 4
+        Machine loaded = new Machine();
+        loaded.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x0C});
+        loaded.getMemory().writeWord(1, new byte[]{0x1B, 0x00, 0x0C});
+        loaded.getMemory().writeWord(2, new byte[]{0x0F, 0x00, 0x0C});
+        loaded.getMemory().writeWord(3, new byte[]{0x4F, 0x00, 0x00});
+        Machine.Snapshot image = loaded.snapshot();
+
+        List<MachinePool.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            int input = i;
+            jobs.add(MachinePool.Job.ofImage("job" + i, image, m -> m.getMemory().writeInt24(4, input), 100));
+        }
+        jobs.add(MachinePool.Job.ofImage("budget", image, null, 2));
+
+        BatchResult result;
+        try (MachinePool pool = new MachinePool(4)) {
+            result = pool.runAll(jobs);
+        }
+
+        assertEquals(17, result.jobs().size());
+        for (int i = 0; i < 16; i++) {
+            BatchResult.JobResult job = result.jobs().get(i);
+            assertEquals("job" + i, job.name());
+            assertEquals(RunResult.StopReason.HALTED, job.run().stopReason());
+            assertEquals(2 * i, job.machine().getMemory().readInt24(4));
+        }
+        assertEquals(RunResult.StopReason.BUDGET_EXHAUSTED, result.jobs().get(16).run().stopReason());
+        assertEquals(16, result.count(RunResult.StopReason.HALTED));
+        assertEquals(16 * 4 + 2, result.totalInstructions());
+        // A imagem de origem não é alterada pelos trabalhos
+        assertEquals(0, loaded.getMemory().readInt24(4));
+    }
+
+    @Test
+    public void testCancelStopsRunningJobs() {
+        // J 0: laço infinito
+        Machine loaded = new Machine();
+        loaded.getMemory().writeWord(0, new byte[]{0x3F, 0x00, 0x00});
+        Machine.Snapshot image = loaded.snapshot();
+
+        List<MachinePool.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            jobs.add(MachinePool.Job.ofImage("loop" + i, image, null, Long.MAX_VALUE));
+        }
+        try (MachinePool pool = new MachinePool(2)) {
+            MachinePool.Batch batch = pool.submit(jobs);
+            batch.cancel();
+            BatchResult result = batch.await();
+            assertEquals(4, result.count(RunResult.StopReason.CANCELLED));
+        }
+    }
+
+    @Test
+    public void testJobRequiresProgramOrImage() {
+        assertThrows(IllegalArgumentException.class, () -> new MachinePool.Job("vazio", null, null, null, 10));
+    }
+}
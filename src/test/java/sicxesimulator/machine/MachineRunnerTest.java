@@ -0,0 +1,183 @@
+package sicxesimulator.machine;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import sicxesimulator.machine.cpu.Breakpoints;
+import sicxesimulator.machine.cpu.IllegalInstructionException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MachineRunnerTest {
+
+    @Test
+    public void testRepeatedRunsReuseOneThread() throws InterruptedException {
+        Machine machine = new Machine();
+        Set<Thread> threads = new HashSet<>();
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(0))) {
+            runner.setStepListener(() -> threads.add(Thread.currentThread()));
+            for (int run = 0; run < 5; run++) {
+                machine.reset();
+                // LDA 12; ADD 12; STA 12; RSUB: dobra o valor da palavra 4
+                machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x0C});
+                machine.getMemory().writeWord(1, new byte[]{0x1B, 0x00, 0x0C});
+                machine.getMemory().writeWord(2, new byte[]{0x0F, 0x00, 0x0C});
+                machine.getMemory().writeWord(3, new byte[]{0x4F, 0x00, 0x00});
+                machine.getMemory().writeInt24(4, run);
+
+                assertTrue(runner.start());
+                awaitState(runner, MachineRunner.State.HALTED);
+                assertEquals(2 * run, machine.getMemory().readInt24(4));
+                // Encerrado, o programa não executa de novo
+                assertFalse(runner.start());
+            }
+        }
+        assertEquals(1, threads.size());
+        Thread worker = threads.iterator().next();
+        assertEquals("simulator-run", worker.getName());
+        // O executor termina antes de a thread acabar de sair: espera por ela
+        worker.join(1000);
+        assertFalse(worker.isAlive());
+    }
+
+    @Test
+    public void testPauseResumeAndCancel() throws InterruptedException {
+        // J 0: laço infinito
+        Machine machine = new Machine();
+        machine.getMemory().writeWord(0, new byte[]{0x3F, 0x00, 0x00});
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(0))) {
+            assertFalse(runner.pause());
+            assertTrue(runner.start());
+            assertFalse(runner.start());
+            Thread.sleep(20);
+            assertTrue(runner.pause());
+            awaitState(runner, MachineRunner.State.PAUSED);
+            assertNull(runner.getHit());
+
+            long paused = machine.getControlUnit().getInstructionCount();
+            assertTrue(paused > 0);
+            Thread.sleep(20);
+            assertEquals(paused, machine.getControlUnit().getInstructionCount());
+
+            assertTrue(runner.start());
+            Thread.sleep(20);
+            assertTrue(runner.cancel());
+            assertEquals(MachineRunner.State.IDLE, runner.getState());
+            long cancelled = machine.getControlUnit().getInstructionCount();
+            assertTrue(cancelled > paused);
+            Thread.sleep(20);
+            assertEquals(cancelled, machine.getControlUnit().getInstructionCount());
+        }
+    }
+
+    @Test
+    public void testSliceListenerRunsBetweenChunks() {
+        // Laço de 3000 voltas (TIX/JLT) seguido de RSUB
+        Machine machine = new Machine();
+        machine.getMemory().writeWord(0, new byte[]{0x2F, 0x00, 0x0C});
+        machine.getMemory().writeWord(1, new byte[]{0x3B, 0x00, 0x00});
+        machine.getMemory().writeWord(2, new byte[]{0x4F, 0x00, 0x00});
+        machine.getMemory().writeInt24(4, 3000);
+        List<Long> slices = new ArrayList<>();
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(0))) {
+            // Entre trechos a máquina está parada, então o ouvinte pode ler o estado
+            runner.setSliceListener(() -> slices.add(machine.getControlUnit().getInstructionCount()));
+            assertTrue(runner.start());
+            awaitState(runner, MachineRunner.State.HALTED);
+        }
+        assertEquals(6001, machine.getControlUnit().getInstructionCount());
+        // Trechos completos e o último, interrompido pelo fim do programa
+        assertEquals(List.of(1024L, 2048L, 3072L, 4096L, 5120L, 6001L), slices);
+    }
+
+    @Test
+    public void testChangesFromAnotherThreadAreAppliedBetweenChunks() {
+        // STA 12; J 0: laço infinito que escreve na palavra 4
+        Machine machine = new Machine();
+        machine.getMemory().writeWord(0, new byte[]{0x0F, 0x00, 0x0C});
+        machine.getMemory().writeWord(1, new byte[]{0x3F, 0x00, 0x00});
+        Breakpoints breakpoints = machine.getControlUnit().getBreakpoints();
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(0))) {
+            assertTrue(runner.start());
+            // Pontos longe do laço, alterados o tempo todo enquanto ele executa
+            for (int i = 0; i < 2000; i++) {
+                runner.apply(() -> {
+                    breakpoints.toggleBreakpoint(0x600);
+                    breakpoints.addWatchpoint(0x900, 3, Breakpoints.Kind.READ);
+                    breakpoints.removeWatchpoint(0x900, 3, Breakpoints.Kind.READ);
+                });
+            }
+            assertEquals(MachineRunner.State.RUNNING, runner.getState());
+
+            runner.apply(() -> breakpoints.addWatchpoint(12, 3, Breakpoints.Kind.WRITE));
+            awaitState(runner, MachineRunner.State.PAUSED);
+            assertEquals(new Breakpoints.Hit(Breakpoints.Kind.WRITE, 12), runner.getHit());
+
+            // Parada, a alteração é aplicada na hora
+            runner.apply(breakpoints::clear);
+            assertFalse(breakpoints.hasWatchpoints());
+            assertFalse(breakpoints.hasBreakpoints());
+        }
+    }
+
+    @Test
+    public void testPauseDoesNotWaitForSlowSlice() {
+        Machine machine = new Machine();
+        machine.getMemory().writeWord(0, new byte[]{0x3F, 0x00, 0x00});
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(1))) {
+            assertTrue(runner.start());
+            // A 1 instrução por segundo a execução passa quase todo o tempo esperando
+            while (machine.getControlUnit().getInstructionCount() == 0) {
+                Thread.onSpinWait();
+            }
+            long start = System.nanoTime();
+            runner.pause();
+            awaitState(runner, MachineRunner.State.PAUSED);
+            assertTrue(System.nanoTime() - start < 500_000_000L);
+            assertEquals(1, machine.getControlUnit().getInstructionCount());
+        }
+    }
+
+    @Test
+    public void testStopsOnBreakpointAndFault() {
+        // LDA 9; J 0, com ponto de parada no J
+        Machine machine = new Machine();
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{0x3F, 0x00, 0x00});
+        machine.getControlUnit().getBreakpoints().toggleBreakpoint(3);
+        try (MachineRunner runner = new MachineRunner(machine, new ExecutionScheduler(0))) {
+            assertTrue(runner.start());
+            awaitState(runner, MachineRunner.State.PAUSED);
+            assertEquals(new Breakpoints.Hit(Breakpoints.Kind.EXECUTE, 3), runner.getHit());
+            assertEquals(1, machine.getControlUnit().getInstructionCount());
+
+            // A retomada executa a instrução do ponto de parada e para nele na volta seguinte
+            assertTrue(runner.start());
+            awaitState(runner, MachineRunner.State.PAUSED);
+            assertEquals(3, machine.getControlUnit().getInstructionCount());
+
+            // Opcode desconhecido no lugar do J
+            machine.getMemory().writeWord(1, new byte[]{(byte) 0xFF, 0x00, 0x00});
+            assertTrue(runner.start());
+            awaitState(runner, MachineRunner.State.FAULTED);
+            assertInstanceOf(IllegalInstructionException.class, runner.getFault());
+            assertFalse(runner.start());
+            assertTrue(runner.cancel());
+            assertEquals(MachineRunner.State.IDLE, runner.getState());
+            assertNull(runner.getFault());
+        }
+    }
+
+    private static void awaitState(MachineRunner runner, MachineRunner.State expected) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (runner.getState() != expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Estado esperado " + expected + ", mas está em " + runner.getState());
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -4,6 +4,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import sicxesimulator.machine.cpu.Breakpoints;
+import sicxesimulator.machine.cpu.ControlUnit;
+import sicxesimulator.machine.cpu.IllegalInstructionException;
+import sicxesimulator.machine.cpu.RegisterSet;
+import sicxesimulator.machine.cpu.TraceFileReader;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 public class MachineTest {
 
     private Machine machine;
@@ -37,4 +53,202 @@ public class MachineTest {
         machine.reset();
         assertEquals(0, machine.getControlUnit().getIntValuePC());
     }
+
+    @Test
+    public void testRunStopsOnHaltBudgetAndFault() {
+        // LDA 9 seguida de RSUB com L = 0, que encerra o programa
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{0x4F, 0x00, 0x00});
+
+        RunResult budget = machine.run(1);
+        assertEquals(RunResult.StopReason.BUDGET_EXHAUSTED, budget.stopReason());
+        assertEquals(1, budget.instructions());
+
+        RunResult halted = machine.run(100);
+        assertEquals(RunResult.StopReason.HALTED, halted.stopReason());
+        assertEquals(1, halted.instructions());
+        assertTrue(machine.getControlUnit().isHalted());
+
+        // Opcode desconhecido interrompe a execução com falha, sem reiniciar a máquina
+        machine.reset();
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{(byte) 0xFF, 0x00, 0x00});
+        RunResult fault = machine.run(100);
+        assertEquals(RunResult.StopReason.FAULT, fault.stopReason());
+        assertEquals(1, fault.instructions());
+        IllegalInstructionException illegal = assertInstanceOf(IllegalInstructionException.class, fault.fault());
+        assertEquals(3, illegal.getAddress());
+    }
+
+    @Test
+    public void testRunStopsOnBreakpointAndWatchpoint() {
+        // LDA 12; STA 15; RSUB com L = 0
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x0C});
+        machine.getMemory().writeWord(1, new byte[]{0x0F, 0x00, 0x0F});
+        machine.getMemory().writeWord(2, new byte[]{0x4F, 0x00, 0x00});
+        Breakpoints breakpoints = machine.getControlUnit().getBreakpoints();
+        breakpoints.addBreakpoint(3);
+        breakpoints.addWatchpoint(15, 3, Breakpoints.Kind.WRITE);
+
+        RunResult breakpoint = machine.run(100);
+        assertEquals(RunResult.StopReason.BREAKPOINT, breakpoint.stopReason());
+        assertEquals(1, breakpoint.instructions());
+
+        RunResult watch = machine.run(100);
+        assertEquals(RunResult.StopReason.WATCHPOINT, watch.stopReason());
+        assertEquals(1, watch.instructions());
+
+        RunResult halted = machine.run(100);
+        assertEquals(RunResult.StopReason.HALTED, halted.stopReason());
+    }
+
+    @Test
+    public void testForkAndRestoreRunIndependently() {
+        // LDA 12; ADD 12; STA 12; RSUB, com o valor 5 na palavra 4
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x0C});
+        machine.getMemory().writeWord(1, new byte[]{0x1B, 0x00, 0x0C});
+        machine.getMemory().writeWord(2, new byte[]{0x0F, 0x00, 0x0C});
+        machine.getMemory().writeWord(3, new byte[]{0x4F, 0x00, 0x00});
+        machine.getMemory().writeInt24(4, 5);
+        Machine.Snapshot loaded = machine.snapshot();
+
+        Machine fork = machine.fork();
+        assertEquals(RunResult.StopReason.HALTED, fork.run(100).stopReason());
+        assertEquals(10, fork.getMemory().readInt24(4));
+        // A cópia não altera a máquina de origem
+        assertEquals(5, machine.getMemory().readInt24(4));
+
+        machine.run(100);
+        assertEquals(10, machine.getMemory().readInt24(4));
+        machine.restore(loaded);
+        assertFalse(machine.getControlUnit().isHalted());
+        assertEquals(0, machine.getControlUnit().getIntValuePC());
+        assertEquals(5, machine.getMemory().readInt24(4));
+        machine.run(100);
+        assertEquals(10, machine.getMemory().readInt24(4));
+    }
+
+    @Test
+    public void testRecordAndReplayTrace() throws IOException {
+        // SUM += 1 até LIMIT = 50: LDA SUM; ADD ONE; STA SUM; TIX LIMIT; JLT 0; RSUB
+        byte[][] program = {
+                {0x03, 0x00, 0x12}, {0x1B, 0x00, 0x15}, {0x0F, 0x00, 0x12},
+                {0x2F, 0x00, 0x18}, {0x3B, 0x00, 0x00}, {0x4F, 0x00, 0x00},
+                {0x00, 0x00, 0x00}, {0x00, 0x00, 0x01}, {0x00, 0x00, 0x32}
+        };
+        for (int i = 0; i < program.length; i++) {
+            machine.getMemory().writeWord(i, program[i]);
+        }
+        // Estados esperados, executando uma cópia instrução a instrução
+        Machine reference = machine.fork();
+        List<String> states = new ArrayList<>();
+        states.add(state(reference));
+        while (!reference.getControlUnit().isHalted()) {
+            reference.getControlUnit().step();
+            states.add(state(reference));
+        }
+        int total = states.size() - 1;
+
+        Path file = Files.createTempFile("sicxe", ".trace");
+        try {
+            machine.startRecording(file);
+            machine.run(10_000);
+            assertEquals(total, machine.stopRecording());
+            // Além do cabeçalho e da imagem da memória, poucos bytes por instrução
+            assertTrue(Files.size(file) < machine.getMemorySize() + 100 + total * 10L);
+
+            try (TraceFileReader reader = new TraceFileReader(file)) {
+                assertEquals(total, reader.getRecordCount());
+                assertEquals(machine.getMemorySize(), reader.getMemorySize());
+                int stores = 0;
+                while (reader.next()) {
+                    if (reader.getWriteCount() > 0) {
+                        assertEquals(18, reader.getWriteAddress(0));
+                        assertEquals(3, reader.getWriteLength(0));
+                        stores++;
+                    }
+                }
+                assertEquals(total, reader.getIndex());
+                assertEquals(50, stores);
+                assertEquals(50, reader.getRegister(RegisterSet.A));
+                assertEquals(50, reader.getRegister(RegisterSet.X));
+            }
+
+            Machine replayed = new Machine();
+            for (int index : new int[]{0, 1, 10, total - 1, total, 7}) {
+                replayed.replayTrace(file, index);
+                assertEquals(states.get(index), state(replayed));
+                assertEquals(index, replayed.getControlUnit().getInstructionCount());
+            }
+            replayed.replayTrace(file, total);
+            assertTrue(replayed.getControlUnit().isHalted());
+            assertThrows(IllegalArgumentException.class, () -> replayed.replayTrace(file, total + 1));
+
+            // A execução continua normalmente a partir de um estado reproduzido
+            replayed.replayTrace(file, 10);
+            replayed.run(10_000);
+            assertEquals(states.get(total), state(replayed));
+        } finally {
+            machine.stopRecording();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testChangeMemorySizeKeepsExecutionSettings() {
+        ControlUnit old = machine.getControlUnit();
+        old.getProfiler().setEnabled(true);
+        old.setBlockExecutionEnabled(false);
+        old.setTranslationEnabled(false);
+        old.setTranslationThreshold(7);
+
+        machine.changeMemorySize(3 * 1024);
+        ControlUnit controlUnit = machine.getControlUnit();
+        assertNotSame(old, controlUnit);
+        assertTrue(controlUnit.getProfiler().isEnabled());
+        assertFalse(controlUnit.isBlockExecutionEnabled());
+        assertFalse(controlUnit.isTranslationEnabled());
+        assertEquals(7, controlUnit.getTranslationThreshold());
+        assertFalse(old.getProfiler().isEnabled());
+
+        // O perfilador conta as execuções sobre a nova memória: LDA 9; RSUB
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{0x4F, 0x00, 0x00});
+        machine.run(10);
+        assertEquals(2, controlUnit.getProfiler().getTotalInstructions());
+    }
+
+    @Test
+    public void testRunEmitsExecutionSliceEvents() throws IOException {
+        // LDA 9 seguida de RSUB com L = 0
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{0x4F, 0x00, 0x00});
+        Path file = Files.createTempFile("sicxe", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("sicxesimulator.ExecutionSlice");
+            recording.start();
+            machine.run(1);
+            machine.run(100);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> slices = RecordingFile.readAllEvents(file);
+            assertEquals(2, slices.size());
+            assertEquals(1, slices.get(0).getLong("instructions"));
+            assertEquals("BUDGET_EXHAUSTED", slices.get(0).getString("stopReason"));
+            assertEquals(3, slices.get(1).getInt("startAddress"));
+            assertEquals("HALTED", slices.get(1).getString("stopReason"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String state(Machine target) {
+        ControlUnit controlUnit = target.getControlUnit();
+        StringBuilder sb = new StringBuilder();
+        for (int number : new int[]{RegisterSet.A, RegisterSet.X, RegisterSet.L, RegisterSet.PC, RegisterSet.SW}) {
+            sb.append(controlUnit.getRegisterSet().get(number)).append(' ');
+        }
+        return sb.append(target.getMemory().readInt24(6)).toString();
+    }
 }
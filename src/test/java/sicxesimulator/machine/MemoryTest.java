@@ -3,25 +3,35 @@ package sicxesimulator.machine;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MemoryTest {
 
+    /**
+     * Cria a memória testada; subclasses trocam o armazenamento.
+     */
+    protected Memory newMemory(int size) {
+        return new Memory(size);
+    }
+
     @Test
     public void testMemorySizeBelowMinimum() {
         // Como a nova implementação não lança exceção para tamanhos abaixo de um mínimo,
         // apenas criamos a memória e verificamos o tamanho.
-        Memory mem = new Memory(512);
+        Memory mem = newMemory(512);
         assertEquals(512, mem.getSize());
     }
 
     @Test
     public void testGetSizeInBytes() {
-        Memory mem = new Memory(1024);
+        Memory mem = newMemory(1024);
         assertEquals(1024, mem.getSize());
     }
 
     @Test
     public void testWriteAndReadWord() {
-        Memory mem = new Memory(1024);
+        Memory mem = newMemory(1024);
         byte[] data = {0x01, 0x02, 0x03};
         int wordAddress = 10;
         mem.writeWord(wordAddress, data);
@@ -31,7 +41,7 @@ public class MemoryTest {
 
     @Test
     public void testWriteAndReadByte() {
-        Memory mem = new Memory(1024);
+        Memory mem = newMemory(1024);
         // Usando endereço em bytes diretamente. Por exemplo, escrevemos no byte de índice 5.
         int byteAddr = 5;
         int value = 0xAB;
@@ -42,7 +52,7 @@ public class MemoryTest {
 
     @Test
     public void testMemoryMapOnlyNonZero() {
-        Memory mem = new Memory(1024);
+        Memory mem = newMemory(1024);
         // Escreve uma palavra com valor não zero em uma posição.
         // Neste exemplo, escrevemos {0x00, 0x0F, 0x00} na palavra de índice 2.
         byte[] data = {0x00, 0x0F, 0x00};
@@ -64,4 +74,131 @@ public class MemoryTest {
             }
         }
     }
+
+    @Test
+    public void testReadAndWriteInt24() {
+        Memory mem = newMemory(1024);
+        mem.writeInt24(4, 0x123456);
+        assertArrayEquals(new byte[]{0x12, 0x34, 0x56}, mem.readWord(4));
+        assertEquals(0x123456, mem.readInt24(4));
+
+        // Valores negativos são truncados para 24 bits e lidos com extensão de sinal
+        mem.writeInt24(5, -2);
+        assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFE}, mem.readWord(5));
+        assertEquals(-2, mem.readInt24(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> mem.readInt24(mem.getAddressRange()));
+    }
+
+    @Test
+    public void testReadAndWriteLong48() {
+        Memory mem = newMemory(1024);
+        mem.writeLong48(6, 0x123456789ABCL);
+        assertArrayEquals(new byte[]{0x12, 0x34, 0x56}, mem.readWord(6));
+        assertArrayEquals(new byte[]{0x78, (byte) 0x9A, (byte) 0xBC}, mem.readWord(7));
+        assertEquals(0x123456789ABCL, mem.readLong48(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> mem.writeLong48(mem.getAddressRange() - 1, 1L));
+    }
+
+    @Test
+    public void testReadListenerNotifiedUntilRemoved() {
+        Memory mem = newMemory(1024);
+        int[] reads = new int[2];
+        Memory.ReadListener listener = (byteAddr, length) -> {
+            reads[0]++;
+            reads[1] = byteAddr;
+        };
+        mem.addReadListener(listener);
+        mem.readInt24(2);
+        assertEquals(1, reads[0]);
+        assertEquals(6, reads[1]);
+
+        mem.removeReadListener(listener);
+        mem.readByte(9);
+        assertEquals(1, reads[0]);
+    }
+
+    @Test
+    public void testSnapshotRestoreAndFork() {
+        Memory mem = newMemory(4 * Memory.PAGE_SIZE);
+        mem.writeInt24(1, 0x111111);
+        Memory.Snapshot snapshot = mem.snapshot();
+
+        mem.writeInt24(1, 0x222222);
+        assertEquals(0x222222, mem.readInt24(1));
+
+        Memory fork = new Memory(snapshot);
+        assertEquals(0x111111, fork.readInt24(1));
+        fork.writeInt24(1, 0x333333);
+        assertEquals(0x222222, mem.readInt24(1));
+
+        int[] notified = new int[2];
+        mem.addWriteListener((byteAddr, length) -> {
+            notified[0] = byteAddr;
+            notified[1] = length;
+        });
+        mem.restore(snapshot);
+        assertEquals(0x111111, mem.readInt24(1));
+        // Apenas a página alterada é notificada
+        assertEquals(0, notified[0]);
+        assertEquals(Memory.PAGE_SIZE, notified[1]);
+        assertEquals(0x111111, new Memory(snapshot).readInt24(1));
+
+        assertThrows(IllegalArgumentException.class, () -> newMemory(1024).restore(snapshot));
+    }
+
+    @Test
+    public void testLong48AcrossPageBoundary() {
+        Memory mem = newMemory(2 * Memory.PAGE_SIZE);
+        int wordIndex = Memory.PAGE_SIZE / 3 - 1;
+        mem.writeLong48(wordIndex, 0x123456789ABCL);
+        assertEquals(0x123456789ABCL, mem.readLong48(wordIndex));
+        assertEquals(0x789ABC, mem.readInt24(wordIndex + 1));
+    }
+
+    @Test
+    public void testChangedWordsSinceEpoch() {
+        Memory mem = newMemory(4 * Memory.PAGE_SIZE);
+        mem.writeInt24(2, 1);
+        mem.writeByte(Memory.PAGE_SIZE + 4, 0xFF);
+        assertArrayEquals(new int[]{2, Memory.PAGE_SIZE / 3 + 1}, mem.changedWordsSince(0));
+
+        int seen = mem.advanceEpoch();
+        assertArrayEquals(new int[0], mem.changedWordsSince(seen));
+        // Valor de 48 bits ocupa duas palavras
+        mem.writeLong48(10, 1L);
+        assertArrayEquals(new int[]{10, 11}, mem.changedWordsSince(seen));
+    }
+
+    @Test
+    public void testClearMemoryNotifiesOnlyWrittenPages() {
+        Memory mem = newMemory(4 * Memory.PAGE_SIZE);
+        mem.writeInt24(Memory.PAGE_SIZE / 3 * 2, 7);
+        int seen = mem.advanceEpoch();
+        List<Integer> notified = new ArrayList<>();
+        mem.addWriteListener((byteAddr, length) -> notified.add(byteAddr));
+
+        mem.clearMemory();
+
+        assertEquals(List.of(2 * Memory.PAGE_SIZE), notified);
+        assertEquals(0, mem.readInt24(Memory.PAGE_SIZE / 3 * 2));
+        assertEquals(Memory.PAGE_SIZE / 3, mem.changedWordsSince(seen).length);
+    }
+
+    @Test
+    public void testOverwriteListenerReceivesPreviousContent() {
+        Memory mem = newMemory(4 * Memory.PAGE_SIZE);
+        mem.writeInt24(1, 0xABCDEF);
+        mem.writeLong48(2, 0x123456789ABCL);
+        List<String> previous = new ArrayList<>();
+        mem.setOverwriteListener((byteAddr, length, value) ->
+                previous.add(byteAddr + ":" + length + ":" + Long.toHexString(value)));
+
+        mem.writeByte(4, 0);
+        mem.writeInt24(1, 0);
+        mem.writeLong48(2, 0);
+        mem.setOverwriteListener(null);
+        mem.writeInt24(1, 5);
+
+        assertEquals(List.of("4:1:cd", "3:3:ab00ef", "6:6:123456789abc"), previous);
+    }
 }
@@ -0,0 +1,90 @@
+package sicxesimulator.machine;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import sicxesimulator.machine.cpu.RegisterSet;
+
+/**
+ * Executa os testes de {@link MemoryTest} com as páginas fora do heap.
+ */
+public class OffHeapMemoryTest extends MemoryTest {
+
+    @Override
+    protected Memory newMemory(int size) {
+        return new Memory(size, Memory.Backend.OFF_HEAP);
+    }
+
+    @Test
+    public void testSnapshotKeepsBackend() {
+        Memory mem = newMemory(1024);
+        mem.writeInt24(2, -1);
+        Memory.Snapshot snapshot = mem.snapshot();
+        Memory fork = new Memory(snapshot);
+        assertEquals(Memory.Backend.OFF_HEAP, fork.getBackend());
+        assertEquals(-1, fork.readInt24(2));
+        assertThrows(IllegalArgumentException.class, () -> new Memory(1024).restore(snapshot));
+    }
+
+    @Test
+    public void testReusedPagesDoNotKeepOldContent() {
+        Memory mem = newMemory(4 * Memory.PAGE_SIZE);
+        for (int word = 0; word < 4 * Memory.PAGE_SIZE / 3; word++) {
+            mem.writeInt24(word, 0x123456);
+        }
+        Memory.Snapshot written = mem.snapshot();
+        // As páginas exclusivas descartadas voltam para a arena e são copiadas de novo
+        mem.writeInt24(0, 1);
+        mem.clearMemory();
+        mem.writeInt24(Memory.PAGE_SIZE / 3, 2);
+
+        assertEquals(0, mem.readInt24(0));
+        assertEquals(2, mem.readInt24(Memory.PAGE_SIZE / 3));
+        assertEquals(0, mem.readInt24(Memory.PAGE_SIZE / 3 + 1));
+        assertEquals(0x123456, new Memory(written).readInt24(0));
+    }
+
+    @Test
+    public void testMemoriesOnDifferentThreadsUseSeparateArenas() throws Exception {
+        int words = 4 * Memory.PAGE_SIZE / 3;
+        Memory[] memories = {newMemory(4 * Memory.PAGE_SIZE), newMemory(4 * Memory.PAGE_SIZE)};
+        Thread[] threads = new Thread[memories.length];
+        for (int m = 0; m < memories.length; m++) {
+            Memory mem = memories[m];
+            int value = m + 1;
+            // Cada memória descarta e recopia as suas páginas várias vezes, em paralelo
+            threads[m] = new Thread(() -> {
+                for (int round = 0; round < 200; round++) {
+                    mem.clearMemory();
+                    for (int word = 0; word < words; word++) {
+                        mem.writeInt24(word, value);
+                    }
+                }
+            });
+            threads[m].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int m = 0; m < memories.length; m++) {
+            for (int word = 0; word < words; word++) {
+                assertEquals(m + 1, memories[m].readInt24(word));
+            }
+        }
+    }
+
+    @Test
+    public void testChangeMemorySizeSelectsBackendAndRewiresControlUnit() {
+        Machine machine = new Machine();
+        machine.changeMemorySize(3 * 1024, Memory.Backend.OFF_HEAP);
+        assertEquals(Memory.Backend.OFF_HEAP, machine.getMemory().getBackend());
+
+        // LDA 9; RSUB, executados sobre a nova memória
+        machine.getMemory().writeWord(0, new byte[]{0x03, 0x00, 0x09});
+        machine.getMemory().writeWord(1, new byte[]{0x4F, 0x00, 0x00});
+        machine.getMemory().writeInt24(3, 42);
+        assertEquals(RunResult.StopReason.HALTED, machine.run(10).stopReason());
+        assertEquals(42, machine.getControlUnit().getRegisterSet().get(RegisterSet.A));
+    }
+}
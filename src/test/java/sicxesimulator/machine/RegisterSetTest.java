@@ -25,4 +25,19 @@ public class RegisterSetTest {
         regSet.clearAll();
         assertEquals(0, regSet.getRegister("A").getIntValue());
     }
+
+    @Test
+    public void testIndexedAccessSharesStorageWithNamedView() {
+        RegisterSet regSet = new RegisterSet();
+        regSet.set(RegisterSet.T, 0x1234567);
+        // Apenas 24 bits são mantidos
+        assertEquals(0x234567, regSet.getRegister("T").getIntValue());
+
+        regSet.getRegister("SW").setValue(2);
+        assertEquals(2, regSet.get(RegisterSet.SW));
+
+        regSet.setF(0x123456789ABCDL);
+        assertEquals(0x23456789ABCDL, regSet.getRegister("F").getLongValue());
+        assertSame(regSet.getRegister("PC"), regSet.getRegister(RegisterSet.PC));
+    }
 }
@@ -0,0 +1,72 @@
+package sicxesimulator.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogRingBufferTest {
+
+    @Test
+    public void testKeepsAllLinesUntilFull() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        assertEquals(3, buffer.size());
+        assertEquals("a", buffer.get(0));
+        assertEquals("c", buffer.get(2));
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    public void testDropOldestKeepsMostRecentLines() {
+        LogRingBuffer buffer = new LogRingBuffer(3);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.add("linha " + i));
+        }
+        assertEquals(3, buffer.size());
+        assertEquals("linha 7", buffer.get(0));
+        assertEquals("linha 8", buffer.get(1));
+        assertEquals("linha 9", buffer.get(2));
+        assertEquals(7, buffer.getDropped());
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(3));
+    }
+
+    @Test
+    public void testSampleKeepsOneOfEveryIntervalLinesWhenFull() {
+        LogRingBuffer buffer = new LogRingBuffer(2, LogRingBuffer.OverflowPolicy.SAMPLE, 3);
+        buffer.add("0");
+        buffer.add("1");
+        // Cheio: guarda a 1ª, a 4ª e a 7ª linha nova
+        boolean[] stored = new boolean[7];
+        for (int i = 0; i < 7; i++) {
+            stored[i] = buffer.add(String.valueOf(i + 2));
+        }
+        assertArrayEquals(new boolean[]{true, false, false, true, false, false, true}, stored);
+        assertEquals("5", buffer.get(0));
+        assertEquals("8", buffer.get(1));
+        assertEquals(7, buffer.getDropped());
+    }
+
+    @Test
+    public void testClearResetsLinesAndCounters() {
+        LogRingBuffer buffer = new LogRingBuffer(2);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        buffer.addDropped(5);
+        assertEquals(6, buffer.getDropped());
+
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.getDropped());
+        buffer.add("d");
+        assertEquals("d", buffer.get(0));
+    }
+
+    @Test
+    public void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new LogRingBuffer(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LogRingBuffer(4, LogRingBuffer.OverflowPolicy.SAMPLE, 0));
+    }
+}